@@ -3,18 +3,39 @@ package com.alexvasilkov.telegram.chart.app;
 import android.app.Activity;
 import android.graphics.PorterDuff;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
-import android.view.ViewGroup;
+import android.widget.ListView;
+import android.widget.Toast;
 
+import com.alexvasilkov.telegram.chart.BuildConfig;
 import com.alexvasilkov.telegram.chart.R;
 import com.alexvasilkov.telegram.chart.app.utils.Colors;
 import com.alexvasilkov.telegram.chart.app.widgets.charts.BaseChartWidget;
+import com.alexvasilkov.telegram.chart.app.widgets.charts.ChartsAdapter;
+import com.alexvasilkov.telegram.chart.app.widgets.charts.ChartsVisibilityTracker;
+import com.alexvasilkov.telegram.chart.data.ChartsLoader;
+import com.alexvasilkov.telegram.chart.widget.RenderHarness;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class ChartsActivity extends Activity {
 
+    // Generated charts are added to the list to check widgets recycling over a long list
+    private static final int GENERATED_CHARTS_COUNT = 50;
+
+    private static final String HARNESS_TAG = "RenderHarness";
+
+    // Charts are measured one by one to not affect each other
+    private static final ExecutorService harnessExecutor = Executors.newSingleThreadExecutor();
+
     private Preferences prefs;
     private Colors colors;
+    private ListView list;
+    private ChartsAdapter adapter;
+    private ChartsVisibilityTracker visibilityTracker;
 
 
     @Override
@@ -29,8 +50,26 @@ public class ChartsActivity extends Activity {
             getActionBar().setTitle(R.string.charts_title);
         }
 
+        list = findViewById(R.id.charts_list);
+        adapter = new ChartsAdapter(ChartsLoader.createItems(GENERATED_CHARTS_COUNT));
+        list.setAdapter(adapter);
+        visibilityTracker = new ChartsVisibilityTracker(list);
+
         prefs = new Preferences(this);
         setNightMode(prefs.isInNightMode());
+        setFrameMetricsShown(prefs.isFrameMetricsShown());
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        visibilityTracker.start();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        visibilityTracker.stop(); // Charts should not be animated while activity is paused
     }
 
     @Override
@@ -38,6 +77,9 @@ public class ChartsActivity extends Activity {
         getMenuInflater().inflate(R.menu.night_mode, menu);
         menu.findItem(R.id.menu_night_mode).getIcon()
                 .setColorFilter(colors.text, PorterDuff.Mode.SRC_IN);
+        menu.findItem(R.id.menu_frame_metrics).setChecked(prefs.isFrameMetricsShown());
+        // Render harness is a development tool, it is not available in release builds
+        menu.findItem(R.id.menu_render_harness).setVisible(BuildConfig.DEBUG);
         return true;
     }
 
@@ -48,6 +90,15 @@ public class ChartsActivity extends Activity {
             prefs.setInNightMode(isInNightMode);
             setNightMode(isInNightMode);
             return true;
+        } else if (item.getItemId() == R.id.menu_frame_metrics) {
+            boolean isShown = !prefs.isFrameMetricsShown();
+            prefs.setFrameMetricsShown(isShown);
+            setFrameMetricsShown(isShown);
+            invalidateOptionsMenu();
+            return true;
+        } else if (BuildConfig.DEBUG && item.getItemId() == R.id.menu_render_harness) {
+            runRenderHarness();
+            return true;
         }
 
         return super.onOptionsItemSelected(item);
@@ -67,10 +118,34 @@ public class ChartsActivity extends Activity {
         Colors.setWindowBackground(getWindow(), colors.window);
 
 
-        ViewGroup list = findViewById(R.id.charts_list);
+        // Recycled widgets will get new colors once bound
+        adapter.setColors(colors);
         for (int i = 0, size = list.getChildCount(); i < size; i++) {
             ((BaseChartWidget) list.getChildAt(i)).setColors(colors);
         }
     }
 
+    private void runRenderHarness() {
+        Toast.makeText(this, R.string.render_harness_started, Toast.LENGTH_SHORT).show();
+
+        final int width = list.getWidth();
+        final RenderHarness harness = new RenderHarness(this, width, width / 2);
+        final RenderHarness.Scenario scenario = RenderHarness.Scenario.createDefault();
+
+        for (ChartsLoader.Type type : ChartsLoader.Type.values()) {
+            ChartsLoader.loadChart(this, type, chart -> harnessExecutor.submit(() -> {
+                for (RenderHarness.Result result : harness.run(chart, scenario)) {
+                    Log.i(HARNESS_TAG, result.toString());
+                }
+            }));
+        }
+    }
+
+    private void setFrameMetricsShown(boolean isShown) {
+        adapter.setFrameMetricsShown(isShown);
+        for (int i = 0, size = list.getChildCount(); i < size; i++) {
+            ((BaseChartWidget) list.getChildAt(i)).setFrameMetricsShown(isShown);
+        }
+    }
+
 }
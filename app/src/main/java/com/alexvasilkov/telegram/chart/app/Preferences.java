@@ -7,6 +7,7 @@ class Preferences {
 
     private static final String PREFS_NAME = "app_prefs";
     private static final String KEY_NIGHT_MODE = "night_mode";
+    private static final String KEY_FRAME_METRICS = "frame_metrics";
 
     private final SharedPreferences prefs;
 
@@ -22,4 +23,12 @@ class Preferences {
         prefs.edit().putBoolean(KEY_NIGHT_MODE, isInNightMode).apply();
     }
 
+    boolean isFrameMetricsShown() {
+        return prefs.getBoolean(KEY_FRAME_METRICS, false);
+    }
+
+    void setFrameMetricsShown(boolean isShown) {
+        prefs.edit().putBoolean(KEY_FRAME_METRICS, isShown).apply();
+    }
+
 }
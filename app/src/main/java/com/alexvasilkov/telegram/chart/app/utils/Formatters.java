@@ -3,91 +3,123 @@ package com.alexvasilkov.telegram.chart.app.utils;
 import android.content.Context;
 import android.text.format.DateUtils;
 
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.text.NumberFormat;
+import com.alexvasilkov.telegram.chart.utils.NumberFormats;
+import com.alexvasilkov.telegram.chart.utils.TextBuffer;
+
+import java.util.Arrays;
 import java.util.Formatter;
 import java.util.Locale;
 
+/**
+ * Values and dates formatters which are safe to call on every frame: numbers are written into
+ * provided buffers directly and dates are memoized, since charts only contain a limited set of
+ * timestamps at their resolution. Should only be used from the main thread.
+ */
 public class Formatters {
 
     private static final String timeZone = "UTC";
 
+    private static final String RANGE_SEPARATOR = " – ";
+
+    private static final int TIME_FLAGS = DateUtils.FORMAT_SHOW_TIME
+            | DateUtils.FORMAT_ABBREV_TIME
+            | DateUtils.FORMAT_NO_MIDNIGHT
+            | DateUtils.FORMAT_NO_NOON;
+
+    private static final int DATE_SHORT_FLAGS = DateUtils.FORMAT_SHOW_DATE
+            | DateUtils.FORMAT_NO_YEAR
+            | DateUtils.FORMAT_ABBREV_MONTH;
+
+    private static final int DATE_LONG_FLAGS = DateUtils.FORMAT_SHOW_DATE
+            | DateUtils.FORMAT_SHOW_YEAR
+            | DateUtils.FORMAT_ABBREV_MONTH
+            | DateUtils.FORMAT_SHOW_WEEKDAY
+            | DateUtils.FORMAT_ABBREV_WEEKDAY;
+
+    private static final int RANGE_FLAGS = DateUtils.FORMAT_SHOW_DATE
+            | DateUtils.FORMAT_SHOW_YEAR
+            | DateUtils.FORMAT_ABBREV_MONTH;
+
     private final Context context;
-    private final DecimalFormat yFormat;
+
+    private final StringBuilder builder = new StringBuilder(50);
+    private final Formatter formatter = new Formatter(builder, Locale.getDefault());
+
+    private final DatesCache timeCache = new DatesCache(TIME_FLAGS);
+    private final DatesCache dateShortCache = new DatesCache(DATE_SHORT_FLAGS);
+    private final DatesCache dateLongCache = new DatesCache(DATE_LONG_FLAGS);
+    private final DatesCache rangeCache = new DatesCache(RANGE_FLAGS);
 
     public Formatters(Context context) {
         this.context = context;
-
-        yFormat = (DecimalFormat) NumberFormat.getIntegerInstance();
-        final DecimalFormatSymbols symbols = yFormat.getDecimalFormatSymbols();
-        symbols.setGroupingSeparator(' ');
-        yFormat.setDecimalFormatSymbols(symbols);
     }
 
 
     @SuppressWarnings("unused")
-    public String formatNumber(long value, int max) {
-        return yFormat.format(value);
+    public void formatNumber(long value, int max, TextBuffer out) {
+        NumberFormats.grouped(value, out);
     }
 
-    public String formatNumberAbbreviate(int value, long max) {
-        if (value == 0) {
-            return "0";
-        } else if (max >= 10_000_000) {
-            return String.format(Locale.US, "%.0fM", value / 1_000_000f);
-        } else if (max >= 1_000_000) {
-            return String.format(Locale.US, "%.1fM", value / 1_000_000f);
-        } else if (max >= 10_000) {
-            return String.format(Locale.US, "%.0fK", value / 1_000f);
-        } else if (max >= 1_000) {
-            return String.format(Locale.US, "%.1fK", value / 1_000f);
-        } else {
-            return String.valueOf(value);
-        }
+    public void formatNumberAbbreviate(int value, long max, TextBuffer out) {
+        NumberFormats.abbreviated(value, max, out);
     }
 
     public String formatTime(long timestamp) {
-        final int flags = DateUtils.FORMAT_SHOW_TIME
-                | DateUtils.FORMAT_ABBREV_TIME
-                | DateUtils.FORMAT_NO_MIDNIGHT
-                | DateUtils.FORMAT_NO_NOON;
-
-        return format(timestamp, flags);
+        return timeCache.get(timestamp);
     }
 
     public String formatDateShort(long timestamp) {
-        final int flags = DateUtils.FORMAT_SHOW_DATE
-                | DateUtils.FORMAT_NO_YEAR
-                | DateUtils.FORMAT_ABBREV_MONTH;
-
-        return format(timestamp, flags);
+        return dateShortCache.get(timestamp);
     }
 
     public String formatDateLong(long timestamp) {
-        final int flags = DateUtils.FORMAT_SHOW_DATE
-                | DateUtils.FORMAT_SHOW_YEAR
-                | DateUtils.FORMAT_ABBREV_MONTH
-                | DateUtils.FORMAT_SHOW_WEEKDAY
-                | DateUtils.FORMAT_ABBREV_WEEKDAY;
-
-        return format(timestamp, flags);
+        return dateLongCache.get(timestamp);
     }
 
-    public String formatRangeLong(long from, long to) {
-        final int flags = DateUtils.FORMAT_SHOW_DATE
-                | DateUtils.FORMAT_SHOW_YEAR
-                | DateUtils.FORMAT_ABBREV_MONTH;
+    public void formatRangeLong(long from, long to, TextBuffer out) {
+        final String fromStr = rangeCache.get(from);
+        final String toStr = rangeCache.get(to);
 
-        final String fromStr = format(from, flags);
-        final String toStr = format(to, flags);
-        return fromStr.equals(toStr) ? fromStr : fromStr + " – " + toStr;
+        out.append(fromStr);
+        if (!fromStr.equals(toStr)) {
+            out.append(RANGE_SEPARATOR).append(toStr);
+        }
     }
 
 
     private String format(long time, int flags) {
-        Formatter f = new Formatter(new StringBuilder(50), Locale.getDefault());
-        return DateUtils.formatDateRange(context, f, time, time, flags, timeZone).toString();
+        builder.setLength(0);
+        return DateUtils.formatDateRange(context, formatter, time, time, flags, timeZone)
+                .toString();
+    }
+
+
+    /**
+     * Small direct-mapped cache of formatted dates. Collisions just replace older values.
+     */
+    private class DatesCache {
+        private static final int SIZE = 256; // Should be a power of 2
+
+        private final int flags;
+        private final long[] keys = new long[SIZE];
+        private final String[] values = new String[SIZE];
+
+        DatesCache(int flags) {
+            this.flags = flags;
+            Arrays.fill(keys, Long.MIN_VALUE);
+        }
+
+        String get(long time) {
+            // Timestamps are usually aligned to minutes, hours or days, mixing higher bits in
+            final long hash = time ^ (time >>> 16) ^ (time >>> 32);
+            final int index = (int) (hash ^ (hash >>> 8)) & (SIZE - 1);
+
+            if (keys[index] != time || values[index] == null) {
+                keys[index] = time;
+                values[index] = format(time, flags);
+            }
+            return values[index];
+        }
     }
 
 }
@@ -0,0 +1,71 @@
+package com.alexvasilkov.telegram.chart.app.widgets;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.widget.TextView;
+
+import com.alexvasilkov.telegram.chart.utils.TextBuffer;
+
+/**
+ * Text view which can show text from reusable {@link TextBuffer} without allocating strings.
+ * Text is only updated if it was actually changed, to avoid extra layouts.
+ * <p>
+ * View width can also be fixed to the widest text shown so far, see {@link #useGrowOnlyWidth()}.
+ */
+@SuppressWarnings("AppCompatCustomView")
+public class BufferTextView extends TextView {
+
+    private final TextBuffer text = new TextBuffer();
+    private boolean isBufferText;
+
+    private boolean growOnlyWidth;
+    private int fixedWidth;
+
+    public BufferTextView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    /**
+     * Fixes view width to the widest text shown so far (but not less than min width), so that
+     * changing text does not request a layout unless even wider text is shown.
+     */
+    public void useGrowOnlyWidth() {
+        growOnlyWidth = true;
+        fixedWidth = Math.max(getMinWidth(), 0);
+        setWidth(fixedWidth);
+        ensureWidth(getPaint().measureText(getText(), 0, getText().length()));
+    }
+
+    public void setText(TextBuffer buffer) {
+        if (isBufferText && text.contentEquals(buffer)) {
+            return; // Nothing changed
+        }
+
+        // Text view wraps given chars without copying them, so we need our own copy
+        text.set(buffer);
+        isBufferText = true;
+        if (growOnlyWidth) {
+            ensureWidth(getPaint().measureText(text.chars(), 0, text.length()));
+        }
+        setText(text.chars(), 0, text.length());
+    }
+
+    @Override
+    public void setText(CharSequence text, BufferType type) {
+        isBufferText = false;
+        if (growOnlyWidth) {
+            ensureWidth(text == null ? 0f : getPaint().measureText(text, 0, text.length()));
+        }
+        super.setText(text, type);
+    }
+
+    private void ensureWidth(float textWidth) {
+        final int width = (int) Math.ceil(textWidth)
+                + getCompoundPaddingLeft() + getCompoundPaddingRight();
+        if (width > fixedWidth) {
+            fixedWidth = width;
+            setWidth(width);
+        }
+    }
+
+}
@@ -3,6 +3,7 @@ package com.alexvasilkov.telegram.chart.app.widgets;
 import android.animation.ObjectAnimator;
 import android.annotation.SuppressLint;
 import android.content.Context;
+import android.graphics.Color;
 import android.graphics.PorterDuff;
 import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
@@ -17,13 +18,13 @@ import com.alexvasilkov.telegram.chart.domain.Chart.Source;
 import com.alexvasilkov.telegram.chart.domain.FormatterDate;
 import com.alexvasilkov.telegram.chart.domain.FormatterValue;
 import com.alexvasilkov.telegram.chart.utils.ColorUtils;
+import com.alexvasilkov.telegram.chart.utils.TextBuffer;
 import com.alexvasilkov.telegram.chart.widget.ChartView;
 
-import java.util.Locale;
-
 public class PopupAdapter extends ChartView.PopupAdapterX<PopupAdapter.ViewHolder> {
 
     private static final float MIN_VALUE_ALPHA = 0.33f;
+    private static final int HIGHLIGHT_ALPHA = 40;
 
     private final Context context;
 
@@ -38,6 +39,8 @@ public class PopupAdapter extends ChartView.PopupAdapterX<PopupAdapter.ViewHolde
     private Chart chart;
     private int chartIndex;
 
+    private final TextBuffer text = new TextBuffer();
+
     public PopupAdapter(Context context) {
         this.context = context;
     }
@@ -73,6 +76,13 @@ public class PopupAdapter extends ChartView.PopupAdapterX<PopupAdapter.ViewHolde
 
         holder.itemsTable.setColumnCollapsed(0, !showPercent(chart));
 
+        // Texts changed while scrubbing should not change popup layout
+        holder.title.useGrowOnlyWidth();
+        for (ViewHolder.Item item : holder.items) {
+            item.percent.useGrowOnlyWidth();
+            item.value.useGrowOnlyWidth();
+        }
+
         return holder;
     }
 
@@ -90,7 +100,16 @@ public class PopupAdapter extends ChartView.PopupAdapterX<PopupAdapter.ViewHolde
         this.chartIndex = index;
         final long date = chart.x[index];
 
-        if (colorsSet) {
+        // Colors and names are only applied if changed, setting colors allocates new objects
+        final boolean updateColors = colorsSet
+                && (!holder.colorsApplied
+                || holder.popupColor != popupColor || holder.textColor != textColor);
+
+        if (updateColors) {
+            holder.colorsApplied = true;
+            holder.popupColor = popupColor;
+            holder.textColor = textColor;
+
             holder.title.setTextColor(textColor);
 
             final Drawable back = holder.itemView.getBackground().mutate();
@@ -98,7 +117,19 @@ public class PopupAdapter extends ChartView.PopupAdapterX<PopupAdapter.ViewHolde
             holder.itemView.setBackground(back);
         }
 
-        holder.title.setText(dateFormat == null ? String.valueOf(date) : dateFormat.format(date));
+        final boolean updateSources = holder.chart != chart;
+        holder.chart = chart;
+
+        // Values are only formatted if changed, unless format itself is changed
+        final boolean updateValues = updateSources || holder.valueFormat != valueFormat;
+        holder.valueFormat = valueFormat;
+
+        if (!holder.dateSet || holder.date != date) {
+            holder.dateSet = true;
+            holder.date = date;
+            holder.title.setText(
+                    dateFormat == null ? String.valueOf(date) : dateFormat.format(date));
+        }
 
         int totalValue = 0;
         for (int i = 0, size = chart.sources.length; i < size; i++) {
@@ -108,47 +139,96 @@ public class PopupAdapter extends ChartView.PopupAdapterX<PopupAdapter.ViewHolde
         for (int i = 0, size = chart.sources.length; i < size; i++) {
             final ObjectAnimator anim = holder.itemsAnim[i];
             final Source source = chart.sources[i];
+            final ViewHolder.Item item = holder.items[i];
             final int value = source.y[index];
 
-            if (colorsSet) {
-                holder.items[i].setTextColor(textColor);
+            if (updateColors) {
+                item.setTextColor(textColor);
+            }
+
+            if (updateSources || updateColors) {
+                item.name.setText(source.name);
+                item.value.setTextColor(ColorUtils.darken(source.color));
             }
 
-            holder.items[i].name.setText(source.name);
-            holder.items[i].value.setText(valueFormat.format(value, 0));
-            holder.items[i].value.setTextColor(ColorUtils.darken(source.color));
+            if (updateValues || item.boundValue != value) {
+                item.boundValue = value;
+                valueFormat.format(value, 0, text.clear());
+                item.value.setText(text);
+            }
 
             if (showPercent(chart)) {
-                String percentValue = visibilities[i] && totalValue > 0
-                        ? String.format(Locale.US, "%.0f%%", 100f * value / totalValue)
-                        : "-";
-                holder.items[i].percent.setText(percentValue);
+                final float percent =
+                        visibilities[i] && totalValue > 0 ? 100f * value / totalValue : -1f;
+
+                if (updateValues || item.boundPercent != percent) {
+                    item.boundPercent = percent;
+                    text.clear();
+                    if (percent != -1f) {
+                        text.appendFixed(percent, 0).append('%');
+                    } else {
+                        text.append('-');
+                    }
+                    item.percent.setText(text);
+                }
             }
 
             final float targetAlpha = visibilities[i] ? 1f : MIN_VALUE_ALPHA;
             if (animate) {
-                // Animating hidden sources's value
-                anim.setFloatValues(targetAlpha);
-                anim.start();
+                // Animating hidden sources's value, unless already animating to target alpha
+                final boolean isAtTarget = anim.isRunning()
+                        ? item.targetAlpha == targetAlpha
+                        : item.layout.getAlpha() == targetAlpha;
+                if (!isAtTarget) {
+                    anim.setFloatValues(targetAlpha);
+                    anim.start();
+                }
             } else {
                 anim.cancel();
-                holder.items[i].layout.setAlpha(targetAlpha);
+                item.layout.setAlpha(targetAlpha);
             }
+            item.targetAlpha = targetAlpha;
         }
 
         if (showTotal(chart)) {
             final ViewHolder.Item total = holder.items[chart.sources.length];
 
-            if (colorsSet) {
+            if (updateColors) {
                 total.setTextColor(textColor);
             }
 
-            total.name.setText(R.string.all);
-            total.value.setText(valueFormat.format(totalValue, 0));
+            if (updateSources) {
+                total.name.setText(R.string.all);
+            }
+
+            if (updateValues || total.boundValue != totalValue) {
+                total.boundValue = totalValue;
+                valueFormat.format(totalValue, 0, text.clear());
+                total.value.setText(text);
+            }
         }
     }
 
 
+    @Override
+    protected void bindHighlight(ViewHolder holder, Chart chart, int source) {
+        if (holder.highlighted == source) {
+            return;
+        }
+
+        // Only changing rows background, popup size is not affected
+        if (holder.highlighted != -1) {
+            holder.items[holder.highlighted].layout.setBackgroundColor(Color.TRANSPARENT);
+        }
+        if (source != -1) {
+            final int color = chart.sources[source].color;
+            holder.items[source].layout.setBackgroundColor(Color.argb(HIGHLIGHT_ALPHA,
+                    Color.red(color), Color.green(color), Color.blue(color)));
+        }
+        holder.highlighted = source;
+    }
+
+
     private static boolean showTotal(Chart chart) {
         return chart.type == Chart.Type.BARS && chart.sources.length > 1;
     }
@@ -163,13 +243,23 @@ public class PopupAdapter extends ChartView.PopupAdapterX<PopupAdapter.ViewHolde
 
     static class ViewHolder extends ChartView.PopupViewHolder {
 
-        final TextView title = itemView.findViewById(R.id.chart_popup_title);
+        final BufferTextView title = itemView.findViewById(R.id.chart_popup_title);
         final View arrow = itemView.findViewById(R.id.chart_popup_arrow);
         final TableLayout itemsTable = itemView.findViewById(R.id.chart_popup_sources);
 
         final Item[] items;
         final ObjectAnimator[] itemsAnim;
 
+        Chart chart;
+        FormatterValue valueFormat;
+        int highlighted = -1;
+        boolean dateSet;
+        long date;
+
+        boolean colorsApplied;
+        int popupColor;
+        int textColor;
+
         @SuppressLint("InflateParams")
         ViewHolder(ViewGroup parent, LayoutInflater inflater, int size) {
             super(inflater.inflate(R.layout.chart_popup, parent, false));
@@ -187,9 +277,13 @@ public class PopupAdapter extends ChartView.PopupAdapterX<PopupAdapter.ViewHolde
 
         static class Item {
             final View layout;
-            final TextView percent;
+            final BufferTextView percent;
             final TextView name;
-            final TextView value;
+            final BufferTextView value;
+
+            float targetAlpha = 1f;
+            int boundValue;
+            float boundPercent;
 
             Item(View layout) {
                 this.layout = layout;
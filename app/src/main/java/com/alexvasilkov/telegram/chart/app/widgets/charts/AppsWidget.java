@@ -13,22 +13,19 @@ import android.widget.TextView;
 
 import com.alexvasilkov.telegram.chart.R;
 import com.alexvasilkov.telegram.chart.app.utils.Colors;
+import com.alexvasilkov.telegram.chart.app.widgets.BufferTextView;
 import com.alexvasilkov.telegram.chart.data.ChartsLoader;
-import com.alexvasilkov.telegram.chart.data.ChartsLoader.Type;
 import com.alexvasilkov.telegram.chart.domain.Chart;
 import com.alexvasilkov.telegram.chart.domain.Chart.Source;
 import com.alexvasilkov.telegram.chart.domain.FormatterValue;
 import com.alexvasilkov.telegram.chart.utils.ColorUtils;
+import com.alexvasilkov.telegram.chart.utils.TextBuffer;
 import com.alexvasilkov.telegram.chart.widget.BaseChartView;
 import com.alexvasilkov.telegram.chart.widget.ChartView.PopupAdapterSource;
 import com.alexvasilkov.telegram.chart.widget.ChartView.PopupViewHolder;
 
-import java.util.Calendar;
-
 public class AppsWidget extends BaseChartWidget {
 
-    private static final Type TYPE = Type.APPS;
-
     private final SourcePopupAdapter detailsPopupAdapter;
 
     public AppsWidget(Context context, AttributeSet attrs) {
@@ -39,15 +36,14 @@ public class AppsWidget extends BaseChartWidget {
 
         detailsPopupAdapter = new SourcePopupAdapter(formatters::formatNumber);
         details.chartView.setPopupAdapterSource(detailsPopupAdapter);
-
-        ChartsLoader.loadChart(context, TYPE, this::setMainChart);
     }
 
     @Override
     void onRequestDetails(long date) {
         final long[] dates = new long[] { date };
         final int detailsDays = 6;
-        ChartsLoader.loadDetails(getContext(), TYPE, dates, detailsDays, this::onDetailsLoaded);
+        ChartsLoader.loadDetails(
+                getContext(), type, dates, detailsDays, whileBound(this::onDetailsLoaded));
     }
 
     private void onDetailsLoaded(Chart[] charts) {
@@ -59,7 +55,7 @@ public class AppsWidget extends BaseChartWidget {
     void animateChart(
             BaseChartView fromView, Matrix fromMatrix, Chart fromChart,
             BaseChartView toView, Matrix toMatrix, Chart toChart,
-            long date, Calendar calendar, boolean show
+            long date, boolean show
     ) {
         if (fromView == main.chartView) {
 
@@ -82,7 +78,7 @@ public class AppsWidget extends BaseChartWidget {
             super.animateChart(
                     fromView, fromMatrix, fromChart,
                     toView, toMatrix, toChart,
-                    date, calendar, show
+                    date, show
             );
         }
     }
@@ -98,6 +94,7 @@ public class AppsWidget extends BaseChartWidget {
     static class SourcePopupAdapter extends PopupAdapterSource<SourcePopupAdapter.ViewHolder> {
 
         private final FormatterValue formatter;
+        private final TextBuffer text = new TextBuffer();
 
         private boolean colorsSet;
         private int popupColor;
@@ -122,7 +119,16 @@ public class AppsWidget extends BaseChartWidget {
         protected void bindView(
                 ViewHolder holder, Chart chart, int sourceInd, int from, int to, boolean animate) {
 
-            if (colorsSet) {
+            // Colors and name are only applied if changed, setting colors allocates new objects
+            final boolean updateColors = colorsSet
+                    && (!holder.colorsApplied
+                    || holder.popupColor != popupColor || holder.textColor != textColor);
+
+            if (updateColors) {
+                holder.colorsApplied = true;
+                holder.popupColor = popupColor;
+                holder.textColor = textColor;
+
                 holder.name.setTextColor(textColor);
 
                 final Drawable back = holder.itemView.getBackground().mutate();
@@ -136,16 +142,28 @@ public class AppsWidget extends BaseChartWidget {
                 total += source.y[i];
             }
 
-            holder.name.setText(source.name);
+            if (holder.chart != chart || holder.sourceInd != sourceInd) {
+                holder.chart = chart;
+                holder.sourceInd = sourceInd;
+                holder.name.setText(source.name);
+                holder.value.setTextColor(ColorUtils.darken(source.color));
+            }
 
-            holder.value.setText(formatter.format(total, 0));
-            holder.value.setTextColor(ColorUtils.darken(source.color));
+            formatter.format(total, 0, text.clear());
+            holder.value.setText(text);
         }
 
         static class ViewHolder extends PopupViewHolder {
 
             final TextView name;
-            final TextView value;
+            final BufferTextView value;
+
+            Chart chart;
+            int sourceInd = -1;
+
+            boolean colorsApplied;
+            int popupColor;
+            int textColor;
 
             @SuppressLint("InflateParams")
             ViewHolder(ViewGroup parent, LayoutInflater inflater) {
@@ -22,25 +22,29 @@ import android.widget.TextView;
 import com.alexvasilkov.telegram.chart.R;
 import com.alexvasilkov.telegram.chart.app.utils.Colors;
 import com.alexvasilkov.telegram.chart.app.utils.Formatters;
+import com.alexvasilkov.telegram.chart.app.widgets.BufferTextView;
 import com.alexvasilkov.telegram.chart.app.widgets.PopupAdapter;
+import com.alexvasilkov.telegram.chart.data.ChartsLoader;
+import com.alexvasilkov.telegram.chart.data.ChartsLoader.Type;
 import com.alexvasilkov.telegram.chart.domain.Chart;
 import com.alexvasilkov.telegram.chart.domain.Chart.Source;
 import com.alexvasilkov.telegram.chart.domain.GroupBy;
 import com.alexvasilkov.telegram.chart.utils.ChartMath;
 import com.alexvasilkov.telegram.chart.utils.ColorUtils;
+import com.alexvasilkov.telegram.chart.utils.TextBuffer;
 import com.alexvasilkov.telegram.chart.widget.BaseChartView;
 import com.alexvasilkov.telegram.chart.widget.ChartFinderView;
 import com.alexvasilkov.telegram.chart.widget.ChartView;
+import com.alexvasilkov.telegram.chart.widget.PreparedChart;
 
-import java.util.Calendar;
-import java.util.TimeZone;
+import java.util.ArrayList;
+import java.util.List;
 
 public abstract class BaseChartWidget extends FrameLayout {
 
     static final long ANIMATION_DURATION = 250L;
     private static final boolean USE_SYSTEM_ANIMATION = true;
-
-    final Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    private static final int LONG_RANGE_YEARS = 5;
 
     final Holder main;
     final Holder details;
@@ -50,10 +54,20 @@ public abstract class BaseChartWidget extends FrameLayout {
     final Formatters formatters = new Formatters(getContext());
 
     private boolean darken;
+    private Colors colors;
+
+    ChartsLoader.Item item;
+    Type type;
+    private int bindToken;
+
+    private final List<Animator> chartAnimators = new ArrayList<>();
 
     private Boolean detailsShown = null;
     private long detailsDate;
 
+    private boolean isPaused;
+    private boolean isReleased;
+
     public BaseChartWidget(Context context, AttributeSet attrs) {
         super(context, attrs);
         LayoutInflater.from(context).inflate(R.layout.chart_widget, this, true);
@@ -86,15 +100,13 @@ public abstract class BaseChartWidget extends FrameLayout {
         sourcesGroup = findViewById(R.id.chart_sources);
 
         main.chartView.setXLabelFormatter(formatters::formatDateShort);
-        main.chartView.groupBy(GroupBy.MONTH);
-        main.finderView.groupBy(GroupBy.MONTH, 2, 12, 4, false);
         main.popupAdapter.setDateFormat(formatters::formatDateLong);
         main.popupAdapter.setClickListener(
                 (chart, index) -> onRequestDetails(detailsDate = chart.x[index]));
 
         details.titleText.setOnClickListener(view -> showDetails(false, true));
         details.chartView.setXLabelFormatter(time -> {
-            if (GroupBy.DAY.isStart(calendar, time)) {
+            if (GroupBy.DAY.isStart(time)) {
                 return formatters.formatDateShort(time);
             } else {
                 return formatters.formatTime(time);
@@ -105,6 +117,67 @@ public abstract class BaseChartWidget extends FrameLayout {
         details.popupAdapter.setDateFormat(formatters::formatTime);
     }
 
+    /**
+     * Binds widget to given chart item, chart is loaded asynchronously. All the views and painters
+     * are reused, results of any loadings started for previously bound chart are ignored.
+     */
+    public void bind(ChartsLoader.Item item) {
+        if (item.equals(this.item)) {
+            return; // Already bound
+        }
+
+        this.item = item;
+        this.type = item.type;
+        bindToken++;
+
+        // Hiding previous chart until new one is loaded
+        animate().cancel();
+        setAlpha(0f);
+        main.chart = null;
+        details.chart = null;
+        detailsShown = null;
+        sourcesGroup.removeAllViews();
+
+        // Animators are removed from the list once canceled
+        for (int i = chartAnimators.size() - 1; i >= 0; i--) {
+            chartAnimators.get(i).cancel();
+        }
+
+        // Main views will get new charts, details views keep old ones until details are requested
+        resetViews(main);
+        resetViews(details);
+        details.chartView.releaseCaches();
+        details.finderView.releaseCaches();
+
+        ChartsLoader.loadChart(getContext(), item, whileBound(this::setMainChart));
+    }
+
+    private static void resetViews(Holder holder) {
+        holder.layout.animate().cancel();
+        resetTransition(holder.chartView);
+        resetTransition(holder.finderView);
+    }
+
+    private static void resetTransition(BaseChartView view) {
+        // Views can be in the middle of details transition, see animateChart()
+        view.animate().cancel();
+        view.setScaleX(1f);
+        view.setTranslationX(0f);
+        view.setChartMatrixExtra(null);
+    }
+
+    /**
+     * Wraps loading listener to skip results delivered after widget is bound to another chart.
+     */
+    <T> ChartsLoader.Listener<T> whileBound(ChartsLoader.Listener<T> listener) {
+        final int token = bindToken;
+        return result -> {
+            if (token == bindToken) {
+                listener.onResult(result);
+            }
+        };
+    }
+
     boolean showMainSources() {
         return true;
     }
@@ -114,18 +187,41 @@ public abstract class BaseChartWidget extends FrameLayout {
     }
 
     void setMainChart(Chart chart) {
+        // Painters are prepared on a background thread to avoid hiccups on main thread
+        PreparedChart.prepare(chart, whileBound(this::showMainChart)::onResult);
+    }
+
+    private void showMainChart(PreparedChart prepared) {
+        final Chart chart = prepared.getChart();
+
         animate().setDuration(400L).alpha(1f);
         main.chart = chart;
-        main.finderView.setInitialDate(chart.x[chart.x.length - 1]);
-        main.finderView.setChart(chart);
+
+        // Long charts are grouped by years, otherwise there will be too many month labels
+        final long fromTime = chart.x[0];
+        final long toTime = chart.x[chart.x.length - 1];
+        if (GroupBy.YEAR.distance(fromTime, toTime) > LONG_RANGE_YEARS) {
+            main.chartView.groupBy(GroupBy.YEAR);
+            main.finderView.groupBy(GroupBy.YEAR, 1, 10, 2, false);
+        } else {
+            main.chartView.groupBy(GroupBy.MONTH);
+            main.finderView.groupBy(GroupBy.MONTH, 2, 12, 4, false);
+        }
+
+        main.finderView.setInitialDate(toTime);
+        main.finderView.setChart(prepared);
 
         showDetails(false, false);
     }
 
     void setDetailsChart(Chart chart) {
-        details.chart = chart;
+        PreparedChart.prepare(chart, whileBound(this::showDetailsChart)::onResult);
+    }
+
+    private void showDetailsChart(PreparedChart prepared) {
+        details.chart = prepared.getChart();
         details.finderView.setInitialDate(detailsDate);
-        details.finderView.setChart(chart);
+        details.finderView.setChart(prepared);
 
         if (isDetailsHasSameSources()) {
             details.finderView.setSourceVisibility(main.finderView.getSourcesVisibility(), false);
@@ -169,12 +265,12 @@ public abstract class BaseChartWidget extends FrameLayout {
             animateChart(
                     main.chartView, main.matrixChart, main.chart,
                     details.chartView, details.matrixChart, details.chart,
-                    detailsDate, calendar, show
+                    detailsDate, show
             );
             animateChart(
                     main.finderView, main.matrixFinder, main.chart,
                     details.finderView, details.matrixFinder, details.chart,
-                    detailsDate, calendar, show
+                    detailsDate, show
             );
         }
     }
@@ -222,7 +318,7 @@ public abstract class BaseChartWidget extends FrameLayout {
     void animateChart(
             BaseChartView fromView, Matrix fromMatrix, Chart fromChart,
             BaseChartView toView, Matrix toMatrix, Chart toChart,
-            long date, Calendar calendar, boolean show
+            long date, boolean show
     ) {
         fromMatrix.reset();
         fromView.setChartMatrixExtra(fromMatrix);
@@ -233,7 +329,7 @@ public abstract class BaseChartWidget extends FrameLayout {
         final float fromWidth = ChartMath.mapX(fromView.getChartMatrix(), 0f)
                 - ChartMath.mapX(fromView.getChartMatrix(), 1f);
 
-        final long toDateEnd = fromChart.resolution.add(calendar, date, 1);
+        final long toDateEnd = fromChart.resolution.add(date, 1);
         final float steps = toChart.resolution.distance(date, toDateEnd);
 
         final float toWidth = ChartMath.mapX(toView.getChartMatrix(), 0f)
@@ -281,11 +377,65 @@ public abstract class BaseChartWidget extends FrameLayout {
                 toView.setChartMatrixExtra(toMatrix);
             }
         });
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                chartAnimators.remove(animation);
+            }
+        });
+        chartAnimators.add(animator);
         animator.start();
     }
 
 
+    /**
+     * Pauses charts updates while widget is not visible, see {@link BaseChartView#setPaused}.
+     */
+    public void setPaused(boolean paused) {
+        if (isPaused == paused) {
+            return;
+        }
+        isPaused = paused;
+        isReleased = false;
+
+        main.chartView.setPaused(paused);
+        main.finderView.setPaused(paused);
+        details.chartView.setPaused(paused);
+        details.finderView.setPaused(paused);
+    }
+
+    /**
+     * Releases charts caches, only makes sense for paused widgets which are far from the screen.
+     */
+    public void releaseCaches() {
+        if (!isPaused || isReleased) {
+            return;
+        }
+        isReleased = true;
+
+        main.chartView.releaseCaches();
+        main.finderView.releaseCaches();
+        details.chartView.releaseCaches();
+        details.finderView.releaseCaches();
+    }
+
+
+    public Colors getColors() {
+        return colors;
+    }
+
+    /**
+     * Shows collected frame metrics on top of main and details charts.
+     */
+    public void setFrameMetricsShown(boolean isShown) {
+        main.chartView.setFrameMetricsHudEnabled(isShown);
+        details.chartView.setFrameMetricsHudEnabled(isShown);
+        main.chartView.getFrameMetrics().setEnabled(isShown);
+        details.chartView.getFrameMetrics().setEnabled(isShown);
+    }
+
     public void setColors(Colors colors) {
+        this.colors = colors;
         setBackgroundColor(colors.background);
 
         setColors(main, colors);
@@ -408,7 +558,8 @@ public abstract class BaseChartWidget extends FrameLayout {
     static class Holder {
         final View layout;
         final TextView titleText;
-        final TextView rangeText;
+        final BufferTextView rangeText;
+        final TextBuffer rangeTextBuffer = new TextBuffer();
         final ChartView chartView;
         final ChartFinderView finderView;
 
@@ -422,7 +573,7 @@ public abstract class BaseChartWidget extends FrameLayout {
         Holder(
                 boolean details,
                 View layout,
-                TextView titleText, TextView rangeText,
+                TextView titleText, BufferTextView rangeText,
                 ChartView chartView, ChartFinderView finderView,
                 PopupAdapter popupAdapter,
                 Formatters formatters
@@ -442,7 +593,8 @@ public abstract class BaseChartWidget extends FrameLayout {
             chartView.setXRangeListener((chart, range) -> {
                 final long from = chart.x[Math.round(range.from)];
                 final long to = chart.x[Math.round(range.to) - (details ? 1 : 0)];
-                rangeText.setText(formatters.formatRangeLong(from, to));
+                formatters.formatRangeLong(from, to, rangeTextBuffer.clear());
+                rangeText.setText(rangeTextBuffer);
             });
 
             popupAdapter.setValueFormat(formatters::formatNumber);
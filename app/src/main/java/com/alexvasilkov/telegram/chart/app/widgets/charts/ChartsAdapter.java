@@ -0,0 +1,134 @@
+package com.alexvasilkov.telegram.chart.app.widgets.charts;
+
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+
+import com.alexvasilkov.telegram.chart.R;
+import com.alexvasilkov.telegram.chart.app.utils.Colors;
+import com.alexvasilkov.telegram.chart.data.ChartsLoader.Item;
+import com.alexvasilkov.telegram.chart.data.ChartsLoader.Type;
+
+import java.util.List;
+
+/**
+ * List adapter for chart widgets, using separate view type for each chart type. Recycled widgets
+ * are rebound to new charts without recreating their views, charts are loaded once bound.
+ * Number of created widgets is logged, it should stay bounded by the number of widgets fitting
+ * the screen (per chart type) regardless of the items count.
+ */
+public class ChartsAdapter extends BaseAdapter {
+
+    private static final String TAG = "ChartsAdapter";
+
+    private final List<Item> items;
+    private Colors colors;
+    private boolean isFrameMetricsShown;
+    private int widgetsCount;
+
+    public ChartsAdapter(List<Item> items) {
+        this.items = items;
+    }
+
+    /**
+     * Sets colors to be applied to bound widgets. Note, that currently shown widgets should be
+     * updated separately.
+     */
+    public void setColors(Colors colors) {
+        this.colors = colors;
+    }
+
+    /**
+     * Sets whether bound widgets should show frame metrics. Note, that currently shown widgets
+     * should be updated separately.
+     */
+    public void setFrameMetricsShown(boolean isShown) {
+        this.isFrameMetricsShown = isShown;
+    }
+
+    @Override
+    public int getCount() {
+        return items.size();
+    }
+
+    @Override
+    public Item getItem(int position) {
+        return items.get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return position;
+    }
+
+    @Override
+    public int getViewTypeCount() {
+        return Type.values().length;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return items.get(position).type.ordinal();
+    }
+
+    @Override
+    public boolean areAllItemsEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isEnabled(int position) {
+        return false; // Widgets are handling all the touches themselves
+    }
+
+    @Override
+    public View getView(int position, View convertView, ViewGroup parent) {
+        final Item item = items.get(position);
+
+        final BaseChartWidget widget;
+        if (convertView == null) {
+            widget = createWidget(parent, item.type);
+            widgetsCount++;
+            Log.d(TAG, "Created widgets: " + widgetsCount + ", items: " + items.size());
+        } else {
+            widget = (BaseChartWidget) convertView;
+        }
+
+        if (colors != null && widget.getColors() != colors) {
+            widget.setColors(colors);
+        }
+        widget.setFrameMetricsShown(isFrameMetricsShown);
+        widget.bind(item);
+
+        return widget;
+    }
+
+    private static BaseChartWidget createWidget(ViewGroup parent, Type type) {
+        final int layoutId;
+        switch (type) {
+            case FOLLOWERS:
+                layoutId = R.layout.chart_item_followers;
+                break;
+            case INTERACTIONS:
+                layoutId = R.layout.chart_item_interactions;
+                break;
+            case MESSAGES:
+                layoutId = R.layout.chart_item_messages;
+                break;
+            case VIEWS:
+                layoutId = R.layout.chart_item_views;
+                break;
+            case APPS:
+                layoutId = R.layout.chart_item_apps;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown chart type: " + type);
+        }
+
+        return (BaseChartWidget) LayoutInflater.from(parent.getContext())
+                .inflate(layoutId, parent, false);
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.alexvasilkov.telegram.chart.app.widgets.charts;
+
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.widget.AbsListView;
+
+/**
+ * Tracks chart widgets positions within a list, pausing widgets which are not visible.
+ * Widgets are resumed as soon as they are scrolled back into the viewport, recycled widgets
+ * are paused and their caches are released until they are bound to a new chart.
+ */
+public class ChartsVisibilityTracker
+        implements ViewTreeObserver.OnScrollChangedListener,
+        ViewTreeObserver.OnGlobalLayoutListener,
+        AbsListView.RecyclerListener {
+
+    private final AbsListView list;
+
+    private boolean isStarted;
+
+    public ChartsVisibilityTracker(AbsListView list) {
+        this.list = list;
+        list.setRecyclerListener(this);
+    }
+
+    public void start() {
+        if (isStarted) {
+            return;
+        }
+        isStarted = true;
+
+        final ViewTreeObserver observer = list.getViewTreeObserver();
+        observer.addOnScrollChangedListener(this);
+        observer.addOnGlobalLayoutListener(this);
+
+        update();
+    }
+
+    /**
+     * Stops tracking and pauses all the widgets.
+     */
+    public void stop() {
+        if (!isStarted) {
+            return;
+        }
+        isStarted = false;
+
+        final ViewTreeObserver observer = list.getViewTreeObserver();
+        observer.removeOnScrollChangedListener(this);
+        observer.removeOnGlobalLayoutListener(this);
+
+        for (int i = 0, size = list.getChildCount(); i < size; i++) {
+            ((BaseChartWidget) list.getChildAt(i)).setPaused(true);
+        }
+    }
+
+    @Override
+    public void onScrollChanged() {
+        update();
+    }
+
+    @Override
+    public void onGlobalLayout() {
+        update();
+    }
+
+    @Override
+    public void onMovedToScrapHeap(View view) {
+        final BaseChartWidget widget = (BaseChartWidget) view;
+        widget.setPaused(true);
+        widget.releaseCaches();
+    }
+
+    private void update() {
+        final int height = list.getHeight();
+        if (height == 0) {
+            return; // Not laid out yet
+        }
+
+        for (int i = 0, size = list.getChildCount(); i < size; i++) {
+            final View child = list.getChildAt(i);
+
+            final boolean isVisible = child.getVisibility() == View.VISIBLE
+                    && child.getBottom() > 0 && child.getTop() < height;
+
+            ((BaseChartWidget) child).setPaused(!isVisible);
+        }
+    }
+
+}
@@ -5,26 +5,22 @@ import android.util.AttributeSet;
 
 import com.alexvasilkov.telegram.chart.R;
 import com.alexvasilkov.telegram.chart.data.ChartsLoader;
-import com.alexvasilkov.telegram.chart.data.ChartsLoader.Type;
 import com.alexvasilkov.telegram.chart.domain.Chart;
 
 public class InteractionsWidget extends BaseChartWidget {
 
-    private static final Type TYPE = Type.INTERACTIONS;
-
     public InteractionsWidget(Context context, AttributeSet attrs) {
         super(context, attrs);
 
         main.titleText.setText(R.string.chart_title_interactions);
-
-        ChartsLoader.loadChart(context, TYPE, this::setMainChart);
     }
 
     @Override
     void onRequestDetails(long date) {
         final long[] dates = new long[] { date };
         final int detailsDays = 7;
-        ChartsLoader.loadDetails(getContext(), TYPE, dates, detailsDays, this::onDetailsLoaded);
+        ChartsLoader.loadDetails(
+                getContext(), type, dates, detailsDays, whileBound(this::onDetailsLoaded));
     }
 
     private void onDetailsLoaded(Chart[] charts) {
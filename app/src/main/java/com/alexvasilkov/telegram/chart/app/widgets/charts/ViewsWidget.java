@@ -7,20 +7,16 @@ import android.view.View;
 
 import com.alexvasilkov.telegram.chart.R;
 import com.alexvasilkov.telegram.chart.data.ChartsLoader;
-import com.alexvasilkov.telegram.chart.data.ChartsLoader.Type;
 import com.alexvasilkov.telegram.chart.domain.Chart;
 import com.alexvasilkov.telegram.chart.domain.Chart.Source;
 import com.alexvasilkov.telegram.chart.utils.ColorUtils;
 import com.alexvasilkov.telegram.chart.widget.BaseChartView;
 
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.List;
 
 public class ViewsWidget extends BaseChartWidget {
 
-    private static final Type TYPE = Type.VIEWS;
-
     public ViewsWidget(Context context, AttributeSet attrs) {
         super(context, attrs);
 
@@ -33,8 +29,6 @@ public class ViewsWidget extends BaseChartWidget {
 
         getMargins(chartsContentArea).bottomMargin =
                 -sourcesGroup.getMinimumHeight() - getMargins(main.finderView).topMargin;
-
-        ChartsLoader.loadChart(context, TYPE, this::setMainChart);
     }
 
     @Override
@@ -49,12 +43,13 @@ public class ViewsWidget extends BaseChartWidget {
 
     @Override
     void onRequestDetails(long date) {
-        final long date1 = main.chart.resolution.add(calendar, date, -1);
-        final long date7 = main.chart.resolution.add(calendar, date, -7);
+        final long date1 = main.chart.resolution.add(date, -1);
+        final long date7 = main.chart.resolution.add(date, -7);
 
         final long[] dates = new long[] { date, date1, date7 };
         final int detailsDays = 1;
-        ChartsLoader.loadDetails(getContext(), TYPE, dates, detailsDays, this::onDetailsLoaded);
+        ChartsLoader.loadDetails(
+                getContext(), type, dates, detailsDays, whileBound(this::onDetailsLoaded));
     }
 
     @Override
@@ -103,7 +98,7 @@ public class ViewsWidget extends BaseChartWidget {
     void animateChart(
             BaseChartView fromView, Matrix fromMatrix, Chart fromChart,
             BaseChartView toView, Matrix toMatrix, Chart toChart,
-            long date, Calendar calendar, boolean show
+            long date, boolean show
     ) {
 
         if (fromView == main.finderView) {
@@ -136,7 +131,7 @@ public class ViewsWidget extends BaseChartWidget {
             super.animateChart(
                     fromView, fromMatrix, fromChart,
                     toView, toMatrix, toChart,
-                    date, calendar, show
+                    date, show
             );
         }
     }
@@ -6,6 +6,7 @@ import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 
+import com.alexvasilkov.telegram.chart.data.ChartGenerator.Distribution;
 import com.alexvasilkov.telegram.chart.domain.Chart;
 import com.alexvasilkov.telegram.chart.domain.Chart.Source;
 import com.alexvasilkov.telegram.chart.domain.Resolution;
@@ -43,6 +44,38 @@ public class ChartsLoader {
     private static final ExecutorService executor = Executors.newCachedThreadPool();
     private static final Handler mainHandler = new Handler(Looper.getMainLooper());
 
+    /**
+     * Creates list items for all bundled charts followed by given number of generated charts.
+     */
+    public static List<Item> createItems(int generatedCount) {
+        final Type[] types = Type.values();
+        final List<Item> items = new ArrayList<>(types.length + generatedCount);
+        for (Type type : types) {
+            items.add(new Item(type, 0));
+        }
+        for (int i = 0; i < generatedCount; i++) {
+            items.add(new Item(types[i % types.length], 1 + i / types.length));
+        }
+        return items;
+    }
+
+    public static void loadChart(Context context, Item item, Listener<Chart> listener) {
+        if (item.variant == 0) {
+            loadChart(context, item.type, listener);
+            return;
+        }
+
+        executor.submit(() -> {
+            try {
+                initCache(context);
+                final Chart chart = generateChart(cache.get(item.type), item);
+                mainHandler.postDelayed(() -> listener.onResult(chart), LOADING_DELAY);
+            } catch (Throwable ex) {
+                Log.e("Charts", "Can't generate chart", ex);
+            }
+        });
+    }
+
     public static void loadChart(Context context, Type type, Listener<Chart> listener) {
         if (isCacheReady) {
             mainHandler.postDelayed(() -> listener.onResult(cache.get(type)), LOADING_DELAY);
@@ -74,6 +107,31 @@ public class ChartsLoader {
         isCacheReady = true;
     }
 
+    /**
+     * Generates chart with the same type, dates and sources as given bundled chart, but with
+     * different values. Details of generated charts are taken from the bundled chart.
+     */
+    private static Chart generateChart(Chart base, Item item) {
+        final Distribution[] distributions = Distribution.values();
+
+        final Chart generated = new ChartGenerator()
+                .setType(base.type)
+                .setResolution(base.resolution)
+                .setStart(base.x[0])
+                .setPoints(base.x.length)
+                .setSources(base.sources.length)
+                .setDistribution(distributions[item.variant % distributions.length])
+                .setSeed(31L * item.type.id + item.variant)
+                .generate(base.id);
+
+        final Source[] sources = new Source[base.sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            final Source source = base.sources[i];
+            sources[i] = new Source(source.name, source.color, generated.sources[i].y);
+        }
+        return generated.setSources(sources);
+    }
+
     private static Chart loadChart(Context appContext, Type type) throws Exception {
         final String fileName = BASE_DIR + "/" + type.id + "/" + OVERVIEW_FILE;
         final String json = readAsset(appContext.getAssets(), fileName);
@@ -127,14 +185,14 @@ public class ChartsLoader {
                 calendar.add(Calendar.DAY_OF_MONTH, 1);
             }
 
-            chart = mergeCharts(charts);
+            chart = ChartSlicer.merge(charts);
         } else {
             // No details for this chart, just getting a part of original chart
             initCache(appContext);
             chart = cache.get(type);
         }
 
-        return chart == null ? null : subChart(chart, from, to);
+        return chart == null ? null : ChartSlicer.subChart(chart, from, to);
     }
 
     private static Chart loadChartDetails(Context appContext, Type type, long date)
@@ -151,76 +209,6 @@ public class ChartsLoader {
         return ChartParser.parse(type.id, type.detailsResolution, json);
     }
 
-    private static Chart mergeCharts(List<Chart> charts) {
-        if (charts.isEmpty()) {
-            return null;
-        }
-
-        final Chart first = charts.get(0);
-
-        int size = 0;
-        for (Chart chart : charts) {
-            size += chart.x.length;
-        }
-
-        final long[] x = new long[size];
-        final int[][] y = new int[first.sources.length][size];
-
-        int pos = 0;
-        for (Chart chart : charts) {
-            System.arraycopy(chart.x, 0, x, pos, chart.x.length);
-
-            for (int s = 0; s < chart.sources.length; s++) {
-                final int[] sourceY = chart.sources[s].y;
-                System.arraycopy(sourceY, 0, y[s], pos, sourceY.length);
-            }
-            pos += chart.x.length;
-        }
-
-        final int sourcesCount = first.sources.length;
-        final Source[] sources = new Source[sourcesCount];
-        for (int s = 0; s < sourcesCount; s++) {
-            sources[s] = first.sources[s].setY(y[s]);
-        }
-
-        return first.setX(x).setSources(sources);
-    }
-
-    private static Chart subChart(Chart chart, long from, long to) {
-        final int size = chart.x.length;
-        int fromInd = 0;
-        int toInd = size - 1;
-
-        for (int i = 0; i < size; i++) {
-            if (chart.x[i] >= from) {
-                fromInd = i;
-                break;
-            }
-        }
-        for (int i = size - 1; i >= 0; i--) {
-            if (chart.x[i] <= to) {
-                toInd = i;
-                break;
-            }
-        }
-
-        final long[] resultX = new long[toInd - fromInd + 1];
-        System.arraycopy(chart.x, fromInd, resultX, 0, resultX.length);
-
-        final int sourcesCount = chart.sources.length;
-        final Source[] sources = new Source[sourcesCount];
-        for (int s = 0; s < sourcesCount; s++) {
-            final Source source = chart.sources[s];
-            final int[] resultY = new int[toInd - fromInd + 1];
-            System.arraycopy(source.y, fromInd, resultY, 0, resultY.length);
-
-            sources[s] = source.setY(resultY);
-        }
-
-        return chart.setX(resultX).setSources(sources);
-    }
-
-
     @SuppressWarnings("SameParameterValue")
     private static String readAsset(AssetManager assets, String fileName) throws IOException {
         try (Reader in = new InputStreamReader(assets.open(fileName), Charset.forName("UTF-8"))) {
@@ -253,6 +241,37 @@ public class ChartsLoader {
         void onResult(T result);
     }
 
+    /**
+     * Chart shown in the charts list: bundled chart of given type if variant is 0, or a chart
+     * generated from it otherwise.
+     */
+    public static class Item {
+        public final Type type;
+        public final int variant;
+
+        Item(Type type, int variant) {
+            this.type = type;
+            this.variant = variant;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Item)) {
+                return false;
+            }
+            final Item item = (Item) obj;
+            return type == item.type && variant == item.variant;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + variant;
+        }
+    }
+
     public enum Type {
         // Line: Overview: by day. Details: 1 day by hour x 7(8?).
         FOLLOWERS(1, Resolution.DAY, Resolution.HOUR, null),
@@ -1,7 +0,0 @@
-package com.alexvasilkov.telegram.chart.domain;
-
-public interface FormatterValue {
-
-    String format(int value, int maxValue);
-
-}
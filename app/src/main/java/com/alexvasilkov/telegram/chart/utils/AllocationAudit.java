@@ -0,0 +1,97 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+import android.os.Debug;
+import android.util.Log;
+
+/**
+ * Debug helper which counts objects allocated by current thread between {@link #begin()} and
+ * {@link #end(String)} calls and logs a warning if anything was allocated. Allocations are
+ * counted with {@link Debug#getThreadAllocCount()} by default, a different counter can be set
+ * with {@link #setCounter(AllocationCounter)}, e.g. to run the same audit on JVM.
+ */
+public class AllocationAudit {
+
+    private static final String TAG = "ChartAllocations";
+
+    private static AllocationCounter counter;
+    private static int debugCountingUsers;
+
+    private final String name;
+    private long startCount = -1L;
+    private long totalCount;
+
+    public AllocationAudit(String name) {
+        this.name = name;
+    }
+
+    public static synchronized void setCounter(AllocationCounter counter) {
+        AllocationAudit.counter = counter;
+    }
+
+    private static synchronized AllocationCounter getCounter() {
+        if (counter == null) {
+            counter = new DebugCounter();
+        }
+        return counter;
+    }
+
+    /**
+     * Starts {@link Debug} allocations counting unless it was already started by someone else.
+     * Should be paired with {@link #stopDebugCounting()}, counting is only stopped once all the
+     * users which started it have stopped it.
+     */
+    @SuppressWarnings("deprecation") // There is no other public API to count allocations
+    public static synchronized void startDebugCounting() {
+        if (debugCountingUsers++ == 0) {
+            Debug.startAllocCounting();
+        }
+    }
+
+    @SuppressWarnings("deprecation") // There is no other public API to count allocations
+    public static synchronized void stopDebugCounting() {
+        if (debugCountingUsers > 0 && --debugCountingUsers == 0) {
+            Debug.stopAllocCounting();
+        }
+    }
+
+    public void begin() {
+        startCount = getCounter().count();
+    }
+
+    /**
+     * Returns number of allocations since last {@link #begin()} call, logging it if not zero.
+     */
+    public long end(String section) {
+        if (startCount < 0L) {
+            return 0L; // Was not started
+        }
+
+        final long count = getCounter().count() - startCount;
+        startCount = -1L;
+
+        if (count > 0L) {
+            totalCount += count;
+            Log.w(TAG, name + "." + section + ": " + count + " allocations, " + totalCount
+                    + " in total");
+        }
+        return count;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+
+    @SuppressWarnings("deprecation") // There is no other public API to count allocations
+    private static class DebugCounter implements AllocationCounter {
+        DebugCounter() {
+            startDebugCounting(); // Never stopped, audit is used for the whole app lifetime
+        }
+
+        @Override
+        public long count() {
+            return Debug.getThreadAllocCount();
+        }
+    }
+
+}
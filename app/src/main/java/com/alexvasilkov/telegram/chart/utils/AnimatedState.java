@@ -73,7 +73,7 @@ public class AnimatedState {
     }
 
     public static long now() {
-        return SystemClock.elapsedRealtime();
+        return SystemClock.uptimeMillis(); // Same time base as Choreographer frames
     }
 
 }
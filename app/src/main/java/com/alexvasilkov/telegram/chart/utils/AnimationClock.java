@@ -0,0 +1,83 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single vsync-aligned animation loop shared by all charts. Each registered callback is called
+ * exactly once per frame with the same frame time, and is unregistered once it reports that
+ * no more frames are needed. Should only be used from the main thread.
+ */
+class AnimationClock implements Choreographer.FrameCallback {
+
+    private static AnimationClock instance;
+
+    private final Choreographer choreographer = Choreographer.getInstance();
+
+    private final List<FrameListener> listeners = new ArrayList<>();
+    private final List<FrameListener> frameListeners = new ArrayList<>();
+    private boolean isScheduled;
+
+    static AnimationClock get() {
+        if (instance == null) {
+            instance = new AnimationClock();
+        }
+        return instance;
+    }
+
+    private AnimationClock() {}
+
+    void register(FrameListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+
+        if (!isScheduled) {
+            isScheduled = true;
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+    void unregister(FrameListener listener) {
+        listeners.remove(listener);
+        // Callback will be removed on next frame if there are no more listeners
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        isScheduled = false;
+
+        // Chart animations are using uptime millis, which is the same clock as frame time
+        final long now = frameTimeNanos / 1_000_000L;
+
+        // Listeners can be registered or unregistered while iterating, using a copy
+        frameListeners.addAll(listeners);
+
+        for (int i = 0, size = frameListeners.size(); i < size; i++) {
+            final FrameListener listener = frameListeners.get(i);
+
+            // Listener could be unregistered by one of the previous listeners
+            if (listeners.contains(listener) && !listener.onFrame(now)) {
+                listeners.remove(listener);
+            }
+        }
+
+        frameListeners.clear();
+
+        if (!listeners.isEmpty() && !isScheduled) {
+            isScheduled = true;
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+
+    interface FrameListener {
+        /**
+         * Returns true if next frame is needed.
+         */
+        boolean onFrame(long now);
+    }
+
+}
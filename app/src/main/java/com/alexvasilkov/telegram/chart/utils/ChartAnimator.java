@@ -1,60 +1,116 @@
 package com.alexvasilkov.telegram.chart.utils;
 
+import android.graphics.Rect;
 import android.view.View;
+import android.view.ViewTreeObserver;
 
-public class ChartAnimator {
-
-    private static final boolean DEBUG_FPS = false;
-
-    private static final long FRAME_TIME = 10L;
+/**
+ * Drives view's animation using shared {@link AnimationClock}, so that all the charts are
+ * updated exactly once per frame using the same frame time. Animation is suspended once the view
+ * is not visible on screen and is resumed once it is scrolled back or shown again.
+ */
+public class ChartAnimator implements AnimationClock.FrameListener {
 
     private final View view;
     private final StepListener listener;
-    private final Fps fps = DEBUG_FPS ? new Fps() : null;
+    private FrameMetrics metrics;
+
+    private final Rect visibleRect = new Rect();
 
-    private final Runnable updateAction = this::update;
+    private boolean isRunning;
+    private ViewTreeObserver suspendedObserver;
+
+    private final ViewTreeObserver.OnScrollChangedListener resumeOnScroll = this::resumeIfVisible;
+    private final ViewTreeObserver.OnGlobalLayoutListener resumeOnLayout = this::resumeIfVisible;
 
     public ChartAnimator(View view, StepListener listener) {
         this.view = view;
         this.listener = listener;
     }
 
+    /**
+     * Sets metrics to be notified about animation frames.
+     */
+    public void setMetrics(FrameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     public void start() {
-        if (fps != null) {
-            fps.start();
+        if (metrics != null && !isRunning) {
+            metrics.onAnimationStart();
         }
 
-        scheduleNextStep();
+        isRunning = true;
+        removeResumeListeners();
+        AnimationClock.get().register(this);
     }
 
     public void stop() {
-        view.removeCallbacks(updateAction);
+        if (metrics != null && isRunning) {
+            metrics.onAnimationEnd();
+        }
+
+        isRunning = false;
+        removeResumeListeners();
+        AnimationClock.get().unregister(this);
     }
 
-    private void update() {
-        boolean continueAnimation = listener.onStep();
+    @Override
+    public boolean onFrame(long now) {
+        if (!isVisible()) {
+            // No reason to animate invisible view, waiting until it is visible again
+            suspend();
+            return false;
+        }
+
+        if (metrics != null) {
+            metrics.onFrame(now);
+        }
+
+        boolean continueAnimation = listener.onStep(now);
         view.invalidate();
 
-        if (fps != null) {
-            fps.step();
-            if (!continueAnimation) {
-                fps.stop();
-            }
+        if (metrics != null && !continueAnimation) {
+            metrics.onAnimationEnd();
         }
 
-        if (continueAnimation) {
-            scheduleNextStep();
+        isRunning = continueAnimation;
+        return continueAnimation;
+    }
+
+    private boolean isVisible() {
+        return view.isShown() && view.getGlobalVisibleRect(visibleRect);
+    }
+
+    private void suspend() {
+        final ViewTreeObserver observer = view.getViewTreeObserver();
+        if (observer.isAlive()) {
+            suspendedObserver = observer;
+            observer.addOnScrollChangedListener(resumeOnScroll);
+            observer.addOnGlobalLayoutListener(resumeOnLayout);
         }
     }
 
-    private void scheduleNextStep() {
-        view.removeCallbacks(updateAction);
-        view.postOnAnimationDelayed(updateAction, FRAME_TIME);
+    private void resumeIfVisible() {
+        if (suspendedObserver != null && isVisible()) {
+            removeResumeListeners();
+            AnimationClock.get().register(this);
+        }
+    }
+
+    private void removeResumeListeners() {
+        if (suspendedObserver != null) {
+            if (suspendedObserver.isAlive()) {
+                suspendedObserver.removeOnScrollChangedListener(resumeOnScroll);
+                suspendedObserver.removeOnGlobalLayoutListener(resumeOnLayout);
+            }
+            suspendedObserver = null;
+        }
     }
 
 
     public interface StepListener {
-        boolean onStep();
+        boolean onStep(long now);
     }
 
 }
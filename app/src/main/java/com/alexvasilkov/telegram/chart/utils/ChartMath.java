@@ -1,23 +1,49 @@
 package com.alexvasilkov.telegram.chart.utils;
 
 import android.graphics.Matrix;
+import android.graphics.Rect;
 
 public class ChartMath {
 
-    private static final float[] tmpFloatPoint = new float[2];
+    // Charts can be drawn on a background thread, so each thread needs its own temporary point
+    private static final ThreadLocal<float[]> tmpFloatPoint = new ThreadLocal<float[]>() {
+        @Override
+        protected float[] initialValue() {
+            return new float[2];
+        }
+    };
+
+    /**
+     * Sets up a matrix which maps chart points (X index and Y value) within given ranges into
+     * chart position, with Y axis flipped.
+     */
+    public static void setChartMatrix(Matrix matrix, Rect chartPos, Range xRange, Range yRange) {
+        final float scaleX = chartPos.width() / (xRange.size() - 1f);
+        final float scaleY = chartPos.height() / (yRange.size() - 1f);
+
+        // We should start at the beginning of current X range and take padding into account
+        final float left = chartPos.left - xRange.from * scaleX;
+        // Bottom of the chart should take padding into account
+        final float bottom = chartPos.bottom + yRange.from * scaleY;
+
+        matrix.setScale(scaleX, -scaleY); // Scale and flip along X axis
+        matrix.postTranslate(left, bottom); // Translate to place
+    }
 
     public static float mapX(Matrix matrix, float x) {
-        tmpFloatPoint[0] = x;
-        tmpFloatPoint[1] = 0f;
-        matrix.mapPoints(tmpFloatPoint);
-        return tmpFloatPoint[0];
+        final float[] point = tmpFloatPoint.get();
+        point[0] = x;
+        point[1] = 0f;
+        matrix.mapPoints(point);
+        return point[0];
     }
 
     public static float mapY(Matrix matrix, float y) {
-        tmpFloatPoint[0] = 0f;
-        tmpFloatPoint[1] = y;
-        matrix.mapPoints(tmpFloatPoint);
-        return tmpFloatPoint[1];
+        final float[] point = tmpFloatPoint.get();
+        point[0] = 0f;
+        point[1] = y;
+        matrix.mapPoints(point);
+        return point[1];
     }
 
 }
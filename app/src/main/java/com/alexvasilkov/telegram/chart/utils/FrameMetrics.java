@@ -0,0 +1,261 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+import java.util.Arrays;
+
+/**
+ * Collects chart's frame times while it is animating, along with time spent in separate drawing
+ * steps. Frame time is the time spent on main thread from the start of animation step till the
+ * end of view drawing, frames which took longer than {@link #JANK_TIME} are most likely missed
+ * a vsync. Collection is disabled by default and can be enabled at runtime, collected values are
+ * available through {@link #getSnapshot(Snapshot)} or reported to a listener once each
+ * animation is finished.
+ * <p>
+ * Frames and sections are recorded on the main thread, except for {@link #SECTION_DRAW} which
+ * can also be recorded from the render thread using {@link #addTime(int, long)}.
+ */
+public class FrameMetrics {
+
+    public static final int SECTION_UPDATE = 0;
+    public static final int SECTION_DRAW = 1;
+    public static final int SECTION_LABELS = 2;
+    public static final int SECTION_POPUP = 3;
+    public static final int SECTIONS_COUNT = 4;
+
+    public static final long JANK_TIME = 16L;
+    public static final long BIG_JANK_TIME = 32L;
+
+    /**
+     * Frame times are stored with 1 ms precision, longer frames go into the last bucket.
+     */
+    public static final int HISTOGRAM_SIZE = 100;
+
+    // Long pauses between frames are not frames, but rather a new animation
+    private static final long MAX_FRAME_INTERVAL = 1000L;
+
+    private final Snapshot data = new Snapshot();
+    private final Snapshot reported = new Snapshot();
+    private final long[] sectionsStart = new long[SECTIONS_COUNT];
+
+    private volatile boolean enabled;
+    private long lastFrameTime;
+    private long frameStart;
+
+    private Listener listener;
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        lastFrameTime = 0L;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Listener will be called on main thread each time an animation is finished.
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public synchronized void reset() {
+        data.clear();
+        lastFrameTime = 0L;
+    }
+
+    /**
+     * Copies collected metrics into provided snapshot.
+     */
+    public synchronized void getSnapshot(Snapshot out) {
+        out.set(data);
+    }
+
+
+    public void onAnimationStart() {
+        lastFrameTime = 0L;
+    }
+
+    /**
+     * Should be called at the beginning of each animation frame, with frame time in millis.
+     */
+    public synchronized void onFrame(long now) {
+        if (!enabled) {
+            return;
+        }
+
+        if (lastFrameTime != 0L) {
+            final long interval = now - lastFrameTime;
+            if (0L < interval && interval < MAX_FRAME_INTERVAL) {
+                data.addInterval(interval);
+            }
+        }
+        lastFrameTime = now;
+        frameStart = System.nanoTime();
+    }
+
+    /**
+     * Should be called once view is drawn, finishing current frame if it was started.
+     */
+    public synchronized void onFrameDrawn() {
+        if (enabled && frameStart != 0L) {
+            data.addFrame(System.nanoTime() - frameStart);
+        }
+        frameStart = 0L;
+    }
+
+    public void onAnimationEnd() {
+        lastFrameTime = 0L;
+
+        if (enabled && listener != null) {
+            getSnapshot(reported);
+            listener.onFrameMetrics(reported);
+        }
+    }
+
+    public void begin(int section) {
+        if (enabled) {
+            sectionsStart[section] = System.nanoTime();
+        }
+    }
+
+    public void end(int section) {
+        if (enabled && sectionsStart[section] != 0L) {
+            addTime(section, System.nanoTime() - sectionsStart[section]);
+            sectionsStart[section] = 0L;
+        }
+    }
+
+    public synchronized void addTime(int section, long nanos) {
+        if (enabled) {
+            data.sectionsNanos[section] += nanos;
+            data.sectionsCalls[section]++;
+        }
+    }
+
+
+    public interface Listener {
+        /**
+         * Provided snapshot is reused and should not be stored.
+         */
+        void onFrameMetrics(Snapshot snapshot);
+    }
+
+    public static class Snapshot {
+        private final int[] histogram = new int[HISTOGRAM_SIZE];
+        private final long[] sectionsNanos = new long[SECTIONS_COUNT];
+        private final int[] sectionsCalls = new int[SECTIONS_COUNT];
+
+        private int framesCount;
+        private long framesNanos;
+        private int intervalsCount;
+        private long intervalsTime;
+        private int jankFrames;
+        private int bigJankFrames;
+
+        public int getFramesCount() {
+            return framesCount;
+        }
+
+        /**
+         * Number of frames which took longer than {@link #JANK_TIME}.
+         */
+        public int getJankFrames() {
+            return jankFrames;
+        }
+
+        /**
+         * Number of frames which took longer than {@link #BIG_JANK_TIME}.
+         */
+        public int getBigJankFrames() {
+            return bigJankFrames;
+        }
+
+        /**
+         * Number of frames which took given time in milliseconds, last item contains all
+         * the frames which took {@link #HISTOGRAM_SIZE} - 1 ms or longer.
+         */
+        public int getHistogram(int time) {
+            return histogram[time];
+        }
+
+        /**
+         * Average frame time in milliseconds.
+         */
+        public float getAverageFrameTime() {
+            return framesCount == 0 ? 0f : framesNanos / 1_000_000f / framesCount;
+        }
+
+        /**
+         * Actual frame rate while animating, based on intervals between frames.
+         */
+        public float getFps() {
+            return intervalsTime == 0L ? 0f : 1000f * intervalsCount / intervalsTime;
+        }
+
+        /**
+         * Returns frame time in milliseconds which is not exceeded by given fraction of frames.
+         */
+        public int getFrameTimePercentile(float fraction) {
+            final int target = (int) Math.ceil(fraction * framesCount);
+            int count = 0;
+            for (int time = 0; time < HISTOGRAM_SIZE; time++) {
+                count += histogram[time];
+                if (count >= target) {
+                    return time;
+                }
+            }
+            return HISTOGRAM_SIZE - 1;
+        }
+
+        /**
+         * Average time spent in given section per call, in milliseconds.
+         */
+        public float getAverageSectionTime(int section) {
+            final int calls = sectionsCalls[section];
+            return calls == 0 ? 0f : sectionsNanos[section] / 1_000_000f / calls;
+        }
+
+        public int getSectionCalls(int section) {
+            return sectionsCalls[section];
+        }
+
+        void addFrame(long nanos) {
+            final long time = nanos / 1_000_000L;
+            framesCount++;
+            framesNanos += nanos;
+            jankFrames += time >= JANK_TIME ? 1 : 0;
+            bigJankFrames += time >= BIG_JANK_TIME ? 1 : 0;
+            histogram[(int) Math.min(time, HISTOGRAM_SIZE - 1)]++;
+        }
+
+        void addInterval(long interval) {
+            intervalsCount++;
+            intervalsTime += interval;
+        }
+
+        void set(Snapshot from) {
+            System.arraycopy(from.histogram, 0, histogram, 0, HISTOGRAM_SIZE);
+            System.arraycopy(from.sectionsNanos, 0, sectionsNanos, 0, SECTIONS_COUNT);
+            System.arraycopy(from.sectionsCalls, 0, sectionsCalls, 0, SECTIONS_COUNT);
+            framesCount = from.framesCount;
+            framesNanos = from.framesNanos;
+            intervalsCount = from.intervalsCount;
+            intervalsTime = from.intervalsTime;
+            jankFrames = from.jankFrames;
+            bigJankFrames = from.bigJankFrames;
+        }
+
+        void clear() {
+            Arrays.fill(histogram, 0);
+            Arrays.fill(sectionsNanos, 0L);
+            Arrays.fill(sectionsCalls, 0);
+            framesCount = 0;
+            framesNanos = 0L;
+            intervalsCount = 0;
+            intervalsTime = 0L;
+            jankFrames = 0;
+            bigJankFrames = 0;
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.alexvasilkov.telegram.chart.widget;
 
 import android.content.Context;
+import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Rect;
@@ -8,22 +9,39 @@ import android.os.Build;
 import android.util.AttributeSet;
 import android.widget.FrameLayout;
 
+import com.alexvasilkov.telegram.chart.R;
 import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.utils.AllocationAudit;
 import com.alexvasilkov.telegram.chart.utils.AnimatedState;
 import com.alexvasilkov.telegram.chart.utils.ChartAnimator;
+import com.alexvasilkov.telegram.chart.utils.ChartMath;
+import com.alexvasilkov.telegram.chart.utils.FrameMetrics;
 import com.alexvasilkov.telegram.chart.utils.Range;
+import com.alexvasilkov.telegram.chart.widget.painter.CanvasTarget;
 import com.alexvasilkov.telegram.chart.widget.painter.Painter;
+import com.alexvasilkov.telegram.chart.widget.painter.ScratchBuffers;
 import com.alexvasilkov.telegram.chart.widget.style.ChartStyle;
 
 public abstract class BaseChartView extends FrameLayout {
 
+    // Logs all the allocations during chart updates and drawing, steady state should allocate
+    // nothing while user is scrolling or selecting points
+    private static final boolean DEBUG_ALLOCATIONS = false;
+
     private final ChartAnimator animator;
+    final FrameMetrics frameMetrics = new FrameMetrics();
+    private FrameMetricsHud frameMetricsHud;
+    private final AllocationAudit allocationAudit =
+            DEBUG_ALLOCATIONS ? new AllocationAudit(getClass().getSimpleName()) : null;
 
     final Matrix matrix = new Matrix();
     private final Matrix matrixExtra = new Matrix();
 
     private boolean isAnimating;
+    private boolean isChartAnimating;
     private boolean simplifiedDrawing;
+    private boolean isPaused;
+    private boolean isStatePrepared;
 
     final ChartStyle chartStyle;
 
@@ -38,7 +56,7 @@ public abstract class BaseChartView extends FrameLayout {
     final Range xRange = new Range();
     final Range xRangeExt = new Range();
     private final Range xRangeStart = new Range();
-    private final Range xRangeEnd = new Range();
+    final Range xRangeEnd = new Range();
     private final AnimatedState xRangeState = new AnimatedState();
 
     private final Range yRangeMinMax = new Range();
@@ -49,6 +67,10 @@ public abstract class BaseChartView extends FrameLayout {
 
     Chart chart;
     Painter painter;
+    ChartLod lod;
+    private final ChartLod.Selection lodSelection = new ChartLod.Selection();
+    private final ScratchBuffers scratchBuffers = new ScratchBuffers();
+    private final CanvasTarget canvasTarget = new CanvasTarget();
     final Range chartRange = new Range();
 
     private final Rect insets = new Rect();
@@ -58,20 +80,77 @@ public abstract class BaseChartView extends FrameLayout {
 
     private OnRangeChangeListener xRangeListener;
 
+    private ChartRenderer renderer;
+
     BaseChartView(Context context, AttributeSet attrs) {
         super(context, attrs);
 
         chartStyle = new ChartStyle(context, attrs);
         animator = new ChartAnimator(this, this::onAnimationStepInternal);
+        animator.setMetrics(frameMetrics);
+
+        TypedArray arr = context.obtainStyledAttributes(attrs, R.styleable.BaseChartView);
+        boolean renderInBackground =
+                arr.getBoolean(R.styleable.BaseChartView_chart_renderInBackground, false);
+        arr.recycle();
 
         setWillNotDraw(false);
+        setRenderInBackground(renderInBackground);
     }
 
     public void setBaseColors(
             boolean darken, int backgroundHint, int selection, int selectionMask) {
         chartStyle.setColors(darken, backgroundHint, selection, selectionMask);
-        if (painter != null) {
-            painter.applyStyle(chartStyle);
+        if (lod != null) {
+            lod.applyStyle(chartStyle); // Levels painters are styled as well
+        }
+        invalidate();
+    }
+
+    /**
+     * Enables chart drawing on a dedicated render thread, into a {@link android.view.TextureView}.
+     * Requires hardware acceleration, chart is drawn on UI thread otherwise. Note, that in this
+     * mode chart is drawn on top of any extra content drawn in {@link #onDraw(Canvas)}.
+     * <p>
+     * Painters which do not support background drawing (i.e. pie charts, see
+     * {@link Painter#supportsBackgroundDrawing()}) are always drawn on UI thread.
+     */
+    public void setRenderInBackground(boolean enabled) {
+        if (enabled == (renderer != null)) {
+            return;
+        }
+
+        if (enabled) {
+            renderer = new ChartRenderer(getContext(), this, frameMetrics);
+            addView(renderer.getTextureView(), 0,
+                    new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT));
+        } else {
+            renderer.release();
+            removeView(renderer.getTextureView());
+            renderer = null;
+        }
+
+        invalidate();
+    }
+
+    /**
+     * Returns frame metrics of this chart, metrics collection is disabled by default.
+     */
+    public FrameMetrics getFrameMetrics() {
+        return frameMetrics;
+    }
+
+    /**
+     * Shows collected frame metrics on top of the chart, enabling metrics collection if needed.
+     */
+    public void setFrameMetricsHudEnabled(boolean enabled) {
+        if (enabled) {
+            frameMetrics.setEnabled(true);
+            if (frameMetricsHud == null) {
+                frameMetricsHud = new FrameMetricsHud(getContext(), frameMetrics);
+            }
+        } else {
+            frameMetricsHud = null;
         }
         invalidate();
     }
@@ -94,6 +173,10 @@ public abstract class BaseChartView extends FrameLayout {
         notifyReady();
     }
 
+    boolean hasChartMatrixExtra() {
+        return !matrixExtra.isIdentity();
+    }
+
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
@@ -104,6 +187,9 @@ public abstract class BaseChartView extends FrameLayout {
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
         animator.stop(); // Should not run animation once detached
+        if (renderer != null) {
+            renderer.release(); // Render thread is acquired again on next frame
+        }
     }
 
     @Override
@@ -127,6 +213,15 @@ public abstract class BaseChartView extends FrameLayout {
      * Sets a chart to be drawn.
      */
     public void setChart(Chart newChart) {
+        setChart(newChart, null);
+    }
+
+    /**
+     * Sets a chart to be drawn using given level of detail painters created in advance for this
+     * chart, see {@link PreparedChart}. If 'preparedLod' is null then base painter and levels
+     * painters are created on current thread.
+     */
+    void setChart(Chart newChart, ChartLod preparedLod) {
         // Resetting old state
         xRange.reset();
         xRangeEnd.reset();
@@ -141,11 +236,31 @@ public abstract class BaseChartView extends FrameLayout {
         animator.stop();
 
         // Setting new chart
+        final Painter previous = painter;
+        final ChartLod previousLod = lod;
         chart = newChart;
-        painter = Painter.create(chart);
-        painter.applyStyle(chartStyle);
+        lod = preparedLod == null ? ChartLod.create(chart, Painter.create(chart)) : preparedLod;
+        lod.applyStyle(chartStyle);
+        lod.setScratchBuffers(scratchBuffers);
+        painter = lod.getBasePainter();
+
+        if (previousLod != null) {
+            previousLod.releaseLevelsCaches();
+        }
+
+        if (previous != null) {
+            // Previous painter can be used by background renderer at the same time
+            synchronized (previous) {
+                if (preparedLod == null) {
+                    // Prepared painter already has its own buffers
+                    painter.reuseBuffers(previous);
+                }
+                previous.releaseCache(); // Buffers are now owned by the new painter
+            }
+        }
 
         chartRange.set(0, newChart.x.length - 1);
+        isStatePrepared = false;
 
         final int sourcesCount = newChart.sources.length;
         sourcesStates = new AnimatedState[sourcesCount];
@@ -228,6 +343,46 @@ public abstract class BaseChartView extends FrameLayout {
         }
     }
 
+    /**
+     * Pauses or resumes chart updates. Paused chart does not run animations and does not update
+     * its state, all the changes made while paused are applied instantly once chart is resumed.
+     */
+    public void setPaused(boolean paused) {
+        if (isPaused == paused) {
+            return;
+        }
+        isPaused = paused;
+
+        if (paused) {
+            animator.stop();
+        } else {
+            notifyReady();
+        }
+    }
+
+    boolean isPaused() {
+        return isPaused;
+    }
+
+    /**
+     * Releases painter's cached geometry and any other drawing caches, they will be lazily
+     * recreated once needed. Intended for charts which are paused and are far from the screen.
+     */
+    public void releaseCaches() {
+        if (painter != null) {
+            // Painter can be used by background renderer at the same time
+            synchronized (painter) {
+                painter.releaseCache();
+            }
+            lod.releaseLevelsCaches();
+
+            // Buffers are shared by all levels painters, any of them can be drawn by renderer
+            synchronized (scratchBuffers) {
+                scratchBuffers.release();
+            }
+        }
+    }
+
     void setSelectedPointX(int selectedX) {
         selectedPointX = selectedX;
         invalidate();
@@ -245,16 +400,18 @@ public abstract class BaseChartView extends FrameLayout {
     }
 
     private void notifyReady() {
-        if (isReady()) {
+        // Paused chart still needs to prepare its initial state to be drawn correctly
+        if ((!isPaused || !isStatePrepared) && isReady()) {
             doOnReady();
         }
     }
 
     void doOnReady() {
         notifyRangeSet();
+        isStatePrepared = true;
 
-        boolean animationNeeded = onAnimationStepInternal();
-        if (animationNeeded) {
+        boolean animationNeeded = onAnimationStepInternal(AnimatedState.now());
+        if (animationNeeded && !isPaused) {
             animator.start();
         }
 
@@ -332,12 +489,24 @@ public abstract class BaseChartView extends FrameLayout {
         }
     }
 
-    private boolean onAnimationStepInternal() {
-        return isAnimating = onAnimationStep();
+    private boolean onAnimationStepInternal(long now) {
+        if (allocationAudit != null) {
+            allocationAudit.begin();
+        }
+
+        frameMetrics.begin(FrameMetrics.SECTION_UPDATE);
+        isAnimating = onAnimationStep(now);
+        frameMetrics.end(FrameMetrics.SECTION_UPDATE);
+
+        if (allocationAudit != null) {
+            allocationAudit.end("onUpdateChartState");
+        }
+
+        return isAnimating;
     }
 
-    boolean onAnimationStep() {
-        onUpdateChartState(AnimatedState.now());
+    boolean onAnimationStep(long now) {
+        onUpdateChartState(now);
 
         boolean result = !xRangeState.isFinished() || !yRangeState.isFinished();
 
@@ -347,7 +516,15 @@ public abstract class BaseChartView extends FrameLayout {
 
         result |= painter.isAnimating();
 
-        return result;
+        return isChartAnimating = result;
+    }
+
+    /**
+     * Whether chart itself (ranges, sources visibility or painter) is currently animating.
+     * Unlike {@link #isAnimating} it does not include any extra animations added by subclasses.
+     */
+    boolean isChartAnimating() {
+        return isChartAnimating;
     }
 
     void onUpdateChartState(long now) {
@@ -372,19 +549,12 @@ public abstract class BaseChartView extends FrameLayout {
 
         final Rect chartPos = getChartPosition();
 
-        final float scaleX = chartPos.width() / (xRange.size() - 1f);
-        final float scaleY = chartPos.height() / (yRange.size() - 1f);
-
-        // We should start at the beginning of current X range and take padding into account
-        final float left = chartPos.left - xRange.from * scaleX;
-        // Bottom of the chart should take padding into account
-        final float bottom = chartPos.bottom + yRange.from * scaleY;
-
         // Setting up transformation matrix
-        matrix.setScale(scaleX, -scaleY); // Scale and flip along X axis
-        matrix.postTranslate(left, bottom); // Translate to place
+        ChartMath.setChartMatrix(matrix, chartPos, xRange, yRange);
         matrix.postConcat(matrixExtra);
 
+        final float scaleX = chartPos.width() / (xRange.size() - 1f);
+
         // Adding extra range to continue drawing chart on sides
         int extraLeft = (int) Math.ceil(getExtraLeftSize() / scaleX);
         int extraRight = (int) Math.ceil(getExtraRightSize() / scaleX);
@@ -403,6 +573,26 @@ public abstract class BaseChartView extends FrameLayout {
         return getWidth() - getChartPosition().right;
     }
 
+    @Override
+    public void draw(Canvas canvas) {
+        // Auditing subclasses drawing and popups as well
+        if (allocationAudit != null) {
+            allocationAudit.begin();
+        }
+
+        super.draw(canvas);
+
+        if (frameMetricsHud != null) {
+            frameMetricsHud.draw(canvas, getPaddingLeft(), getPaddingTop());
+        }
+
+        if (allocationAudit != null) {
+            allocationAudit.end("onDraw");
+        }
+
+        frameMetrics.onFrameDrawn();
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
@@ -411,19 +601,72 @@ public abstract class BaseChartView extends FrameLayout {
             return;
         }
 
+        if (!renderInBackground()) {
+            frameMetrics.begin(FrameMetrics.SECTION_DRAW);
+            drawChart(canvas);
+            frameMetrics.end(FrameMetrics.SECTION_DRAW);
+        }
+    }
+
+    void drawChart(Canvas canvas) {
+        drawChart(canvas, isAnimating || simplifiedDrawing || hasChartMatrixExtra());
+    }
+
+    private boolean renderInBackground() {
+        if (renderer == null || !renderer.isAvailable() || !isHardwareAccelerated()) {
+            return false;
+        }
+
         final int from = (int) Math.floor(xRangeExt.from);
         final int to = (int) Math.ceil(xRangeExt.to);
 
-        painter.draw(
-                canvas,
+        // Painters which do not support background drawing (pie charts update animation states
+        // while drawing) are excluded and drawn directly, but we still need to clear the surface.
+        final boolean supported = painter.supportsBackgroundDrawing();
+
+        // Selected point forces the base painter, see drawChart(Canvas, boolean)
+        final ChartLod.Selection level = lodSelection;
+        lod.select(matrix, from, to, selectedPointX, level);
+
+        renderer.requestRender(
+                supported ? level.painter : null,
                 getChartPosition(),
-                matrix,
-                from,
-                to,
+                level.matrix,
+                level.from,
+                level.to,
                 sourcesStatesValues,
-                selectedPointX,
-                isAnimating || simplifiedDrawing || !matrixExtra.isIdentity()
+                level.selectedPos,
+                isAnimating || simplifiedDrawing || hasChartMatrixExtra()
         );
+
+        return supported;
+    }
+
+    void drawChart(Canvas canvas, boolean simplified) {
+        final int from = (int) Math.floor(xRangeExt.from);
+        final int to = (int) Math.ceil(xRangeExt.to);
+
+        // Drawing coarser level of details if there are too many points per pixel.
+        // While a point is selected the base painter is always used: selection is drawn by the
+        // painter itself and LinesPainter builds its hit index while drawing it, using base chart
+        // points and base matrix. ChartView then looks up touched sources through the base
+        // painter, so the index must not be built from a level's points.
+        final ChartLod.Selection level = lodSelection;
+        lod.select(matrix, from, to, selectedPointX, level);
+
+        // Scratch buffers are shared with other painters of this view
+        synchronized (scratchBuffers) {
+            level.painter.draw(
+                    canvasTarget.set(canvas),
+                    getChartPosition(),
+                    level.matrix,
+                    level.from,
+                    level.to,
+                    sourcesStatesValues,
+                    level.selectedPos,
+                    simplified
+            );
+        }
     }
 
 
@@ -2,7 +2,10 @@ package com.alexvasilkov.telegram.chart.widget;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.PorterDuff;
 import android.graphics.Rect;
@@ -15,16 +18,14 @@ import android.view.MotionEvent;
 
 import com.alexvasilkov.telegram.chart.R;
 import com.alexvasilkov.telegram.chart.domain.Chart;
-import com.alexvasilkov.telegram.chart.domain.Chart.Source;
 import com.alexvasilkov.telegram.chart.domain.GroupBy;
+import com.alexvasilkov.telegram.chart.domain.GroupsIndex;
 import com.alexvasilkov.telegram.chart.utils.AnimatedState;
 import com.alexvasilkov.telegram.chart.utils.ChartMath;
 import com.alexvasilkov.telegram.chart.utils.Range;
 import com.alexvasilkov.telegram.chart.widget.style.ChartStyle;
 
 import java.util.Arrays;
-import java.util.Calendar;
-import java.util.TimeZone;
 
 public class ChartFinderView extends BaseChartView {
 
@@ -49,17 +50,28 @@ public class ChartFinderView extends BaseChartView {
     private Integer selectedHandle; // One of HANDLE_* values
     private boolean firstScrollEvent;
 
+    // Scrolled distance accumulated since last frame, see InputCoalescer
+    private final InputCoalescer scrollCoalescer = new InputCoalescer(this, this::applyScroll);
+    private float pendingScrollX;
+
     private final GestureDetector gestureDetector;
 
     private ChartView chartView;
 
     private GroupBy groupBy;
+    private GroupsIndex groupsIndex;
     private boolean snapToGroup;
     private int minGroupsCount;
     private int maxGroupsCount;
     private int initialGroupsCount;
     private long initialDate;
-    private final Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+    // Preview chart is rendered once into a bitmap and reused while only the handle is moving
+    private Bitmap chartCache;
+    private final Canvas chartCacheCanvas = new Canvas();
+    private final Matrix chartCacheMatrix = new Matrix();
+    private float[] chartCacheStates;
+    private boolean chartCacheValid;
 
 
     public ChartFinderView(Context context, AttributeSet attrs) {
@@ -103,36 +115,48 @@ public class ChartFinderView extends BaseChartView {
         invalidate();
     }
 
+    @Override
+    public void setBaseColors(
+            boolean darken, int backgroundHint, int selection, int selectionMask) {
+        chartCacheValid = false;
+        super.setBaseColors(darken, backgroundHint, selection, selectionMask);
+    }
+
     public void attachTo(ChartView chartView) {
         this.chartView = chartView;
+        chartView.setRangeRequestListener(new ChartView.OnRangeRequestListener() {
+            @Override
+            public void onRangeRequested(float fromX, float toX) {
+                setHandleRange(fromX, toX);
+            }
+
+            @Override
+            public void onRangeRequestsFinished() {
+                if (groupBy != null && snapToGroup) {
+                    snapToGroups(handleRange, handleRangeEnd, groupBy, HANDLE_BOTH);
+                    animateHandle();
+                }
+            }
+        });
     }
 
     @Override
     public void setChart(Chart chart) {
-        Chart fixedBaseChart = chart;
-        Chart fixedFinderChart = chart;
-
-        if (chart.type == Chart.Type.PIE) {
-            // We can't draw PIE type in preview, we'll drawing square area instead where
-            // each interval emulates a single value in original chart.
-            // Thus we need to add extra point to the end of the chart.
-
-            final int newSize = chart.x.length + 1;
-            final long[] x = Arrays.copyOf(chart.x, newSize);
-            final Source[] sources = new Source[chart.sources.length];
-
-            for (int i = 0; i < sources.length; i++) {
-                final int[] y = Arrays.copyOf(chart.sources[i].y, newSize);
-                sources[i] = chart.sources[i].setY(y);
-            }
-
-            fixedBaseChart = chart.setX(x).setSources(sources);
-            fixedFinderChart = fixedBaseChart.setType(Chart.Type.AREA_SQUARE);
-        }
+        setChart(PreparedChart.create(chart));
+    }
 
-        super.setChart(fixedFinderChart);
+    /**
+     * Sets chart to both this finder view and attached chart view, using painters prepared in
+     * advance, see {@link PreparedChart#prepare(Chart, PreparedChart.Listener)}.
+     */
+    public void setChart(PreparedChart prepared) {
+        chartCacheValid = false;
+        groupsIndex = null;
+        scrollCoalescer.cancel();
+        pendingScrollX = 0f;
+        super.setChart(prepared.finderChart, prepared.finderLod);
 
-        chartView.setChart(fixedBaseChart);
+        chartView.setChart(prepared.baseChart, prepared.baseLod);
 
         setInitialHandle();
     }
@@ -145,6 +169,7 @@ public class ChartFinderView extends BaseChartView {
 
     public void groupBy(GroupBy groupBy, int min, int max, int initial, boolean snap) {
         this.groupBy = groupBy;
+        this.groupsIndex = null;
         this.minGroupsCount = min;
         this.maxGroupsCount = max;
         this.initialGroupsCount = initial;
@@ -211,6 +236,8 @@ public class ChartFinderView extends BaseChartView {
     }
 
     private void onUpOrCancelEvent() {
+        scrollCoalescer.flush(); // Applying last movements before snapping
+
         if (selectedHandle != null && groupBy != null && snapToGroup) {
             snapToGroups(handleRange, handleRangeEnd, groupBy, selectedHandle);
             animateHandle();
@@ -234,6 +261,20 @@ public class ChartFinderView extends BaseChartView {
             return true;
         }
 
+        // Handles are moved once per frame with all the movements accumulated till then
+        pendingScrollX += distanceX;
+        scrollCoalescer.schedule();
+        return true;
+    }
+
+    private void applyScroll() {
+        final float distanceX = pendingScrollX;
+        pendingScrollX = 0f;
+
+        if (selectedHandle == null || chart == null) {
+            return;
+        }
+
         final float width = getChartPosition().width();
         final float currentScale = width / (xRange.size() - 1f);
         final float distancePos = distanceX / currentScale;
@@ -258,8 +299,8 @@ public class ChartFinderView extends BaseChartView {
             if (groupBy != null) {
                 // Keeping left handle within intervals bounds
                 final long toTime = chart.x[Math.round(handleTo)];
-                final long minTime = groupBy.add(calendar, toTime, -maxGroupsCount);
-                final long maxTime = groupBy.add(calendar, toTime, -minGroupsCount);
+                final long minTime = groupBy.add(toTime, -maxGroupsCount);
+                final long maxTime = groupBy.add(toTime, -minGroupsCount);
                 final float min = handleTo + chart.resolution.distance(toTime, minTime);
                 final float max = handleTo + chart.resolution.distance(toTime, maxTime);
 
@@ -279,8 +320,8 @@ public class ChartFinderView extends BaseChartView {
             if (groupBy != null) {
                 // Keeping right handle within intervals bounds
                 final long fromTime = chart.x[Math.round(handleFrom)];
-                final long minTime = groupBy.add(calendar, fromTime, minGroupsCount);
-                final long maxTime = groupBy.add(calendar, fromTime, maxGroupsCount);
+                final long minTime = groupBy.add(fromTime, minGroupsCount);
+                final long maxTime = groupBy.add(fromTime, maxGroupsCount);
                 final float min = handleFrom + chart.resolution.distance(fromTime, minTime);
                 final float max = handleFrom + chart.resolution.distance(fromTime, maxTime);
 
@@ -308,7 +349,47 @@ public class ChartFinderView extends BaseChartView {
         chartView.setRange(handleRange.from, handleRange.to, false, true);
 
         invalidate();
-        return true;
+    }
+
+    /**
+     * Moves handles to the range requested by zoom or fling gestures on attached chart view,
+     * keeping the same limits as when handles are dragged.
+     */
+    private void setHandleRange(float fromX, float toX) {
+        if (chart == null) {
+            return;
+        }
+
+        // Stopping animation, requested range takes precedence
+        if (!handleState.isFinished()) {
+            handleState.reset();
+        }
+
+        final float width = getChartPosition().width();
+        final float currentScale = width / (xRange.size() - 1f);
+
+        float minSize = handlesMinDistance / currentScale;
+        float maxSize = chartRange.to - chartRange.from;
+        if (groupBy != null) {
+            final float stepsPerGroup = groupBy.stepsCount(chart.resolution);
+            minSize = Math.max(minSize, minGroupsCount * stepsPerGroup);
+            maxSize = Math.min(maxSize, maxGroupsCount * stepsPerGroup);
+        }
+        minSize = Math.min(minSize, maxSize);
+
+        // Keeping the center of requested range if its size is out of bounds
+        final float size = toX - fromX;
+        final float newSize = size < minSize ? minSize : (size > maxSize ? maxSize : size);
+        float from = fromX - 0.5f * (newSize - size);
+
+        from = Math.max(chartRange.from, Math.min(from, chartRange.to - newSize));
+
+        handleRange.set(from, from + newSize);
+        handleRangeEnd.set(handleRange);
+
+        chartView.setRange(handleRange.from, handleRange.to, false, true);
+
+        invalidate();
     }
 
     private void animateHandle() {
@@ -352,8 +433,13 @@ public class ChartFinderView extends BaseChartView {
     private void snapToGroups(Range range, Range dst, GroupBy groupBy, int selectedHandle) {
         final long[] times = chart.x;
 
-        int newFrom = snapToClosestGroupStart(times, range.from, groupBy);
-        int newTo = snapToClosestGroupStart(times, range.to, groupBy);
+        if (groupsIndex == null || groupsIndex.groupBy != groupBy) {
+            groupsIndex = GroupsIndex.build(chart, groupBy);
+        }
+        final GroupsIndex index = groupsIndex;
+
+        int newFrom = snapToClosestGroupStart(index, range.from);
+        int newTo = snapToClosestGroupStart(index, range.to);
 
         final int intervals = Math.round(groupBy.distance(times[newFrom], times[newTo]));
         final int stepsPerGroup = groupBy.stepsCount(chart.resolution);
@@ -361,38 +447,40 @@ public class ChartFinderView extends BaseChartView {
         // We need to make sure we are occupying a valid number of intervals
         if (intervals < minGroupsCount) {
             if (selectedHandle == HANDLE_LEFT) {
-                newFrom = snapToClosestGroupStart(times, newFrom - stepsPerGroup, groupBy);
+                newFrom = snapToClosestGroupStart(index, newFrom - stepsPerGroup);
             } else {
-                newTo = snapToClosestGroupStart(times, newTo + stepsPerGroup, groupBy);
+                newTo = snapToClosestGroupStart(index, newTo + stepsPerGroup);
             }
         } else if (intervals > maxGroupsCount) {
             if (selectedHandle == HANDLE_LEFT) {
-                newFrom = snapToClosestGroupStart(times, newFrom + stepsPerGroup, groupBy);
+                newFrom = snapToClosestGroupStart(index, newFrom + stepsPerGroup);
             } else {
-                newTo = snapToClosestGroupStart(times, newTo - stepsPerGroup, groupBy);
+                newTo = snapToClosestGroupStart(index, newTo - stepsPerGroup);
             }
         }
 
         dst.set(newFrom, newTo);
     }
 
-    private int snapToClosestGroupStart(long[] times, float pos, GroupBy groupBy) {
+    private int snapToClosestGroupStart(GroupsIndex index, float pos) {
         final int posExact = Math.round(chartRange.fit(pos));
-        final int minPos = getNextGroupStart(times[posExact], posExact, groupBy, -1);
-        final int maxPos = getNextGroupStart(times[posExact], posExact, groupBy, 1);
+
+        // Chart edges are used if there are no more groups starts in that direction
+        final int floor = index.floor(posExact);
+        final int ceil = index.ceil(posExact);
+        final int minPos = floor == -1 ? 0 : floor;
+        final int maxPos = ceil == -1 ? chart.x.length - 1 : ceil;
+
+        if (minPos == maxPos) {
+            return minPos;
+        }
         final float state = (pos - minPos) / (float) (maxPos - minPos);
         return state < 0.5f ? minPos : maxPos;
     }
 
-    private int getNextGroupStart(long time, int pos, GroupBy groupBy, int direction) {
-        final long nextStart = groupBy.getClosestStart(calendar, time, direction);
-        final float nextPos = pos + chart.resolution.distance(time, nextStart);
-        return Math.round(chartRange.fit(nextPos));
-    }
-
     @Override
-    boolean onAnimationStep() {
-        return super.onAnimationStep() || !handleState.isFinished();
+    boolean onAnimationStep(long now) {
+        return super.onAnimationStep(now) || !handleState.isFinished();
     }
 
     @Override
@@ -409,24 +497,105 @@ public class ChartFinderView extends BaseChartView {
         }
     }
 
+    @Override
+    protected void onSizeChanged(int width, int height, int oldWidth, int oldHeight) {
+        releaseChartCache(); // Cache bitmap should be recreated with a new size
+        super.onSizeChanged(width, height, oldWidth, oldHeight);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        releaseChartCache();
+    }
+
+    @Override
+    public void releaseCaches() {
+        super.releaseCaches();
+        releaseChartCache();
+    }
+
+    @Override
+    void drawChart(Canvas canvas) {
+        // There is no point in caching intermediate animation frames, drawing them directly.
+        // Cache bitmap can't be created until view has a size (e.g. while it is collapsed).
+        if (isChartAnimating() || hasChartMatrixExtra() || getWidth() == 0 || getHeight() == 0) {
+            chartCacheValid = false;
+            super.drawChart(canvas);
+            return;
+        }
+
+        if (!isChartCacheValid()) {
+            renderChartCache();
+        }
+
+        canvas.drawBitmap(chartCache, 0f, 0f, null);
+    }
+
+    private boolean isChartCacheValid() {
+        return chartCacheValid
+                && chartCache != null
+                && chartCacheMatrix.equals(matrix)
+                && Arrays.equals(chartCacheStates, sourcesStatesValues);
+    }
+
+    private void renderChartCache() {
+        if (chartCache == null) {
+            chartCache = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
+            chartCacheCanvas.setBitmap(chartCache);
+        } else {
+            chartCache.eraseColor(Color.TRANSPARENT);
+        }
+
+        // Cached chart is always drawn in full quality
+        super.drawChart(chartCacheCanvas, false);
+
+        chartCacheMatrix.set(matrix);
+        if (chartCacheStates == null || chartCacheStates.length != sourcesStatesValues.length) {
+            chartCacheStates = new float[sourcesStatesValues.length];
+        }
+        System.arraycopy(sourcesStatesValues, 0, chartCacheStates, 0, chartCacheStates.length);
+
+        chartCacheValid = true;
+    }
+
+    private void releaseChartCache() {
+        if (chartCache != null) {
+            chartCacheCanvas.setBitmap(null);
+            chartCache.recycle();
+            chartCache = null;
+        }
+        chartCacheValid = false;
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
-        final Rect chartPos = getChartPosition();
         final int left = Math.round(ChartMath.mapX(matrix, xRange.from));
         final int right = Math.round(ChartMath.mapX(matrix, xRange.to));
-        final int top = chartPos.top;
-        final int bottom = chartPos.bottom;
-        final int topExtra = 0;
-        final int bottomExtra = getHeight();
 
-        canvas.clipRect(left, topExtra, right, bottomExtra);
+        canvas.clipRect(left, 0, right, getHeight());
 
         super.onDraw(canvas); // Drawing chart
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        // Chart can be drawn by a child view (see setRenderInBackground), so we should draw
+        // the handle after children to keep it on top
+        super.dispatchDraw(canvas);
 
         if (!isReady()) {
             return;
         }
 
+        final Rect chartPos = getChartPosition();
+        final int left = Math.round(ChartMath.mapX(matrix, xRange.from));
+        final int right = Math.round(ChartMath.mapX(matrix, xRange.to));
+        final int top = chartPos.top;
+        final int bottom = chartPos.bottom;
+        final int topExtra = 0;
+        final int bottomExtra = getHeight();
+
         // Drawing handle
         final int leftPos = Math.round(ChartMath.mapX(matrix, handleRange.from));
         final int rightPos = Math.round(ChartMath.mapX(matrix, handleRange.to));
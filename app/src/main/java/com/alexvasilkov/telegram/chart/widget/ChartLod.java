@@ -0,0 +1,148 @@
+package com.alexvasilkov.telegram.chart.widget;
+
+import android.graphics.Matrix;
+
+import com.alexvasilkov.telegram.chart.data.ChartLevels;
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.widget.painter.Painter;
+import com.alexvasilkov.telegram.chart.widget.painter.ScratchBuffers;
+import com.alexvasilkov.telegram.chart.widget.style.ChartStyle;
+
+/**
+ * Level of detail selection for a chart: holds painters for each level of chart's rollup
+ * pyramid (see {@link ChartLevels}) and picks the coarsest level which still has at least one
+ * point per pixel.
+ * <p>
+ * Levels are drawn in original chart coordinates, so the rest of the view (ranges, labels,
+ * popups) is not aware of levels at all.
+ */
+class ChartLod {
+
+    private final Chart chart;
+    private final Painter basePainter;
+    private final ChartLevels levels;
+    private final Painter[] painters;
+
+    private final float[] values = new float[9];
+
+    private ChartLod(Chart chart, Painter basePainter, ChartLevels levels) {
+        this.chart = chart;
+        this.basePainter = basePainter;
+        this.levels = levels;
+
+        painters = new Painter[levels.size()];
+        for (int i = 0; i < painters.length; i++) {
+            painters[i] = Painter.create(levels.get(i).chart);
+
+            // Using original scales since rounded levels values can slightly change them
+            final float[] scales = painters[i].getSourcesScales();
+            System.arraycopy(basePainter.getSourcesScales(), 0, scales, 0, scales.length);
+        }
+    }
+
+    static ChartLod create(Chart chart, Painter basePainter) {
+        return new ChartLod(chart, basePainter, ChartLevels.build(chart));
+    }
+
+    Painter getBasePainter() {
+        return basePainter;
+    }
+
+    void applyStyle(ChartStyle style) {
+        applyStyle(basePainter, style);
+        for (Painter painter : painters) {
+            applyStyle(painter, style);
+        }
+    }
+
+    private static void applyStyle(Painter painter, ChartStyle style) {
+        // Painter can be used by background renderer at the same time
+        synchronized (painter) {
+            painter.applyStyle(style);
+        }
+    }
+
+    void setScratchBuffers(ScratchBuffers buffers) {
+        basePainter.setScratchBuffers(buffers);
+        for (Painter painter : painters) {
+            painter.setScratchBuffers(buffers);
+        }
+    }
+
+    /**
+     * Precomputes geometry of the entire chart for all levels coarser than original chart,
+     * or for original chart if there are no levels.
+     */
+    void prepare(float[] sourcesStates) {
+        if (painters.length == 0) {
+            basePainter.prepare(0, chart.x.length - 1, sourcesStates);
+        } else {
+            for (int i = 0; i < painters.length; i++) {
+                final int size = levels.get(i).chart.x.length;
+                painters[i].prepare(0, size - 1, sourcesStates);
+            }
+        }
+    }
+
+    /**
+     * Releases caches of level painters, original painter is managed separately.
+     */
+    void releaseLevelsCaches() {
+        for (Painter painter : painters) {
+            // Painter can be used by background renderer at the same time
+            synchronized (painter) {
+                painter.releaseCache();
+            }
+        }
+    }
+
+    /**
+     * Selects level to draw given range of original chart points with given matrix.
+     * Original chart is used if point is selected since selection is drawn by painters.
+     */
+    void select(Matrix matrix, int from, int to, int selectedPos, Selection out) {
+        int level = -1;
+
+        if (selectedPos == -1 && painters.length > 0) {
+            matrix.getValues(values);
+            final float pointsPerPixel = 1f / Math.abs(values[Matrix.MSCALE_X]);
+
+            for (int i = painters.length - 1; i >= 0; i--) {
+                if (levels.get(i).step <= pointsPerPixel) {
+                    level = i;
+                    break;
+                }
+            }
+        }
+
+        if (level == -1) {
+            out.painter = basePainter;
+            out.matrix.set(matrix);
+            out.from = from;
+            out.to = to;
+            out.selectedPos = selectedPos;
+            return;
+        }
+
+        final ChartLevels.Level info = levels.get(level);
+        final int maxX = info.chart.x.length - 1;
+
+        out.painter = painters[level];
+        out.matrix.set(matrix);
+        out.matrix.preTranslate(info.getOffset(), 0f);
+        out.matrix.preScale(info.step, 1f);
+        out.from = Math.max(0, (int) Math.floor(info.toLevelX(from)));
+        out.to = Math.min(maxX, (int) Math.ceil(info.toLevelX(to)));
+        out.selectedPos = -1;
+    }
+
+
+    static class Selection {
+        final Matrix matrix = new Matrix();
+        Painter painter;
+        int from;
+        int to;
+        int selectedPos;
+    }
+
+}
@@ -0,0 +1,262 @@
+package com.alexvasilkov.telegram.chart.widget;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.SurfaceTexture;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.view.TextureView;
+import android.view.View;
+
+import com.alexvasilkov.telegram.chart.utils.FrameMetrics;
+import com.alexvasilkov.telegram.chart.widget.painter.CanvasTarget;
+import com.alexvasilkov.telegram.chart.widget.painter.Painter;
+
+/**
+ * Draws chart using the same {@link Painter} API but on a dedicated render thread into
+ * a {@link TextureView}. UI thread only stores current chart state into a pending snapshot,
+ * which is swapped with a drawing snapshot once render thread is ready to draw next frame.
+ * <p>
+ * Painter is locked during drawing, so any UI thread code modifying painter should
+ * synchronize on it as well.
+ * <p>
+ * Render thread is shared by all renderers in the process. It is started once the first
+ * renderer requests a frame and is quit once all renderers are released, see {@link #release()}.
+ */
+class ChartRenderer implements TextureView.SurfaceTextureListener {
+
+    private static final String THREAD_NAME = "ChartRenderer";
+
+    private static HandlerThread renderThread;
+    private static Handler renderHandler;
+    private static int renderersCount;
+
+    private final View view;
+    private final TextureView textureView;
+    private final FrameMetrics metrics;
+
+    private final Object stateLock = new Object();
+    private final Object surfaceLock = new Object();
+
+    private Snapshot pending = new Snapshot();
+    private Snapshot drawing = new Snapshot();
+    private boolean hasPending;
+    private boolean isScheduled;
+    private boolean isSurfaceAvailable;
+    private Handler handler;
+
+    private final Runnable renderAction = this::render;
+    private final CanvasTarget canvasTarget = new CanvasTarget();
+
+    ChartRenderer(Context context, View view, FrameMetrics metrics) {
+        this.view = view;
+        this.metrics = metrics;
+
+        textureView = new TextureView(context);
+        textureView.setOpaque(false);
+        textureView.setSurfaceTextureListener(this);
+    }
+
+    TextureView getTextureView() {
+        return textureView;
+    }
+
+    boolean isAvailable() {
+        synchronized (surfaceLock) {
+            return isSurfaceAvailable;
+        }
+    }
+
+    /**
+     * Schedules drawing of given chart state on render thread. If previous frame is not yet
+     * drawn then it will be replaced with a new one. Passing null painter will clear the surface.
+     */
+    void requestRender(
+            Painter painter,
+            Rect chartPos,
+            Matrix matrix,
+            int from,
+            int to,
+            float[] sourcesStates,
+            int selectedPos,
+            boolean simplified
+    ) {
+        synchronized (stateLock) {
+            pending.set(painter, chartPos, matrix, from, to, sourcesStates, selectedPos, simplified);
+            hasPending = true;
+
+            if (!isScheduled) {
+                isScheduled = true;
+                if (handler == null) {
+                    handler = acquireHandler();
+                }
+                handler.post(renderAction);
+            }
+        }
+    }
+
+    /**
+     * Drops pending frames and releases render thread, it will be acquired again on next
+     * {@link #requestRender} call. Should be called once view is detached.
+     */
+    void release() {
+        synchronized (stateLock) {
+            if (handler != null) {
+                handler.removeCallbacks(renderAction);
+                releaseHandler();
+                handler = null;
+            }
+            hasPending = false;
+            isScheduled = false;
+            pending.painter = null;
+            drawing.painter = null;
+        }
+    }
+
+    // Called on render thread
+    private void render() {
+        synchronized (stateLock) {
+            isScheduled = false;
+            if (!hasPending) {
+                return;
+            }
+            hasPending = false;
+
+            // Swapping snapshots, UI thread will write into previously drawn one
+            final Snapshot tmp = drawing;
+            drawing = pending;
+            pending = tmp;
+        }
+
+        final Snapshot state = drawing;
+
+        synchronized (surfaceLock) {
+            if (!isSurfaceAvailable) {
+                return;
+            }
+
+            final Canvas canvas = textureView.lockCanvas();
+            if (canvas == null) {
+                return;
+            }
+
+            try {
+                canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+
+                final Painter painter = state.painter;
+                if (painter != null) {
+                    final long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+
+                    // Scratch buffers are shared by all painters of the view and are locked
+                    // separately, since they can be released while another painter is drawn
+                    synchronized (painter) {
+                        synchronized (painter.getScratchBuffers()) {
+                            painter.draw(
+                                    canvasTarget.set(canvas),
+                                    state.chartPos,
+                                    state.matrix,
+                                    state.from,
+                                    state.to,
+                                    state.sourcesStates,
+                                    state.selectedPos,
+                                    state.simplified
+                            );
+                        }
+                    }
+
+                    if (start != 0L) {
+                        metrics.addTime(FrameMetrics.SECTION_DRAW, System.nanoTime() - start);
+                    }
+                }
+            } finally {
+                textureView.unlockCanvasAndPost(canvas);
+            }
+        }
+    }
+
+
+    @Override
+    public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
+        synchronized (surfaceLock) {
+            isSurfaceAvailable = true;
+        }
+        view.invalidate(); // Requesting new frame
+    }
+
+    @Override
+    public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
+        view.invalidate(); // Requesting new frame
+    }
+
+    @Override
+    public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+        // Waiting for current frame to be drawn, if any
+        synchronized (surfaceLock) {
+            isSurfaceAvailable = false;
+        }
+        return true;
+    }
+
+    @Override
+    public void onSurfaceTextureUpdated(SurfaceTexture surface) {}
+
+
+    private static synchronized Handler acquireHandler() {
+        if (renderersCount++ == 0) {
+            renderThread = new HandlerThread(THREAD_NAME, Process.THREAD_PRIORITY_DISPLAY);
+            renderThread.start();
+            renderHandler = new Handler(renderThread.getLooper());
+        }
+        return renderHandler;
+    }
+
+    private static synchronized void releaseHandler() {
+        if (--renderersCount == 0) {
+            // Frame which is currently drawn (if any) will be finished first
+            renderThread.quit();
+            renderThread = null;
+            renderHandler = null;
+        }
+    }
+
+
+    private static class Snapshot {
+        Painter painter;
+        final Rect chartPos = new Rect();
+        final Matrix matrix = new Matrix();
+        int from;
+        int to;
+        float[] sourcesStates = new float[0];
+        int selectedPos;
+        boolean simplified;
+
+        void set(
+                Painter painter,
+                Rect chartPos,
+                Matrix matrix,
+                int from,
+                int to,
+                float[] sourcesStates,
+                int selectedPos,
+                boolean simplified
+        ) {
+            this.painter = painter;
+            this.chartPos.set(chartPos);
+            this.matrix.set(matrix);
+            this.from = from;
+            this.to = to;
+            if (this.sourcesStates.length != sourcesStates.length) {
+                this.sourcesStates = new float[sourcesStates.length];
+            }
+            System.arraycopy(sourcesStates, 0, this.sourcesStates, 0, sourcesStates.length);
+            this.selectedPos = selectedPos;
+            this.simplified = simplified;
+        }
+    }
+
+}
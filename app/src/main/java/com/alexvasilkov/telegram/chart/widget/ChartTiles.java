@@ -0,0 +1,268 @@
+package com.alexvasilkov.telegram.chart.widget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Rect;
+
+import com.alexvasilkov.telegram.chart.utils.Range;
+import com.alexvasilkov.telegram.chart.widget.painter.CanvasTarget;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Caches rendered chart in a set of fixed-width tiles (in chart X coordinates), so that panning
+ * at a fixed zoom level only requires drawing already rendered bitmaps. Tiles are only valid
+ * for a particular X scale, Y range and sources states, once any of them is changed all the
+ * tiles are dropped and chart should be drawn directly until the changes are settled.
+ */
+class ChartTiles {
+
+    // Scale and translation can be changed by a rounding error between frames (e.g. while
+    // dragging finder handles or at the end of Y animation), such changes should be ignored
+    private static final float SCALE_EPSILON = 1e-4f; // Relative
+    private static final float TRANSLATE_EPSILON = 0.1f; // In pixels
+
+    // Number of frames the key should stay the same before tiles are rendered, so that no
+    // bitmaps are allocated for a state which is only kept for a frame or two
+    private static final int SETTLE_FRAMES = 3;
+
+    private final float tileWidth;
+    private final float tileMargin;
+
+    private final List<Tile> tiles = new ArrayList<>();
+
+    private final float[] values = new float[9];
+    private final float[] keyValues = new float[9];
+    private float[] keyStates;
+    private int keyWidth;
+    private int keyHeight;
+    private int keyFrames;
+
+    private final Matrix tileMatrix = new Matrix();
+    private final CanvasTarget canvasTarget = new CanvasTarget();
+    private final ChartLod.Selection lodSelection = new ChartLod.Selection();
+
+    ChartTiles(float tileWidth, float tileMargin) {
+        this.tileWidth = tileWidth;
+        this.tileMargin = tileMargin;
+    }
+
+    /**
+     * Drops all rendered tiles, should be called if chart or its style is changed.
+     */
+    void invalidate() {
+        for (int i = 0, size = tiles.size(); i < size; i++) {
+            tiles.get(i).valid = false;
+        }
+        keyStates = null;
+    }
+
+    /**
+     * Releases all tiles bitmaps.
+     */
+    void release() {
+        for (int i = 0, size = tiles.size(); i < size; i++) {
+            tiles.get(i).release();
+        }
+        tiles.clear();
+        keyStates = null;
+    }
+
+    /**
+     * Draws the chart using cached tiles, rendering the missing tiles if needed.
+     * Returns false if tiles cannot be used for current frame since chart's Y range, X scale or
+     * sources states were changed since last frame. Chart should be drawn directly in this case.
+     */
+    boolean draw(
+            Canvas canvas,
+            ChartLod lod,
+            Matrix matrix,
+            Rect chartPos,
+            Range chartRange,
+            Range xRangeExt,
+            float[] sourcesStates,
+            int width,
+            int height
+    ) {
+        matrix.getValues(values);
+
+        if (!isSameKey(sourcesStates, width, height)) {
+            // Tiles are not valid anymore, we'll wait until the state is settled
+            // to start rendering new tiles.
+            invalidate();
+            setKey(sourcesStates, width, height);
+            return false;
+        }
+
+        if (keyFrames < SETTLE_FRAMES) {
+            keyFrames++;
+            return false;
+        }
+
+        final float scaleX = values[Matrix.MSCALE_X];
+        final float transX = values[Matrix.MTRANS_X];
+
+        // Number of chart points per tile
+        final int tilePoints = Math.max(1, Math.round(tileWidth / scaleX));
+        // Extra space on tile sides, also taking bars half-width into account
+        final float margin = tileMargin + 0.5f * scaleX;
+        final int tileBitmapWidth = (int) Math.ceil(tilePoints * scaleX + 2f * margin);
+
+        final int chartFrom = (int) chartRange.from;
+        final int chartTo = (int) chartRange.to;
+
+        final int from = (int) Math.floor(xRangeExt.from);
+        final int to = (int) Math.ceil(xRangeExt.to);
+        final int tileFrom = from / tilePoints;
+        final int tileTo = to / tilePoints;
+
+        for (int index = tileFrom; index <= tileTo; index++) {
+            final int tileStart = index * tilePoints;
+            final int tileEnd = tileStart + tilePoints;
+
+            if (tileStart > chartTo) {
+                break;
+            }
+
+            final float left = tileStart * scaleX + transX;
+            final float right = tileEnd * scaleX + transX;
+
+            Tile tile = findTile(index);
+
+            if (tile == null) {
+                tile = obtainTile(tileFrom, tileTo, tileBitmapWidth, height);
+                tile.index = index;
+
+                // Rendering the tile so that tile's start is placed right after the margin
+                tileMatrix.set(matrix);
+                tileMatrix.postTranslate(margin - left, 0f);
+
+                final ChartLod.Selection level = lodSelection;
+                lod.select(
+                        tileMatrix,
+                        Math.max(chartFrom, tileStart - 1),
+                        Math.min(chartTo, tileEnd + 1),
+                        -1,
+                        level
+                );
+
+                // Scratch buffers are shared with other painters of the view
+                synchronized (level.painter.getScratchBuffers()) {
+                    level.painter.draw(
+                            canvasTarget.set(tile.canvas),
+                            chartPos,
+                            level.matrix,
+                            level.from,
+                            level.to,
+                            sourcesStates,
+                            -1,
+                            false
+                    );
+                }
+                tile.valid = true;
+            }
+
+            // Tiles are clipped to their exact bounds, except for first and last tiles
+            // which should show chart edges
+            final float clipLeft = tileStart <= chartFrom ? left - margin : left;
+            final float clipRight = tileEnd >= chartTo ? right + margin : right;
+
+            canvas.save();
+            canvas.clipRect(clipLeft, 0f, clipRight, height);
+            canvas.drawBitmap(tile.bitmap, left - margin, 0f, null);
+            canvas.restore();
+        }
+
+        return true;
+    }
+
+    private boolean isSameKey(float[] states, int width, int height) {
+        return keyStates != null
+                && keyWidth == width
+                && keyHeight == height
+                && isSameScale(keyValues[Matrix.MSCALE_X], values[Matrix.MSCALE_X])
+                && isSameScale(keyValues[Matrix.MSCALE_Y], values[Matrix.MSCALE_Y])
+                && Math.abs(keyValues[Matrix.MTRANS_Y] - values[Matrix.MTRANS_Y])
+                <= TRANSLATE_EPSILON
+                && keyValues[Matrix.MSKEW_X] == values[Matrix.MSKEW_X]
+                && keyValues[Matrix.MSKEW_Y] == values[Matrix.MSKEW_Y]
+                && Arrays.equals(keyStates, states);
+    }
+
+    private static boolean isSameScale(float key, float value) {
+        return Math.abs(key - value) <= SCALE_EPSILON * Math.max(Math.abs(key), Math.abs(value));
+    }
+
+    private void setKey(float[] states, int width, int height) {
+        System.arraycopy(values, 0, keyValues, 0, values.length);
+        keyStates = Arrays.copyOf(states, states.length);
+        keyWidth = width;
+        keyHeight = height;
+        keyFrames = 0;
+    }
+
+    private Tile findTile(int index) {
+        for (int i = 0, size = tiles.size(); i < size; i++) {
+            final Tile tile = tiles.get(i);
+            if (tile.valid && tile.index == index) {
+                return tile;
+            }
+        }
+        return null;
+    }
+
+    private Tile obtainTile(int visibleFrom, int visibleTo, int width, int height) {
+        Tile result = null;
+
+        // Reusing invalid or invisible tile, if any
+        for (int i = 0, size = tiles.size(); i < size; i++) {
+            final Tile tile = tiles.get(i);
+            if (!tile.valid || tile.index < visibleFrom || tile.index > visibleTo) {
+                result = tile;
+                break;
+            }
+        }
+
+        if (result == null) {
+            result = new Tile();
+            tiles.add(result);
+        }
+
+        result.prepare(width, height);
+        return result;
+    }
+
+
+    private static class Tile {
+        final Canvas canvas = new Canvas();
+        Bitmap bitmap;
+        int index;
+        boolean valid;
+
+        void prepare(int width, int height) {
+            if (bitmap != null && bitmap.getWidth() >= width && bitmap.getHeight() == height) {
+                bitmap.eraseColor(Color.TRANSPARENT);
+            } else {
+                release();
+                // Allocating a bit more than needed to avoid reallocations on small zoom outs
+                bitmap = Bitmap.createBitmap(width + width / 4, height, Bitmap.Config.ARGB_8888);
+                canvas.setBitmap(bitmap);
+            }
+            valid = false;
+        }
+
+        void release() {
+            if (bitmap != null) {
+                canvas.setBitmap(null);
+                bitmap.recycle();
+                bitmap = null;
+            }
+            valid = false;
+        }
+    }
+
+}
@@ -9,15 +9,17 @@ import android.graphics.Color;
 import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Rect;
-import android.os.Build;
-import android.transition.AutoTransition;
-import android.transition.TransitionManager;
 import android.util.AttributeSet;
+import android.util.SparseArray;
 import android.view.GestureDetector;
 import android.view.GestureDetector.OnGestureListener;
+import android.view.Gravity;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
+import android.view.ViewConfiguration;
 import android.view.ViewGroup;
+import android.widget.OverScroller;
 
 import com.alexvasilkov.telegram.chart.R;
 import com.alexvasilkov.telegram.chart.domain.Chart;
@@ -25,19 +27,26 @@ import com.alexvasilkov.telegram.chart.domain.FormatterDate;
 import com.alexvasilkov.telegram.chart.domain.FormatterValue;
 import com.alexvasilkov.telegram.chart.domain.GroupBy;
 import com.alexvasilkov.telegram.chart.utils.AnimatedState;
+import com.alexvasilkov.telegram.chart.utils.ChartAnimator;
 import com.alexvasilkov.telegram.chart.utils.ChartMath;
+import com.alexvasilkov.telegram.chart.utils.FrameMetrics;
 import com.alexvasilkov.telegram.chart.utils.LabelsHelper;
+import com.alexvasilkov.telegram.chart.utils.LabelsIndex;
+import com.alexvasilkov.telegram.chart.utils.TextBuffer;
 import com.alexvasilkov.telegram.chart.widget.style.ChartStyle;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
 public class ChartView extends BaseChartView {
 
     private static final Rect textBounds = new Rect();
 
+    private static final int X_LABELS_CACHE_SIZE = 256;
+    private static final int X_LABELS_WIDTH_SAMPLES = 100;
+    private static final int Y_TITLES_CACHE_SIZE = 128;
+    private static final int TEXT_CACHE_SIZE = 512 * 1024; // In bytes
+
     private final int topInset;
     private int yGuidesCount;
 
@@ -48,7 +57,16 @@ public class ChartView extends BaseChartView {
     private YGuides yGuides;
     private final List<YGuides> yGuidesOld = new ArrayList<>();
 
-    private List<XLabel> xLabels;
+    // Labels levels are computed for all the points, while labels themselves are only created
+    // for the points within extended X range, released labels are kept in a bounded cache.
+    // Levels are computed for max label width, they are recomputed if a wider label is created.
+    private float[] xLabelsLevels;
+    private LabelsIndex xLabelsIndex;
+    private boolean xLabelsWidthChanged;
+    private final SparseArray<XLabel> xLabels = new SparseArray<>();
+    private final LongLruCache<XLabel> xLabelsCache = new LongLruCache<>(X_LABELS_CACHE_SIZE);
+    private int xLabelsFrom = 0;
+    private int xLabelsTo = -1;
     private float xLabelsMaxWidth;
     final LabelsHelper xLabelsHelper = new LabelsHelper();
     private float xLabelsLevel;
@@ -62,6 +80,12 @@ public class ChartView extends BaseChartView {
 
     private final Paint yLabelPaint = new Paint(ChartStyle.PAINT_FLAGS);
 
+    // Pre-rendered X and Y labels, both are using same text size
+    private final TextCache labelsTextCache;
+    // Formatted Y guides titles, keyed by value and max value, see getYTitle
+    private final LongLruCache<String> yTitlesCache = new LongLruCache<>(Y_TITLES_CACHE_SIZE);
+    private final TextBuffer yTitleBuffer = new TextBuffer();
+
     private FormatterDate xLabelFormatter;
     private FormatterValue yLabelFormatter;
 
@@ -70,14 +94,40 @@ public class ChartView extends BaseChartView {
 
     private final Matrix matrixInverse = new Matrix();
     private float selectedPosX = Float.NaN;
+    private float selectedPosY = Float.NaN;
     private int selectedChartX = -1;
+    private int highlightedSourceInd = -1;
     private boolean isTemporarySelectionX;
+    private final InputCoalescer selectionCoalescer =
+            new InputCoalescer(this, this::applySelectionScroll);
+    private float pendingScrollX;
+    private float pendingPosY;
     private boolean isSelectionXWasShown;
     private PopupAdapterX<?> popupAdapterX;
 
     private int selectedSourceInd = -1;
     private PopupAdapterSource<?> popupAdapterSource;
 
+    // Two-finger zoom and pan, followed by a fling
+    private boolean isMultiTouch;
+    private boolean isZooming;
+    private float zoomFocusX;
+    private float zoomSpanX;
+    private float appliedFocusX;
+    private float appliedSpanX;
+    private final InputCoalescer zoomCoalescer = new InputCoalescer(this, this::applyZoom);
+    private VelocityTracker velocityTracker;
+    private final OverScroller flingScroller;
+    private final ChartAnimator flingAnimator;
+    private float flingScale;
+    private float flingSize;
+    private final float minFlingVelocity;
+    private final float maxFlingVelocity;
+    private final float minZoomSpan;
+    private OnRangeRequestListener rangeRequestListener;
+
+    private final ChartTiles chartTiles;
+
 
     public ChartView(Context context, AttributeSet attrs) {
         super(context, attrs);
@@ -86,6 +136,9 @@ public class ChartView extends BaseChartView {
         yLabelMarginBottom = ChartStyle.dpToPx(context, 5f);
         yLabelMarginSide = ChartStyle.dpToPx(context, 2f);
 
+        chartTiles = new ChartTiles(
+                ChartStyle.dpToPx(context, 128f), ChartStyle.dpToPx(context, 4f));
+
         float labelsSize = ChartStyle.dpToPx(context, 12f);
         int labelsColor = Color.DKGRAY;
         int labelsDotColor = Color.DKGRAY;
@@ -104,6 +157,7 @@ public class ChartView extends BaseChartView {
 
         xLabelPaint.setTextSize(labelsSize);
         yLabelPaint.setTextSize(labelsSize);
+        labelsTextCache = new TextCache(xLabelPaint, TEXT_CACHE_SIZE);
 
         yGuidesPaint.setStrokeWidth(guidesWidth);
 
@@ -125,7 +179,7 @@ public class ChartView extends BaseChartView {
 
             @Override
             public void onShowPress(MotionEvent e) {
-                onShowPressEvent(e.getX());
+                onShowPressEvent(e.getX(), e.getY());
             }
 
             @Override
@@ -135,15 +189,30 @@ public class ChartView extends BaseChartView {
 
             @Override
             public boolean onScroll(MotionEvent e1, MotionEvent e2, float dX, float dY) {
-                return onScrollEvent(e2.getX(), dX);
+                return onScrollEvent(e2.getX(), e2.getY(), dX);
             }
         };
         gestureDetector = new GestureDetector(context, listener);
         gestureDetector.setIsLongpressEnabled(false);
 
+        final ViewConfiguration config = ViewConfiguration.get(context);
+        minFlingVelocity = config.getScaledMinimumFlingVelocity();
+        maxFlingVelocity = config.getScaledMaximumFlingVelocity();
+        minZoomSpan = config.getScaledTouchSlop();
+
+        flingScroller = new OverScroller(context);
+        flingAnimator = new ChartAnimator(this, this::onFlingStep);
+
         setClipToPadding(false);
     }
 
+    @Override
+    public void setBaseColors(
+            boolean darken, int backgroundHint, int selection, int selectionMask) {
+        chartTiles.invalidate();
+        super.setBaseColors(darken, backgroundHint, selection, selectionMask);
+    }
+
     public void setColors(int guides, int labels, int dot) {
         yGuidesMaxAlpha = Color.alpha(guides);
         yGuidesPaint.setColor(guides);
@@ -167,6 +236,7 @@ public class ChartView extends BaseChartView {
 
     public void setYLabelFormatter(FormatterValue formatter) {
         yLabelFormatter = formatter;
+        yTitlesCache.evictAll();
     }
 
     public void groupBy(GroupBy groupBy) {
@@ -174,15 +244,22 @@ public class ChartView extends BaseChartView {
     }
 
     @Override
-    public void setChart(Chart newChart) {
+    void setChart(Chart newChart, ChartLod preparedLod) {
+        chartTiles.invalidate();
+
         // Invalidating X labels
-        xLabels = null;
+        releaseXLabels();
+        xLabelsLevels = null;
+        xLabelsIndex = null;
 
         // Invalidating Y guides
         yGuides = null;
         yGuidesOld.clear();
 
+        cancelSelectionScroll();
         clearSelectedPosX();
+        zoomCoalescer.cancel();
+        stopFling();
         if (popupAdapterX != null) {
             popupAdapterX.clear();
             popupAdapterX.init(this, newChart);
@@ -194,7 +271,7 @@ public class ChartView extends BaseChartView {
             popupAdapterSource.init(this, newChart);
         }
 
-        super.setChart(newChart);
+        super.setChart(newChart, preparedLod);
     }
 
     @Override
@@ -213,6 +290,14 @@ public class ChartView extends BaseChartView {
         popupAdapterSource = adapter;
     }
 
+    /**
+     * Sets listener which will apply ranges requested by zoom and fling gestures, otherwise
+     * the ranges are applied directly.
+     */
+    void setRangeRequestListener(OnRangeRequestListener listener) {
+        rangeRequestListener = listener;
+    }
+
     @Override
     public void setScaleX(float scaleX) {
         super.setScaleX(scaleX);
@@ -287,40 +372,67 @@ public class ChartView extends BaseChartView {
     }
 
     private void prepareXLabels() {
-        if (xLabels != null) {
+        if (xLabelsLevels != null) {
             return; // Already prepared
         }
 
         if (chart.type == Chart.Type.PIE) {
             // No X labels needed
-            xLabels = Collections.emptyList();
+            xLabelsLevels = new float[0];
+            xLabelsIndex = new LabelsIndex(xLabelsLevels);
+            xLabelsMaxWidth = 0f;
             return;
         }
 
+        // Estimating max label width using a sample of labels instead of formatting all of them,
+        // levels are recomputed if actual labels turn out wider once created
         final int size = chart.x.length;
-        xLabels = new ArrayList<>(size);
-
-        // Preparing titles
-        int maxLabelWidth = 0;
-        final int[] widths = new int[size];
-        final String[] titles = new String[size];
+        final int step = Math.max(1, size / X_LABELS_WIDTH_SAMPLES);
 
-        for (int i = 0; i < size; i++) {
-            titles[i] = xLabelFormatter == null
-                    ? String.valueOf(chart.x[i]) : xLabelFormatter.format(chart.x[i]);
-            widths[i] = measureXLabel(titles[i]);
-            maxLabelWidth = Math.max(maxLabelWidth, widths[i]);
+        int maxLabelWidth = measureXLabel(formatXLabel(size - 1));
+        for (int i = 0; i < size; i += step) {
+            maxLabelWidth = Math.max(maxLabelWidth, measureXLabel(formatXLabel(i)));
         }
         xLabelsMaxWidth = maxLabelWidth;
 
-        xLabelsHelper.init(getChartPosition().width(), maxLabelWidth, xLabelPadding);
+        computeXLabelsLevels();
+    }
+
+    private void computeXLabelsLevels() {
+        xLabelsHelper.init(
+                getChartPosition().width(), (int) Math.ceil(xLabelsMaxWidth), xLabelPadding);
+
+        xLabelsLevels = xLabelsHelper.computeLabelsLevels(chart);
+        xLabelsIndex = new LabelsIndex(xLabelsLevels);
+        xLabelsWidthChanged = false;
+    }
 
-        final float[] levels = xLabelsHelper.computeLabelsLevels(chart);
+    private XLabel obtainXLabel(int pos) {
+        XLabel label = xLabelsCache.remove(pos);
 
-        for (int i = 0; i < size; i++) {
-            // Inverting levels position according to direction
-            xLabels.add(new XLabel(titles[i], levels[i], widths[i]));
+        if (label == null) {
+            final String title = formatXLabel(pos);
+            label = new XLabel(title, measureXLabel(title));
+
+            if (label.width > xLabelsMaxWidth) {
+                xLabelsMaxWidth = label.width;
+                xLabelsWidthChanged = true;
+            }
         }
+
+        return label;
+    }
+
+    private void releaseXLabels() {
+        xLabels.clear();
+        xLabelsCache.evictAll();
+        xLabelsFrom = 0;
+        xLabelsTo = -1;
+    }
+
+    private String formatXLabel(int pos) {
+        return xLabelFormatter == null
+                ? String.valueOf(chart.x[pos]) : xLabelFormatter.format(chart.x[pos]);
     }
 
     private int measureXLabel(String title) {
@@ -361,9 +473,7 @@ public class ChartView extends BaseChartView {
                 final int scaledValue = Math.round(value / scale);
                 final int scaledMaxValue = Math.round(maxValue / scale);
 
-                yGuides.titles[s][i] = yLabelFormatter == null
-                        ? String.valueOf(scaledValue)
-                        : yLabelFormatter.format(scaledValue, scaledMaxValue);
+                yGuides.titles[s][i] = getYTitle(scaledValue, scaledMaxValue);
             }
         }
 
@@ -375,6 +485,24 @@ public class ChartView extends BaseChartView {
         }
     }
 
+    private String getYTitle(int value, int maxValue) {
+        final long key = ((long) value << 32) | (maxValue & 0xFFFFFFFFL);
+        String title = yTitlesCache.get(key);
+
+        if (title == null) {
+            yTitleBuffer.clear();
+            if (yLabelFormatter == null) {
+                yTitleBuffer.append(value);
+            } else {
+                yLabelFormatter.format(value, maxValue, yTitleBuffer);
+            }
+            title = yTitleBuffer.toString();
+            yTitlesCache.put(key, title);
+        }
+
+        return title;
+    }
+
 
     @Override
     public boolean dispatchTouchEvent(MotionEvent ev) {
@@ -383,6 +511,10 @@ public class ChartView extends BaseChartView {
             return true;
         }
 
+        if (onMultiTouchEvent(ev)) {
+            return true;
+        }
+
         if (ev.getActionMasked() == MotionEvent.ACTION_CANCEL) {
             onCancelEvent();
             onUpOrCancelEvent();
@@ -394,6 +526,219 @@ public class ChartView extends BaseChartView {
         return gestureDetector.onTouchEvent(ev);
     }
 
+    /**
+     * Handles two-finger zoom and pan. Once second finger is down the rest of the touch sequence
+     * is consumed here, with a fling once fingers are lifted.
+     */
+    private boolean onMultiTouchEvent(MotionEvent ev) {
+        final int action = ev.getActionMasked();
+
+        if (action == MotionEvent.ACTION_DOWN) {
+            stopFling(); // Touch stops the fling
+        }
+
+        if (!isMultiTouch) {
+            if (action != MotionEvent.ACTION_POINTER_DOWN
+                    || painter == null || chart.type == Chart.Type.PIE) {
+                return false;
+            }
+            startMultiTouch(ev);
+        }
+
+        velocityTracker.addMovement(ev);
+
+        switch (action) {
+            case MotionEvent.ACTION_POINTER_DOWN:
+                if (!isZooming) {
+                    // Second finger is back, stopping the fling
+                    isZooming = true;
+                    stopFling();
+                }
+                resetZoomFocus(ev, -1);
+                break;
+            case MotionEvent.ACTION_MOVE:
+                if (isZooming) {
+                    // Zoom is applied once per frame with all the movements accumulated till then
+                    updateZoomFocus(ev, -1);
+                    zoomCoalescer.schedule();
+                }
+                break;
+            case MotionEvent.ACTION_POINTER_UP:
+                if (ev.getPointerCount() > 2) {
+                    resetZoomFocus(ev, ev.getActionIndex());
+                } else if (isZooming) {
+                    // Remaining finger is ignored until it is lifted
+                    zoomCoalescer.flush();
+                    isZooming = false;
+                    startFling(ev);
+                }
+                break;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                zoomCoalescer.flush();
+                isMultiTouch = false;
+                isZooming = false;
+                velocityTracker.recycle();
+                velocityTracker = null;
+                if (flingScroller.isFinished()) {
+                    onZoomFinished();
+                }
+                break;
+        }
+
+        return true;
+    }
+
+    private void startMultiTouch(MotionEvent ev) {
+        isMultiTouch = true;
+        isZooming = true;
+
+        // Cancelling selection and any pending single finger gestures
+        final MotionEvent cancel = MotionEvent.obtain(ev);
+        cancel.setAction(MotionEvent.ACTION_CANCEL);
+        gestureDetector.onTouchEvent(cancel);
+        cancel.recycle();
+        cancelSelectionScroll();
+        clearSelectedPosX();
+
+        getParent().requestDisallowInterceptTouchEvent(true);
+
+        stopFling();
+        velocityTracker = VelocityTracker.obtain();
+
+        // Optimizing chart drawing while being zoomed
+        useSimplifiedDrawing(true);
+    }
+
+    /**
+     * Applies pending movements and starts tracking zoom with new set of fingers.
+     */
+    private void resetZoomFocus(MotionEvent ev, int skipIndex) {
+        zoomCoalescer.flush();
+        updateZoomFocus(ev, skipIndex);
+        appliedFocusX = zoomFocusX;
+        appliedSpanX = zoomSpanX;
+    }
+
+    private void updateZoomFocus(MotionEvent ev, int skipIndex) {
+        final int count = ev.getPointerCount();
+        final int pointers = skipIndex == -1 ? count : count - 1;
+
+        float sumX = 0f;
+        for (int i = 0; i < count; i++) {
+            if (i != skipIndex) {
+                sumX += ev.getX(i);
+            }
+        }
+        final float focusX = sumX / pointers;
+
+        float sumDist = 0f;
+        for (int i = 0; i < count; i++) {
+            if (i != skipIndex) {
+                sumDist += Math.abs(ev.getX(i) - focusX);
+            }
+        }
+
+        zoomFocusX = focusX;
+        zoomSpanX = 2f * sumDist / pointers;
+    }
+
+    private void applyZoom() {
+        final float prevFocusX = appliedFocusX;
+        final float prevSpanX = appliedSpanX;
+        appliedFocusX = zoomFocusX;
+        appliedSpanX = zoomSpanX;
+
+        if (!isZooming) {
+            return;
+        }
+
+        final Rect chartPos = getChartPosition();
+        final float width = chartPos.width();
+        final float size = xRangeEnd.to - xRangeEnd.from;
+        if (width <= 0f || size <= 0f) {
+            return;
+        }
+
+        // Keeping chart point under the previous focus under the new focus, zooming horizontally
+        final float focusPoint = xRangeEnd.from + (prevFocusX - chartPos.left) * size / width;
+        final boolean canZoom = prevSpanX > minZoomSpan && zoomSpanX > minZoomSpan;
+        final float newSize = canZoom ? size * prevSpanX / zoomSpanX : size;
+        final float newFrom = focusPoint - (zoomFocusX - chartPos.left) * newSize / width;
+
+        requestRange(newFrom, newFrom + newSize);
+    }
+
+    private void startFling(MotionEvent ev) {
+        velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+
+        // Using average velocity of all the fingers
+        float velocityX = 0f;
+        final int count = ev.getPointerCount();
+        for (int i = 0; i < count; i++) {
+            velocityX += velocityTracker.getXVelocity(ev.getPointerId(i)) / count;
+        }
+
+        final Rect chartPos = getChartPosition();
+        final float size = xRangeEnd.to - xRangeEnd.from;
+        if (Math.abs(velocityX) < minFlingVelocity || size <= 0f || chartPos.width() <= 0) {
+            return;
+        }
+
+        // Scrolling in pixels, with current zoom level
+        flingScale = chartPos.width() / size;
+        flingSize = size;
+        final int start = Math.round(xRangeEnd.from * flingScale);
+        final int min = Math.round(chartRange.from * flingScale);
+        final int max = Math.round((chartRange.to - size) * flingScale);
+
+        flingScroller.fling(start, 0, Math.round(-velocityX), 0, min, max, 0, 0);
+        flingAnimator.start();
+    }
+
+    private boolean onFlingStep(long now) {
+        if (!flingScroller.computeScrollOffset()) {
+            if (!isMultiTouch) {
+                onZoomFinished();
+            }
+            return false;
+        }
+
+        final float from = flingScroller.getCurrX() / flingScale;
+        requestRange(from, from + flingSize);
+        return true;
+    }
+
+    private void stopFling() {
+        if (!flingScroller.isFinished()) {
+            flingScroller.forceFinished(true);
+            flingAnimator.stop();
+            if (!isMultiTouch) {
+                onZoomFinished();
+            }
+        }
+    }
+
+    private void onZoomFinished() {
+        // Settling to full quality drawing
+        useSimplifiedDrawing(false);
+
+        if (rangeRequestListener != null) {
+            rangeRequestListener.onRangeRequestsFinished();
+        }
+    }
+
+    private void requestRange(float fromX, float toX) {
+        if (rangeRequestListener != null) {
+            rangeRequestListener.onRangeRequested(fromX, toX);
+        } else {
+            // Keeping requested range size within chart bounds
+            final float size = Math.min(Math.max(toX - fromX, 1f), chartRange.to - chartRange.from);
+            final float from = Math.max(chartRange.from, Math.min(fromX, chartRange.to - size));
+            setRange(from, from + size, false, true);
+        }
+    }
+
     private boolean onDownEvent() {
         firstScrollEvent = true;
         isSelectionXWasShown = selectedChartX != -1;
@@ -408,11 +753,13 @@ public class ChartView extends BaseChartView {
     }
 
     private void onUpOrCancelEvent() {
+        selectionCoalescer.flush(); // Applying last movements
         useSimplifiedDrawing(false);
     }
 
-    private void onShowPressEvent(float posX) {
+    private void onShowPressEvent(float posX, float posY) {
         isTemporarySelectionX = true;
+        selectedPosY = posY;
         setSelectedPosX(posX);
     }
 
@@ -435,21 +782,26 @@ public class ChartView extends BaseChartView {
         if (isSelectionXWasShown) {
             clearSelectedPosX();
         } else {
+            selectedPosY = posY;
             setSelectedPosX(posX);
         }
         return true;
     }
 
-    private boolean onScrollEvent(float posX, float distanceX) {
+    private boolean onScrollEvent(float posX, float posY, float distanceX) {
         isTemporarySelectionX = false;
 
         if (firstScrollEvent) {
             firstScrollEvent = false;
             getParent().requestDisallowInterceptTouchEvent(true);
 
+            selectedPosY = posY;
             setSelectedPosX(posX);
         } else {
-            setSelectedPosX(selectedPosX - distanceX);
+            // Selection is moved once per frame with all the movements accumulated till then
+            pendingScrollX += distanceX;
+            pendingPosY = posY;
+            selectionCoalescer.schedule();
         }
 
         // Optimizing chart drawing while being dragged
@@ -458,6 +810,21 @@ public class ChartView extends BaseChartView {
         return true;
     }
 
+    private void applySelectionScroll() {
+        final float distanceX = pendingScrollX;
+        pendingScrollX = 0f;
+
+        if (!Float.isNaN(selectedPosX)) {
+            selectedPosY = pendingPosY;
+            setSelectedPosX(selectedPosX - distanceX);
+        }
+    }
+
+    private void cancelSelectionScroll() {
+        selectionCoalescer.cancel();
+        pendingScrollX = 0f;
+    }
+
     private void setSelectedPosX(float posX) {
         if (painter == null || !painter.allowXSelection()) {
             return;
@@ -472,32 +839,62 @@ public class ChartView extends BaseChartView {
         setSelectedPointX(selectedChartX);
 
         updatePopupX();
+        updateHighlightedSource();
     }
 
     private void clearSelectedPosX() {
         selectedPosX = Float.NaN;
+        selectedPosY = Float.NaN;
         selectedChartX = -1;
         updatePopupX();
+        updateHighlightedSource();
         setSelectedPointX(-1);
     }
 
+    /**
+     * Highlights source nearest to the touch point at selected X position.
+     */
+    private void updateHighlightedSource() {
+        int nearest = -1;
+
+        if (selectedChartX != -1 && !Float.isNaN(selectedPosY)) {
+            final float posX = ChartMath.mapX(matrix, selectedChartX);
+            // Painter can be used by background renderer at the same time
+            synchronized (painter) {
+                nearest = painter.findNearestSource(
+                        getChartPosition(), matrix, sourcesStatesValues, posX, selectedPosY);
+            }
+        }
+
+        if (nearest != highlightedSourceInd) {
+            highlightedSourceInd = nearest;
+            if (popupAdapterX != null) {
+                popupAdapterX.highlight(chart, nearest);
+            }
+        }
+    }
+
 
     @Override
-    protected boolean onAnimationStep() {
-        boolean result = super.onAnimationStep();
+    protected boolean onAnimationStep(long now) {
+        boolean result = super.onAnimationStep(now);
 
         // Checking X labels animations states
-        for (XLabel label : xLabels) {
-            result |= !label.state.isFinished();
+        for (int i = 0, size = xLabels.size(); i < size; i++) {
+            result |= !xLabels.valueAt(i).state.isFinished();
         }
 
         // Checking Y guides animations states
         result |= !yGuides.state.isFinished();
 
-        for (Iterator<YGuides> iterator = yGuidesOld.iterator(); iterator.hasNext(); ) {
-            boolean finished = iterator.next().state.isFinished();
+        // Checking popup shift animation state
+        result |= popupAdapterX != null && popupAdapterX.isAnimating();
+
+        // Iterating backward to remove finished guides without an iterator
+        for (int i = yGuidesOld.size() - 1; i >= 0; i--) {
+            boolean finished = yGuidesOld.get(i).state.isFinished();
             if (finished) {
-                iterator.remove();
+                yGuidesOld.remove(i);
             }
             result |= !finished;
         }
@@ -513,14 +910,28 @@ public class ChartView extends BaseChartView {
         xLabelsLevel = xLabelsHelper.computeLevel(xRange.size());
         setXLabelsVisibility(now);
 
+        if (xLabelsWidthChanged) {
+            // Created label is wider than estimated, levels should be recomputed to avoid
+            // labels overlapping. Labels created during this pass can extend max width further,
+            // they will be handled on next state update.
+            computeXLabelsLevels();
+            xLabelsLevel = xLabelsHelper.computeLevel(xRange.size());
+            setXLabelsVisibility(now);
+        }
+
         yGuides.transform(matrix);
-        for (YGuides guides : yGuidesOld) {
-            guides.transform(matrix);
+        for (int i = 0, size = yGuidesOld.size(); i < size; i++) {
+            yGuidesOld.get(i).transform(matrix);
         }
         setYGuidesVisibility(now);
 
+        frameMetrics.begin(FrameMetrics.SECTION_POPUP);
         updatePosOfPopupX();
         updatePosOfPopupSource();
+        if (selectedChartX != -1) {
+            updateHighlightedSource(); // Lines are moved under the touch point
+        }
+        frameMetrics.end(FrameMetrics.SECTION_POPUP);
     }
 
     @Override
@@ -534,19 +945,53 @@ public class ChartView extends BaseChartView {
     }
 
     private void setXLabelsVisibility(long now) {
-        final float fromX = xRangeExt.from;
-        final float toX = xRangeExt.to;
+        final int fromX = (int) Math.ceil(xRangeExt.from);
+        final int toX = (int) Math.floor(xRangeExt.to);
 
-        for (int i = 0, size = xLabels.size(); i < size; i++) {
-            final XLabel label = xLabels.get(i);
+        // Labels from deeper levels are never drawn (see drawXLabels), no need to create them
+        final float minLevel = 0.5f * xLabelsLevel;
 
-            // Resetting out-of-range labels
-            if (i < fromX || i > toX) {
+        // Releasing out-of-range and too deep labels
+        for (int i = xLabels.size() - 1; i >= 0; i--) {
+            final int pos = xLabels.keyAt(i);
+
+            if (pos < fromX || pos > toX || xLabelsLevels[pos] < minLevel) {
+                final XLabel label = xLabels.valueAt(i);
+                xLabels.removeAt(i);
                 label.state.reset();
+                xLabelsCache.put(pos, label);
+            }
+        }
+
+        // Only visiting positions which can have labels of at least min level
+        final int[] positions = xLabelsIndex.getPositions(minLevel);
+
+        final int fromP = LabelsIndex.indexOf(positions, fromX);
+
+        for (int p = fromP, size = positions.length; p < size; p++) {
+            final int i = positions[p];
+            if (i > toX) {
+                break;
+            }
+
+            final float level = xLabelsLevels[i];
+            if (level < minLevel) {
                 continue;
             }
 
-            final boolean show = label.level >= xLabelsLevel;
+            final boolean show = level >= xLabelsLevel;
+
+            XLabel label = xLabels.get(i);
+
+            if (label == null) {
+                label = obtainXLabel(i);
+                xLabels.put(i, label);
+
+                // If label was already in range then it was hidden, animating it from hidden state
+                if (xLabelsFrom <= i && i <= xLabelsTo) {
+                    label.state.setTo(0f);
+                }
+            }
 
             if (label.state.isSet()) {
                 label.state.update(now);
@@ -555,13 +1000,16 @@ public class ChartView extends BaseChartView {
                 label.state.setTo(show ? 1f : 0f);
             }
         }
+
+        xLabelsFrom = fromX;
+        xLabelsTo = toX;
     }
 
     private void setYGuidesVisibility(long now) {
         yGuides.state.update(now);
 
-        for (YGuides guides : yGuidesOld) {
-            guides.state.update(now);
+        for (int i = 0, size = yGuidesOld.size(); i < size; i++) {
+            yGuidesOld.get(i).state.update(now);
         }
     }
 
@@ -569,12 +1017,18 @@ public class ChartView extends BaseChartView {
         if (popupAdapterX == null) {
             return;
         }
+        frameMetrics.begin(FrameMetrics.SECTION_POPUP);
         if (selectedChartX != -1) {
+            final boolean wasAnimating = popupAdapterX.isAnimating();
             updatePosOfPopupX();
             popupAdapterX.show(chart, getSourcesVisibility(), selectedChartX);
+            if (!wasAnimating && popupAdapterX.isAnimating()) {
+                requestAnimation(); // Popup shift is animated on chart frames
+            }
         } else {
             popupAdapterX.hide();
         }
+        frameMetrics.end(FrameMetrics.SECTION_POPUP);
     }
 
     private void updatePosOfPopupX() {
@@ -593,6 +1047,7 @@ public class ChartView extends BaseChartView {
         if (popupAdapterSource == null) {
             return;
         }
+        frameMetrics.begin(FrameMetrics.SECTION_POPUP);
         if (selectedSourceInd != -1) {
             updatePosOfPopupSource();
             popupAdapterSource.show(
@@ -600,6 +1055,7 @@ public class ChartView extends BaseChartView {
         } else {
             popupAdapterSource.hide();
         }
+        frameMetrics.end(FrameMetrics.SECTION_POPUP);
     }
 
     private void updatePosOfPopupSource() {
@@ -611,6 +1067,57 @@ public class ChartView extends BaseChartView {
     }
 
 
+    @Override
+    protected void onSizeChanged(int width, int height, int oldWidth, int oldHeight) {
+        chartTiles.release();
+        super.onSizeChanged(width, height, oldWidth, oldHeight);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        chartTiles.release();
+        stopFling();
+    }
+
+    @Override
+    public void releaseCaches() {
+        super.releaseCaches();
+        chartTiles.release();
+
+        if (isPaused()) {
+            // X labels will be created again once chart is resumed
+            releaseXLabels();
+        }
+        labelsTextCache.clear();
+    }
+
+    @Override
+    void drawChart(Canvas canvas) {
+        // Tiles can only be used if chart is not animating and is only moved horizontally.
+        // Selected point is drawn by painters, so we can't use tiles in this case as well.
+        final boolean useTiles = !isChartAnimating()
+                && !hasChartMatrixExtra()
+                && selectedChartX == -1
+                && chart.type != Chart.Type.PIE;
+
+        final boolean drawn = useTiles && chartTiles.draw(
+                canvas,
+                lod,
+                matrix,
+                getChartPosition(),
+                chartRange,
+                xRangeExt,
+                sourcesStatesValues,
+                getWidth(),
+                getHeight()
+        );
+
+        if (!drawn) {
+            super.drawChart(canvas);
+        }
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
@@ -621,19 +1128,23 @@ public class ChartView extends BaseChartView {
 
         final Rect pos = getChartPosition();
 
+        frameMetrics.begin(FrameMetrics.SECTION_LABELS);
+
         // Drawing old and current Y guides
-        for (YGuides guides : yGuidesOld) {
-            drawYGuides(canvas, guides, pos.left, pos.right);
+        for (int i = 0, size = yGuidesOld.size(); i < size; i++) {
+            drawYGuides(canvas, yGuidesOld.get(i), pos.left, pos.right);
         }
         drawYGuides(canvas, yGuides, pos.left, pos.right);
 
         // Drawing old and current Y labels, drawing X labels
-        for (YGuides guides : yGuidesOld) {
-            drawYLabels(canvas, guides, pos.left, pos.right);
+        for (int i = 0, size = yGuidesOld.size(); i < size; i++) {
+            drawYLabels(canvas, yGuidesOld.get(i), pos.left, pos.right);
         }
         drawYLabels(canvas, yGuides, pos.left, pos.right);
 
         drawXLabels(canvas, pos.left, pos.right);
+
+        frameMetrics.end(FrameMetrics.SECTION_LABELS);
     }
 
     private void drawYGuides(Canvas canvas, YGuides guides, float left, float right) {
@@ -690,21 +1201,22 @@ public class ChartView extends BaseChartView {
 
         for (int i = 0, size = titles.length; i < size; i++) {
             final float posYShifted = posY[i] - yLabelMarginBottom;
-            canvas.drawText(titles[i], posX, posYShifted, yLabelPaint);
+            labelsTextCache.draw(canvas, titles[i], posX, posYShifted, yLabelPaint);
         }
     }
 
 
     private void drawXLabels(Canvas canvas, float left, float right) {
-        if (xLabels.isEmpty()) {
-            return; // No X labels needed
-        }
-
         final int fromExtX = (int) Math.ceil(xRangeExt.from);
         final int toExtX = (int) Math.floor(xRangeExt.to);
 
-        for (int i = fromExtX; i <= toExtX; i++) {
-            final XLabel label = xLabels.get(i);
+        for (int i = 0, size = xLabels.size(); i < size; i++) {
+            final int pos = xLabels.keyAt(i);
+            final XLabel label = xLabels.valueAt(i);
+
+            if (pos < fromExtX || pos > toExtX) {
+                continue;
+            }
 
             // Ignoring unset and invisible labels
             if (!label.state.isSet() || label.state.get() == 0f) {
@@ -712,13 +1224,13 @@ public class ChartView extends BaseChartView {
             }
 
             // Ignoring labels from deeper levels, to avoid labels stacking
-            if (xLabelsLevel > 2f * label.level) {
+            if (xLabelsLevel > 2f * xLabelsLevels[pos]) {
                 continue;
             }
 
-            drawXDot(canvas, i, left, right, label.state.get());
+            drawXDot(canvas, pos, left, right, label.state.get());
 
-            drawXLabel(canvas, label, i, left, right);
+            drawXLabel(canvas, label, pos, left, right);
         }
     }
 
@@ -735,9 +1247,11 @@ public class ChartView extends BaseChartView {
     }
 
     private void drawXLabel(Canvas canvas, XLabel label, int pos, float left, float right) {
+        final float level = xLabelsLevels[pos];
+
         // Getting indexes of nearby labels of same or higher level
-        final int prev = findNeighbourLabel(xLabels, pos, -1);
-        final int next = findNeighbourLabel(xLabels, pos, 1);
+        final int prev = findNeighbourLabel(xLabelsLevels, pos, -1);
+        final int next = findNeighbourLabel(xLabelsLevels, pos, 1);
 
         // Calculating uniform label position (since distances between labels may not be equal)
         final float posUneven = prev == -1 || next == -1 ? pos : 0.5f * (prev + next);
@@ -745,14 +1259,14 @@ public class ChartView extends BaseChartView {
         // Although posUneven allows nice labels distribution we still have to switch
         // to a real position at some point to make a room for the labels to appear
         final float posAdjusted;
-        if (xLabelsLevel <= 0.5f * label.level) {
+        if (xLabelsLevel <= 0.5f * level) {
             posAdjusted = pos;
-        } else if (xLabelsLevel >= 0.66f * label.level) {
+        } else if (xLabelsLevel >= 0.66f * level) {
             posAdjusted = posUneven;
         } else {
             // Interpolating between pos and posUneven
             posAdjusted =
-                    pos + (xLabelsLevel / label.level - 0.5f) * (posUneven - pos) / (0.66f - 0.5f);
+                    pos + (xLabelsLevel / level - 0.5f) * (posUneven - pos) / (0.66f - 0.5f);
         }
 
         final float labelPosX = ChartMath.mapX(matrix, posAdjusted);
@@ -771,20 +1285,20 @@ public class ChartView extends BaseChartView {
         }
 
         // Calculating alpha so that disappearing labels are not stacking
-        final float stackState = label.level >= xLabelsLevel ? 1f : 2f - xLabelsLevel / label.level;
+        final float stackState = level >= xLabelsLevel ? 1f : 2f - xLabelsLevel / level;
 
         final float alpha = label.state.get()
                 * Math.max(0f, edgeState)
                 * Math.max(0f, Math.min(stackState * stackState, 1f));
 
         xLabelPaint.setAlpha(Math.round(labelMaxAlpha * alpha));
-        canvas.drawText(label.title, labelPosXShifted, labelPosY, xLabelPaint);
+        labelsTextCache.draw(canvas, label.title, labelPosXShifted, labelPosY, xLabelPaint);
     }
 
-    private static int findNeighbourLabel(List<XLabel> labels, int from, int direction) {
-        final float currLevel = labels.get(from).level;
-        for (int i = from + direction, size = labels.size(); 0 <= i && i < size; i += direction) {
-            final float level = labels.get(i).level;
+    private static int findNeighbourLabel(float[] levels, int from, int direction) {
+        final float currLevel = levels[from];
+        for (int i = from + direction, size = levels.length; 0 <= i && i < size; i += direction) {
+            final float level = levels[i];
             if (level >= currLevel) {
                 return i;
             }
@@ -795,13 +1309,11 @@ public class ChartView extends BaseChartView {
 
     private static class XLabel {
         final String title;
-        final float level;
         final float width;
         final AnimatedState state = new AnimatedState();
 
-        XLabel(String title, float level, float width) {
+        XLabel(String title, float width) {
             this.title = title;
-            this.level = level;
             this.width = width;
         }
     }
@@ -832,39 +1344,96 @@ public class ChartView extends BaseChartView {
     }
 
 
+    /**
+     * Receives X ranges requested by zoom and fling gestures, listener is responsible for
+     * applying them with {@link #setRange(float, float, boolean, boolean)}.
+     */
+    interface OnRangeRequestListener {
+        void onRangeRequested(float fromX, float toX);
+
+        void onRangeRequestsFinished();
+    }
+
     public static abstract class PopupAdapterX<T extends PopupViewHolder>
             extends PopupAdapterBase<T> {
 
-        private float shiftLeft;
+        private final AnimatedState shiftState = new AnimatedState();
+        private float shiftFrom;
+        private float shiftTo = Float.NaN;
 
         protected abstract void bindView(
                 T holder, Chart chart, boolean[] visibilities, int index, boolean animate);
 
+        /**
+         * Highlights given source in the popup, -1 if nothing should be highlighted.
+         */
+        protected void bindHighlight(T holder, Chart chart, int source) {}
+
         void show(Chart chart, boolean[] visibilities, int index) {
             bindView(holder, chart, visibilities, index, shown);
             show();
         }
 
+        @Override
+        void init(ViewGroup parent, Chart chart) {
+            super.init(parent, chart);
+            // Popup is positioned with translation only, see setPosition()
+            ((MarginLayoutParams) holder.itemView.getLayoutParams()).leftMargin = 0;
+        }
+
+        void highlight(Chart chart, int source) {
+            if (holder != null) {
+                bindHighlight(holder, chart, source);
+            }
+        }
+
+        /**
+         * Moves popup to given position using translation only, so that popup is moved without
+         * layout passes. Popup is shifted by given fraction of its width, shift changes are
+         * animated, see {@link #isAnimating()}.
+         */
         void setPosition(float left, float leftShift) {
-            ((MarginLayoutParams) holder.itemView.getLayoutParams()).leftMargin = Math.round(left);
-            holder.itemView.requestLayout();
-
-            final float newShiftLeft = -holder.itemView.getWidth() * leftShift;
-            if (shiftLeft != newShiftLeft) {
-                shiftLeft = newShiftLeft;
-                if (shown) {
-                    holder.itemView.animate().translationX(shiftLeft);
+            final View view = holder.itemView;
+            final int width = view.getLayoutParams().width > 0
+                    ? view.getLayoutParams().width : view.getWidth();
+            final float newShiftLeft = -width * leftShift;
+            final long now = AnimatedState.now();
+
+            if (shiftTo != newShiftLeft) {
+                if (shown && shiftState.isSet()) {
+                    // Animating from current shift
+                    shiftState.update(now);
+                    shiftFrom = getShift();
+                    shiftState.setTo(0f);
+                    shiftState.animateTo(1f, now);
                 } else {
-                    holder.itemView.animate().cancel();
-                    holder.itemView.setTranslationX(shiftLeft);
+                    shiftFrom = newShiftLeft;
+                    shiftState.setTo(1f);
                 }
+                shiftTo = newShiftLeft;
             }
+
+            shiftState.update(now);
+            view.setTranslationX(left + getShift());
+        }
+
+        /**
+         * Whether shift change is still animated, popup position should be updated on each frame
+         * until the animation is finished.
+         */
+        boolean isAnimating() {
+            return holder != null && !shiftState.isFinished();
+        }
+
+        private float getShift() {
+            return shiftFrom + (shiftTo - shiftFrom) * shiftState.get();
         }
 
         @Override
         void clear() {
             super.clear();
-            shiftLeft = 0f;
+            shiftState.reset();
+            shiftTo = Float.NaN;
         }
     }
 
@@ -879,15 +1448,63 @@ public class ChartView extends BaseChartView {
             show();
         }
 
+        private final Rect containerPos = new Rect();
+        private final Rect popupPos = new Rect();
+        private int gravity = Gravity.NO_GRAVITY;
+
+        @Override
+        void init(ViewGroup parent, Chart chart) {
+            super.init(parent, chart);
+            // Translation depends on popup and parent sizes, updating it once they are known
+            holder.itemView.addOnLayoutChangeListener(
+                    (view, l, t, r, b, oldL, oldT, oldR, oldB) -> applyGravity(false));
+        }
+
+        /**
+         * Moves popup to given position within parent using translation only, instead of
+         * changing layout gravity which requires a layout pass.
+         */
         void setPosition(int gravity) {
-            ((LayoutParams) holder.itemView.getLayoutParams()).gravity = gravity;
-            parent.requestLayout();
+            if (this.gravity != gravity) {
+                final boolean animate = shown && this.gravity != Gravity.NO_GRAVITY;
+                this.gravity = gravity;
+                applyGravity(animate);
+            }
+        }
 
-            if (Build.VERSION.SDK_INT >= 19) {
-                AutoTransition transition = new AutoTransition();
-                transition.setDuration(ANIMATION_DURATION);
-                TransitionManager.beginDelayedTransition(parent, transition);
+        private void applyGravity(boolean animate) {
+            final View view = holder.itemView;
+            if (gravity == Gravity.NO_GRAVITY || view.getWidth() == 0) {
+                return; // Will be applied once popup is laid out
             }
+
+            final MarginLayoutParams params = (MarginLayoutParams) view.getLayoutParams();
+            containerPos.set(
+                    parent.getPaddingLeft() + params.leftMargin,
+                    parent.getPaddingTop() + params.topMargin,
+                    parent.getWidth() - parent.getPaddingRight() - params.rightMargin,
+                    parent.getHeight() - parent.getPaddingBottom() - params.bottomMargin
+            );
+            Gravity.apply(gravity, view.getWidth(), view.getHeight(), containerPos, popupPos);
+
+            final float translationX = popupPos.left - view.getLeft();
+            final float translationY = popupPos.top - view.getTop();
+
+            if (animate) {
+                view.animate()
+                        .setDuration(ANIMATION_DURATION)
+                        .translationX(translationX)
+                        .translationY(translationY);
+            } else {
+                view.setTranslationX(translationX);
+                view.setTranslationY(translationY);
+            }
+        }
+
+        @Override
+        void clear() {
+            super.clear();
+            gravity = Gravity.NO_GRAVITY;
         }
     }
 
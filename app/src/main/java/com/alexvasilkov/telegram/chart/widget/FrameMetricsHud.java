@@ -0,0 +1,85 @@
+package com.alexvasilkov.telegram.chart.widget;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.TypedValue;
+
+import com.alexvasilkov.telegram.chart.utils.FrameMetrics;
+import com.alexvasilkov.telegram.chart.utils.TextBuffer;
+
+/**
+ * Draws collected {@link FrameMetrics} on top of the chart, without allocating any objects.
+ */
+class FrameMetricsHud {
+
+    private static final int TEXT_SIZE = 10; // sp
+    private static final int BACKGROUND_COLOR = Color.argb(160, 0, 0, 0);
+
+    private final FrameMetrics metrics;
+    private final FrameMetrics.Snapshot snapshot = new FrameMetrics.Snapshot();
+
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint backgroundPaint = new Paint();
+    private final TextBuffer text = new TextBuffer(64);
+
+    private final float padding;
+
+    FrameMetricsHud(Context context, FrameMetrics metrics) {
+        this.metrics = metrics;
+
+        final float textSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP,
+                TEXT_SIZE, context.getResources().getDisplayMetrics());
+
+        textPaint.setTextSize(textSize);
+        textPaint.setColor(Color.WHITE);
+        backgroundPaint.setColor(BACKGROUND_COLOR);
+        padding = 0.5f * textSize;
+    }
+
+    void draw(Canvas canvas, float left, float top) {
+        metrics.getSnapshot(snapshot);
+
+        final float lineHeight = textPaint.getFontSpacing();
+        final float width = textPaint.measureText("upd 00.00 draw 00.00 lbl 00.00 pop 00.00");
+        canvas.drawRect(left, top, left + width + 2f * padding,
+                top + 3f * lineHeight + 2f * padding, backgroundPaint);
+
+        final float x = left + padding;
+        float y = top + padding - textPaint.ascent();
+
+        text.clear()
+                .append("fps ").appendFixed(snapshot.getFps(), 0)
+                .append("  avg ").appendFixed(snapshot.getAverageFrameTime(), 1)
+                .append("  p95 ").append(snapshot.getFrameTimePercentile(0.95f))
+                .append(" ms");
+        drawLine(canvas, x, y);
+        y += lineHeight;
+
+        text.clear()
+                .append("frames ").append(snapshot.getFramesCount())
+                .append("  >").append(FrameMetrics.JANK_TIME).append(": ")
+                .append(snapshot.getJankFrames())
+                .append("  >").append(FrameMetrics.BIG_JANK_TIME).append(": ")
+                .append(snapshot.getBigJankFrames());
+        drawLine(canvas, x, y);
+        y += lineHeight;
+
+        text.clear()
+                .append("upd ").appendFixed(avg(FrameMetrics.SECTION_UPDATE), 2)
+                .append(" draw ").appendFixed(avg(FrameMetrics.SECTION_DRAW), 2)
+                .append(" lbl ").appendFixed(avg(FrameMetrics.SECTION_LABELS), 2)
+                .append(" pop ").appendFixed(avg(FrameMetrics.SECTION_POPUP), 2);
+        drawLine(canvas, x, y);
+    }
+
+    private float avg(int section) {
+        return snapshot.getAverageSectionTime(section);
+    }
+
+    private void drawLine(Canvas canvas, float x, float y) {
+        canvas.drawText(text.chars(), 0, text.length(), x, y, textPaint);
+    }
+
+}
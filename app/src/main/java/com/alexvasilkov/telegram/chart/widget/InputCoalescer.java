@@ -0,0 +1,66 @@
+package com.alexvasilkov.telegram.chart.widget;
+
+import android.view.View;
+
+import com.alexvasilkov.telegram.chart.utils.ChartAnimator;
+
+/**
+ * Defers touch input handling until the next frame of the shared animation clock, so that touch
+ * movements accumulated between frames are applied at once. Touch screens can deliver several
+ * move events per frame, handling each of them separately would only multiply per-frame work.
+ * <p>
+ * Callers accumulate movements on their own and call {@link #schedule()}, accumulated movements
+ * should be applied by the action.
+ * <p>
+ * Historical samples of batched move events are not needed here: scroll distances reported by
+ * {@link android.view.GestureDetector} are measured between consecutive events' current
+ * positions, so their sum is the same total movement as the sum over all historical samples.
+ * Zoom is applied from the latest fingers positions, intermediate positions do not change
+ * the resulting range. Fling velocity is computed by {@link android.view.VelocityTracker},
+ * which consumes historical samples itself.
+ */
+class InputCoalescer {
+
+    private final ChartAnimator animator;
+    private final Runnable action;
+    private boolean pending;
+
+    InputCoalescer(View view, Runnable action) {
+        this.animator = new ChartAnimator(view, this::onFrame);
+        this.action = action;
+    }
+
+    void schedule() {
+        if (!pending) {
+            pending = true;
+            animator.start();
+        }
+    }
+
+    /**
+     * Applies pending input immediately, e.g. once touch is released.
+     */
+    void flush() {
+        if (pending) {
+            pending = false;
+            animator.stop();
+            action.run();
+        }
+    }
+
+    void cancel() {
+        if (pending) {
+            pending = false;
+            animator.stop();
+        }
+    }
+
+    private boolean onFrame(long now) {
+        if (pending) {
+            pending = false;
+            action.run();
+        }
+        return false;
+    }
+
+}
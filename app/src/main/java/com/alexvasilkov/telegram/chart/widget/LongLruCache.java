@@ -0,0 +1,178 @@
+package com.alexvasilkov.telegram.chart.widget;
+
+import java.util.Arrays;
+
+/**
+ * Least recently used cache with primitive long keys, unlike {@link android.util.LruCache} it
+ * does not box keys on each lookup. Holds at most given number of entries, entries storage is
+ * allocated once on creation.
+ */
+class LongLruCache<V> {
+
+    private final int capacity;
+
+    private final long[] keys;
+    private final Object[] values;
+
+    // Entries usage order, from least recently used (head) to most recently used (tail)
+    private final int[] prev;
+    private final int[] next;
+    private int head = -1;
+    private int tail = -1;
+
+    // Hash buckets, each holding a chain of entries. Chains of unused entries form a free list.
+    private final int[] buckets;
+    private final int[] chain;
+    private final int mask;
+    private int free;
+
+    private int size;
+
+    LongLruCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity should be positive");
+        }
+
+        this.capacity = capacity;
+
+        keys = new long[capacity];
+        values = new Object[capacity];
+        prev = new int[capacity];
+        next = new int[capacity];
+        chain = new int[capacity];
+
+        buckets = new int[Integer.highestOneBit(2 * capacity - 1) << 1];
+        mask = buckets.length - 1;
+        Arrays.fill(buckets, -1);
+
+        for (int i = 0; i < capacity; i++) {
+            chain[i] = i + 1 < capacity ? i + 1 : -1;
+        }
+        free = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        final int entry = find(key);
+        if (entry == -1) {
+            return null;
+        }
+        moveToTail(entry);
+        return (V) values[entry];
+    }
+
+    void put(long key, V value) {
+        int entry = find(key);
+
+        if (entry != -1) {
+            values[entry] = value;
+            moveToTail(entry);
+            return;
+        }
+
+        if (size == capacity) {
+            removeEntry(head);
+        }
+
+        // Taking unused entry from the free list
+        entry = free;
+        free = chain[entry];
+
+        keys[entry] = key;
+        values[entry] = value;
+
+        final int bucket = bucket(key);
+        chain[entry] = buckets[bucket];
+        buckets[bucket] = entry;
+
+        linkToTail(entry);
+        size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        final int entry = find(key);
+        if (entry == -1) {
+            return null;
+        }
+        final V value = (V) values[entry];
+        removeEntry(entry);
+        return value;
+    }
+
+    void evictAll() {
+        while (head != -1) {
+            removeEntry(head);
+        }
+    }
+
+
+    private int find(long key) {
+        for (int entry = buckets[bucket(key)]; entry != -1; entry = chain[entry]) {
+            if (keys[entry] == key) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private void removeEntry(int entry) {
+        // Removing from bucket chain
+        final int bucket = bucket(keys[entry]);
+        if (buckets[bucket] == entry) {
+            buckets[bucket] = chain[entry];
+        } else {
+            int current = buckets[bucket];
+            while (chain[current] != entry) {
+                current = chain[current];
+            }
+            chain[current] = chain[entry];
+        }
+
+        unlink(entry);
+        values[entry] = null;
+
+        // Returning entry to the free list
+        chain[entry] = free;
+        free = entry;
+        size--;
+    }
+
+    private void moveToTail(int entry) {
+        if (entry != tail) {
+            unlink(entry);
+            linkToTail(entry);
+        }
+    }
+
+    private void linkToTail(int entry) {
+        prev[entry] = tail;
+        next[entry] = -1;
+        if (tail == -1) {
+            head = entry;
+        } else {
+            next[tail] = entry;
+        }
+        tail = entry;
+    }
+
+    private void unlink(int entry) {
+        if (prev[entry] == -1) {
+            head = next[entry];
+        } else {
+            next[prev[entry]] = next[entry];
+        }
+        if (next[entry] == -1) {
+            tail = prev[entry];
+        } else {
+            prev[next[entry]] = prev[entry];
+        }
+    }
+
+    private int bucket(long key) {
+        int hash = (int) (key ^ (key >>> 32));
+        hash ^= hash >>> 16;
+        return hash & mask;
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.alexvasilkov.telegram.chart.widget;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.Chart.Source;
+import com.alexvasilkov.telegram.chart.widget.painter.Painter;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Chart with painters created in advance for both {@link ChartFinderView} and attached
+ * {@link ChartView}. Painters precomputations (independent sources scales, levels of detail,
+ * finder's full-range geometry and buffers) can be done on a background thread using
+ * {@link #prepare(Chart, Listener)}, so that UI thread only needs to swap references once
+ * chart is set with {@link ChartFinderView#setChart(PreparedChart)}.
+ */
+public class PreparedChart {
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final Chart chart;
+
+    final Chart baseChart;
+    final ChartLod baseLod;
+
+    final Chart finderChart;
+    final ChartLod finderLod;
+
+    private PreparedChart(
+            Chart chart, Chart baseChart, Chart finderChart, boolean prepareGeometry) {
+        this.chart = chart;
+        this.baseChart = baseChart;
+        this.finderChart = finderChart;
+
+        baseLod = ChartLod.create(baseChart, Painter.create(baseChart));
+        finderLod = ChartLod.create(finderChart, Painter.create(finderChart));
+
+        if (prepareGeometry) {
+            // Finder always shows entire chart with all sources visible by default
+            final float[] states = new float[finderChart.sources.length];
+            Arrays.fill(states, 1f);
+            finderLod.prepare(states);
+        }
+    }
+
+    /**
+     * Returns original chart.
+     */
+    public Chart getChart() {
+        return chart;
+    }
+
+    /**
+     * Prepares given chart on a background thread, listener is called on the main thread.
+     */
+    public static void prepare(Chart chart, Listener listener) {
+        executor.submit(() -> {
+            final PreparedChart prepared = create(chart, true);
+            mainHandler.post(() -> listener.onPrepared(prepared));
+        });
+    }
+
+    /**
+     * Creates painters on current thread without any extra precomputations.
+     */
+    static PreparedChart create(Chart chart) {
+        return create(chart, false);
+    }
+
+    private static PreparedChart create(Chart chart, boolean prepareGeometry) {
+        final Chart baseChart = createBaseChart(chart);
+
+        // We can't draw PIE type in preview, we'll drawing square area instead where
+        // each interval emulates a single value in original chart
+        final Chart finderChart = chart.type == Chart.Type.PIE
+                ? baseChart.setType(Chart.Type.AREA_SQUARE) : baseChart;
+
+        return new PreparedChart(chart, baseChart, finderChart, prepareGeometry);
+    }
+
+    /**
+     * Returns chart to be drawn by {@link ChartView}, PIE charts need an extra point in the end
+     * since their finder view is drawing each value as an interval, see {@link #create(Chart)}.
+     */
+    static Chart createBaseChart(Chart chart) {
+        if (chart.type != Chart.Type.PIE) {
+            return chart;
+        }
+
+        final int newSize = chart.x.length + 1;
+        final long[] x = Arrays.copyOf(chart.x, newSize);
+        final Source[] sources = new Source[chart.sources.length];
+
+        for (int i = 0; i < sources.length; i++) {
+            final int[] y = Arrays.copyOf(chart.sources[i].y, newSize);
+            sources[i] = chart.sources[i].setY(y);
+        }
+
+        return chart.setX(x).setSources(sources);
+    }
+
+
+    public interface Listener {
+        void onPrepared(PreparedChart chart);
+    }
+
+}
@@ -0,0 +1,322 @@
+package com.alexvasilkov.telegram.chart.widget;
+
+import android.content.Context;
+import android.graphics.Matrix;
+import android.graphics.Rect;
+import android.os.Debug;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.utils.AllocationAudit;
+import com.alexvasilkov.telegram.chart.utils.ChartMath;
+import com.alexvasilkov.telegram.chart.utils.Range;
+import com.alexvasilkov.telegram.chart.widget.painter.Painter;
+import com.alexvasilkov.telegram.chart.widget.painter.RecordingTarget;
+import com.alexvasilkov.telegram.chart.widget.style.ChartStyle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Replays a scripted sequence of pans, zooms and sources toggles using the same range math as
+ * {@link BaseChartView}, drawing charts into {@link RecordingTarget}. Reports CPU time, emitted
+ * primitives and allocated bytes per frame for both regular and simplified drawing modes.
+ * <p>
+ * Painters rely on Android's {@link Matrix} and {@link android.graphics.Path}, so the harness
+ * should be run within Android runtime, but no actual rendering is done.
+ */
+public class RenderHarness {
+
+    private final ChartStyle style;
+    private final Rect chartPos;
+
+    private final RecordingTarget target = new RecordingTarget();
+    private final Matrix matrix = new Matrix();
+    private final Range chartRange = new Range();
+    private final Range xRange = new Range();
+    private final Range yRange = new Range();
+
+    public RenderHarness(Context context, int width, int height) {
+        style = new ChartStyle(context, null);
+        chartPos = new Rect(0, 0, width, height);
+    }
+
+    /**
+     * Runs given scenario for the chart in both regular and simplified modes. Each run uses a
+     * fresh painter and is preceded by a warm up run.
+     */
+    public List<Result> run(Chart chart, Scenario scenario) {
+        final List<Result> results = new ArrayList<>(2);
+        for (boolean simplified : new boolean[] { false, true }) {
+            run(chart, scenario, simplified); // Warm up
+            results.add(run(chart, scenario, simplified));
+        }
+        return results;
+    }
+
+    @SuppressWarnings("deprecation") // There is no other public API to count allocations
+    private Result run(Chart chart, Scenario scenario, boolean simplified) {
+        // Only base painter is measured, finder painter and levels painters are not needed
+        final Chart baseChart = PreparedChart.createBaseChart(chart);
+        final Painter painter = Painter.create(baseChart);
+        painter.applyStyle(style);
+
+        final int sourcesCount = chart.sources.length;
+        final float[] states = new float[sourcesCount];
+        final boolean[] visibility = new boolean[sourcesCount];
+        Arrays.fill(states, 1f);
+        Arrays.fill(visibility, true);
+
+        final int size = baseChart.x.length;
+        chartRange.set(0f, size - 1f);
+        scenario.start(chartRange, xRange);
+
+        final Result result = new Result(chart, painter, simplified);
+
+        // Counting may already be started by allocation audit, it should not be stopped here
+        AllocationAudit.startDebugCounting();
+        try {
+            for (Step step : scenario.steps) {
+                for (int frame = 1; frame <= step.frames; frame++) {
+                    final float progress = frame / (float) step.frames;
+                    step.apply(chartRange, xRange, states, visibility, progress);
+
+                    final long startTime = Debug.threadCpuTimeNanos();
+                    final long startAllocs = Debug.getThreadAllocSize();
+                    target.reset();
+
+                    drawFrame(painter, states, visibility, simplified);
+
+                    final long allocated = Debug.getThreadAllocSize() - startAllocs;
+                    final long time = Debug.threadCpuTimeNanos() - startTime;
+                    result.addFrame(time, allocated, target);
+                }
+            }
+        } finally {
+            AllocationAudit.stopDebugCounting();
+        }
+
+        painter.releaseCache();
+        return result;
+    }
+
+    private void drawFrame(
+            Painter painter, float[] states, boolean[] visibility, boolean simplified) {
+        // Same as in BaseChartView: computing Y range for X range and setting up the matrix
+        final int from = (int) Math.floor(chartRange.fit(xRange.from));
+        final int to = (int) Math.ceil(chartRange.fit(xRange.to));
+
+        painter.calculateYRange(yRange, from, to, visibility);
+        if (yRange.from >= yRange.to) {
+            yRange.to = yRange.from + 1f; // Ensure Y range has at lest 2 points
+        }
+
+        ChartMath.setChartMatrix(matrix, chartPos, xRange, yRange);
+
+        painter.draw(target, chartPos, matrix, from, to, states, -1, simplified);
+    }
+
+
+    /**
+     * Scripted sequence of chart interactions. Visible range starts at the end of the chart and
+     * spans given fraction of the chart.
+     */
+    public static class Scenario {
+        private final float startFraction;
+        private final List<Step> steps = new ArrayList<>();
+
+        public Scenario(float startFraction) {
+            this.startFraction = startFraction;
+        }
+
+        /**
+         * Pans visible range by given number of screens during given number of frames.
+         */
+        public Scenario pan(float screens, int frames) {
+            steps.add(new Step(Step.PAN, screens, -1, frames));
+            return this;
+        }
+
+        /**
+         * Zooms visible range by given factor (> 1 to zoom in) around its center during given
+         * number of frames.
+         */
+        public Scenario zoom(float factor, int frames) {
+            steps.add(new Step(Step.ZOOM, factor, -1, frames));
+            return this;
+        }
+
+        /**
+         * Toggles visibility of the source during given number of frames. Source index is
+         * wrapped around actual number of sources.
+         */
+        public Scenario toggle(int source, int frames) {
+            steps.add(new Step(Step.TOGGLE, 0f, source, frames));
+            return this;
+        }
+
+        void start(Range chartRange, Range xRange) {
+            final float size = Math.max(startFraction * chartRange.size(), 2f);
+            xRange.set(chartRange.to - size + 1f, chartRange.to);
+            for (Step step : steps) {
+                step.reset();
+            }
+        }
+
+        /**
+         * Default scenario: panning back and forth, zooming out and in, hiding and showing
+         * a source.
+         */
+        public static Scenario createDefault() {
+            return new Scenario(0.1f)
+                    .pan(-2f, 60)
+                    .pan(2f, 60)
+                    .zoom(0.25f, 60)
+                    .zoom(4f, 60)
+                    .toggle(0, 30)
+                    .toggle(0, 30);
+        }
+    }
+
+    private static class Step {
+        static final int PAN = 0;
+        static final int ZOOM = 1;
+        static final int TOGGLE = 2;
+
+        final int type;
+        final float amount;
+        final int source;
+        final int frames;
+
+        final Range startRange = new Range();
+        boolean started;
+
+        Step(int type, float amount, int source, int frames) {
+            this.type = type;
+            this.amount = amount;
+            this.source = source;
+            this.frames = Math.max(frames, 1);
+        }
+
+        void reset() {
+            started = false;
+        }
+
+        void apply(
+                Range chartRange, Range xRange,
+                float[] states, boolean[] visibility,
+                float progress
+        ) {
+            if (!started) {
+                started = true;
+                startRange.set(xRange);
+                if (type == TOGGLE) {
+                    final int ind = source % visibility.length;
+                    visibility[ind] = !visibility[ind];
+                }
+            }
+
+            final float size = startRange.size();
+            final float center = 0.5f * (startRange.from + startRange.to);
+
+            switch (type) {
+                case PAN: {
+                    final float shift = amount * (size - 1f) * progress;
+                    final float from = Math.max(chartRange.from,
+                            Math.min(startRange.from + shift, chartRange.to - size + 1f));
+                    xRange.set(from, from + size - 1f);
+                    break;
+                }
+                case ZOOM: {
+                    final float factor = (float) Math.pow(amount, progress);
+                    final float newSize = Math.min(
+                            Math.max((size - 1f) / factor, 1f), chartRange.size() - 1f);
+                    final float from = Math.max(chartRange.from,
+                            Math.min(center - 0.5f * newSize, chartRange.to - newSize));
+                    xRange.set(from, from + newSize);
+                    break;
+                }
+                case TOGGLE: {
+                    final int ind = source % states.length;
+                    states[ind] = visibility[ind] ? progress : 1f - progress;
+                    break;
+                }
+            }
+
+            if (progress == 1f) {
+                reset();
+            }
+        }
+    }
+
+
+    public static class Result {
+        public final int chartId;
+        public final String painter;
+        public final boolean simplified;
+
+        private int frames;
+        private long totalTime;
+        private long maxTime;
+        private long totalAllocated;
+        private long totalPrimitives;
+        private long totalCalls;
+
+        Result(Chart chart, Painter painter, boolean simplified) {
+            this.chartId = chart.id;
+            this.painter = painter.getClass().getSimpleName();
+            this.simplified = simplified;
+        }
+
+        void addFrame(long time, long allocated, RecordingTarget target) {
+            frames++;
+            totalTime += time;
+            maxTime = Math.max(maxTime, time);
+            totalAllocated += allocated;
+            totalPrimitives += target.getPrimitives();
+            totalCalls += target.getCalls();
+        }
+
+        public int getFrames() {
+            return frames;
+        }
+
+        /**
+         * Average CPU time per frame, in microseconds.
+         */
+        public float getAverageTime() {
+            return frames == 0 ? 0f : totalTime / 1000f / frames;
+        }
+
+        /**
+         * Max CPU time per frame, in microseconds.
+         */
+        public float getMaxTime() {
+            return maxTime / 1000f;
+        }
+
+        public float getAveragePrimitives() {
+            return frames == 0 ? 0f : totalPrimitives / (float) frames;
+        }
+
+        public float getAverageCalls() {
+            return frames == 0 ? 0f : totalCalls / (float) frames;
+        }
+
+        public float getAverageAllocatedBytes() {
+            return frames == 0 ? 0f : totalAllocated / (float) frames;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "Chart %d, %s (%s): %d frames, cpu avg %.0f us, max %.0f us, "
+                            + "%.0f primitives / %.0f calls, %.0f bytes allocated per frame",
+                    chartId, painter, simplified ? "simplified" : "regular", frames,
+                    getAverageTime(), getMaxTime(), getAveragePrimitives(), getAverageCalls(),
+                    getAverageAllocatedBytes());
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.alexvasilkov.telegram.chart.widget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.LruCache;
+
+/**
+ * Caches pre-rasterized texts as alpha-only bitmaps, rendered with a particular text paint config
+ * (text size and typeface). Cached texts are drawn as bitmaps tinted with paint's color and alpha,
+ * which is much cheaper than laying out and drawing the glyphs on every frame.
+ */
+class TextCache {
+
+    private static final int PADDING = 1;
+
+    private final Paint textPaint;
+    private final Rect bounds = new Rect();
+    private final Canvas canvas = new Canvas();
+
+    private final LruCache<String, Entry> cache;
+
+    TextCache(Paint paint, int maxBytes) {
+        textPaint = new Paint(paint);
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTextAlign(Paint.Align.LEFT);
+
+        cache = new LruCache<String, Entry>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, Entry entry) {
+                return entry.bitmap == null ? 1 : entry.bitmap.getByteCount();
+            }
+        };
+    }
+
+    /**
+     * Draws the text same as {@link Canvas#drawText(String, float, float, Paint)} would do.
+     * Only paint's color, alpha and text alignment are taken into account, text size and
+     * typeface should be the same as in original paint.
+     */
+    void draw(Canvas canvas, String text, float x, float y, Paint paint) {
+        Entry entry = cache.get(text);
+        if (entry == null) {
+            entry = render(text);
+            cache.put(text, entry);
+        }
+
+        if (entry.bitmap == null) {
+            return; // Nothing to draw
+        }
+
+        float left = x + entry.left;
+        switch (paint.getTextAlign()) {
+            case RIGHT:
+                left -= entry.advance;
+                break;
+            case CENTER:
+                left -= 0.5f * entry.advance;
+                break;
+            default:
+        }
+
+        // Drawing on whole pixels to keep the text sharp
+        canvas.drawBitmap(entry.bitmap, Math.round(left), Math.round(y + entry.top), paint);
+    }
+
+    void clear() {
+        cache.evictAll();
+    }
+
+    private Entry render(String text) {
+        final Entry entry = new Entry();
+        entry.advance = textPaint.measureText(text);
+
+        textPaint.getTextBounds(text, 0, text.length(), bounds);
+        if (bounds.isEmpty()) {
+            return entry;
+        }
+
+        entry.left = bounds.left - PADDING;
+        entry.top = bounds.top - PADDING;
+        entry.bitmap = Bitmap.createBitmap(
+                bounds.width() + 2 * PADDING, bounds.height() + 2 * PADDING, Bitmap.Config.ALPHA_8);
+
+        canvas.setBitmap(entry.bitmap);
+        canvas.drawText(text, -entry.left, -entry.top, textPaint);
+        canvas.setBitmap(null);
+
+        return entry;
+    }
+
+
+    private static class Entry {
+        Bitmap bitmap;
+        int left;
+        int top;
+        float advance;
+    }
+
+}
@@ -1,6 +1,5 @@
 package com.alexvasilkov.telegram.chart.widget.painter;
 
-import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Path;
@@ -21,22 +20,25 @@ class AreaPainter extends Painter {
     private final boolean square;
 
     private final Paint pathPaint = new Paint(ChartStyle.PAINT_FLAGS);
-    private final Path pathFill = new Path();
+
+    // Areas paths in chart coordinates for each source, see GeometryCache
+    private final GeometryCache geometry = new GeometryCache(true);
+    private final Path[] paths;
+    private final Path pathTransformed = new Path();
 
     private final Paint selectionPaint = new Paint();
 
     private final Matrix matrixOptimized = new Matrix();
 
-    private final float[] scales;
-    private final float[] sums;
-
     AreaPainter(Chart chart, boolean square) {
         super(chart);
 
         this.square = square;
 
-        scales = new float[chart.x.length];
-        sums = new float[chart.x.length];
+        paths = new Path[chart.sources.length];
+        for (int s = 0; s < paths.length; s++) {
+            paths[s] = new Path();
+        }
 
         pathPaint.setStyle(Paint.Style.FILL);
     }
@@ -49,6 +51,20 @@ class AreaPainter extends Painter {
         selectionPaint.setColor(style.selectionColor);
     }
 
+    @Override
+    public void prepare(int from, int to, float[] sourcesStates) {
+        prepareGeometry(from, to, sourcesStates);
+    }
+
+    @Override
+    public void releaseCache() {
+        geometry.invalidate();
+        for (Path path : paths) {
+            path.reset();
+        }
+        pathTransformed.reset();
+    }
+
 
     @Override
     public void calculateYRange(Range yRange, int from, int to, boolean[] sourcesStates) {
@@ -62,7 +78,7 @@ class AreaPainter extends Painter {
 
     @Override
     public void draw(
-            Canvas canvas,
+            DrawTarget target,
             Rect chartPos,
             Matrix matrix,
             int from,
@@ -72,7 +88,7 @@ class AreaPainter extends Painter {
             boolean simplified
     ) {
 
-        canvas.save();
+        target.save();
 
         matrixOptimized.set(matrix);
         pathPaint.setFlags(simplified ? 0 : ChartStyle.PAINT_FLAGS);
@@ -81,29 +97,58 @@ class AreaPainter extends Painter {
             // Scaling down paths and scaling up the canvas instead, reducing drawing area.
             // This trick will help old Android versions where path rendering isn't HW accelerated.
             matrixOptimized.postScale(1f / OPTIMIZATION_FACTOR, 1f / OPTIMIZATION_FACTOR);
-            canvas.scale(OPTIMIZATION_FACTOR, OPTIMIZATION_FACTOR);
+            target.scale(OPTIMIZATION_FACTOR, OPTIMIZATION_FACTOR);
         }
 
-        drawAreas(canvas, matrixOptimized, from, to, sourcesStates);
+        drawAreas(target, matrixOptimized, from, to, sourcesStates);
 
-        canvas.restore();
+        target.restore();
 
 
         // Drawing selected point line if withing visible range
         if (from <= selectedPos && selectedPos <= to) {
             float posX = ChartMath.mapX(matrix, selectedPos);
-            canvas.drawLine(posX, chartPos.top, posX, chartPos.bottom, selectionPaint);
+            target.drawLine(posX, chartPos.top, posX, chartPos.bottom, selectionPaint);
         }
     }
 
 
     private void drawAreas(
-            Canvas canvas,
+            DrawTarget target,
             Matrix matrix,
             int from,
             int to,
             float[] sourcesStates
     ) {
+        prepareGeometry(from, to, sourcesStates);
+
+        for (int s = chart.sources.length - 1; s >= 0; s--) {
+            if (sourcesStates[s] == 0f) {
+                continue; // Ignoring invisible sources
+            }
+
+            paths[s].transform(matrix, pathTransformed);
+
+            pathPaint.setColor(getSourceColor(s));
+            target.drawPath(pathTransformed, pathPaint);
+        }
+    }
+
+    /**
+     * Builds areas paths in chart coordinates, only if requested range is not yet covered by
+     * cached geometry or if sources states were changed.
+     */
+    private void prepareGeometry(int from, int to, float[] sourcesStates) {
+        if (geometry.isValid(from, to, sourcesStates)) {
+            return;
+        }
+
+        geometry.set(from, to, chart.x.length, sourcesStates);
+
+        final int geomFrom = geometry.from;
+        final int geomTo = geometry.to;
+        final int length = geometry.size();
+
         final int sourcesCount = chart.sources.length;
 
         float maxState = 0f;
@@ -115,46 +160,51 @@ class AreaPainter extends Painter {
             return; // Nothing to draw
         }
 
+        final float[] scales = buffers.scales(length);
+        final float[] sums = buffers.sums(length);
+
         // Computing Y values scales so that we always have sum = 100%
         final float total = 100f * maxState;
 
-        for (int i = from; i <= to; i++) {
+        for (int i = geomFrom; i <= geomTo; i++) {
             float sum = 0f;
 
             for (int s = 0; s < sourcesCount; s++) {
                 sum += chart.sources[s].y[i] * sourcesStates[s];
             }
 
-            scales[i] = sum == 0f ? 1f : total / sum;
+            scales[i - geomFrom] = sum == 0f ? 1f : total / sum;
         }
 
         // Starting drawing from 100%, top to bottom
-        Arrays.fill(sums, total);
+        Arrays.fill(sums, 0, length, total);
 
         for (int s = sourcesCount - 1; s >= 0; s--) {
             final Source source = chart.sources[s];
             final float state = sourcesStates[s];
+            final Path pathFill = paths[s];
+
+            pathFill.reset();
 
             if (state == 0f) {
                 continue; // Ignoring invisible sources
             }
 
-            pathFill.reset();
-
             if (s == sourcesCount - 1) {
-                pathFill.moveTo(from, total);
-                pathFill.lineTo(to, total);
+                pathFill.moveTo(geomFrom, total);
+                pathFill.lineTo(geomTo, total);
             } else {
                 // Adding next path
-                for (int i = from; i <= to; i++) {
-                    if (i == from) {
-                        pathFill.moveTo(i, sums[i]);
+                for (int i = geomFrom; i <= geomTo; i++) {
+                    final int pos = i - geomFrom;
+                    if (i == geomFrom) {
+                        pathFill.moveTo(i, sums[pos]);
                     } else {
                         if (square) {
-                            pathFill.lineTo(i, sums[i - 1]);
-                            pathFill.lineTo(i, sums[i]);
+                            pathFill.lineTo(i, sums[pos - 1]);
+                            pathFill.lineTo(i, sums[pos]);
                         } else {
-                            pathFill.lineTo(i, sums[i]);
+                            pathFill.lineTo(i, sums[pos]);
                         }
                     }
                 }
@@ -162,22 +212,18 @@ class AreaPainter extends Painter {
 
             // Calculating values for next path
             float minValue = total;
-            for (int i = to; from <= i; i--) {
-                sums[i] -= source.y[i] * state * scales[i];
-                minValue = minValue > sums[i] ? sums[i] : minValue;
+            for (int i = geomTo; geomFrom <= i; i--) {
+                final int pos = i - geomFrom;
+                sums[pos] -= source.y[i] * state * scales[pos];
+                minValue = minValue > sums[pos] ? sums[pos] : minValue;
             }
             minValue = Math.max(0f, minValue - 10f); // Few more pixels on bottom to prevent issues
 
             // Using maximum possible value for bottom line to avoid much overdraws
-            pathFill.lineTo(to, minValue);
-            pathFill.lineTo(from, minValue);
+            pathFill.lineTo(geomTo, minValue);
+            pathFill.lineTo(geomFrom, minValue);
 
             pathFill.close();
-
-            pathFill.transform(matrix);
-
-            pathPaint.setColor(getSourceColor(s));
-            canvas.drawPath(pathFill, pathPaint);
         }
     }
 
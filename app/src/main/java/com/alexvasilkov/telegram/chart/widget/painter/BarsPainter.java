@@ -1,6 +1,5 @@
 package com.alexvasilkov.telegram.chart.widget.painter;
 
-import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Rect;
@@ -10,8 +9,10 @@ import android.view.animation.Interpolator;
 import com.alexvasilkov.telegram.chart.domain.Chart;
 import com.alexvasilkov.telegram.chart.domain.Chart.Source;
 import com.alexvasilkov.telegram.chart.utils.ChartMath;
+import com.alexvasilkov.telegram.chart.utils.ChartRanges;
 import com.alexvasilkov.telegram.chart.utils.ColorUtils;
 import com.alexvasilkov.telegram.chart.utils.Range;
+import com.alexvasilkov.telegram.chart.utils.SlidingRange;
 import com.alexvasilkov.telegram.chart.widget.style.ChartStyle;
 
 import java.util.Arrays;
@@ -23,18 +24,17 @@ class BarsPainter extends Painter {
     private final Paint barPaint = new Paint(); // No anti-aliasing is needed
     private int selectionMask;
 
-    private float[] pathsPoints;
-    private float[] pathsPointsTransformed;
-    private float[] sums;
+    // Stacked bars geometry in chart coordinates for each source, see GeometryCache
+    private final GeometryCache geometry = new GeometryCache(true);
+    private final float[][] sourcesPoints;
+
+    // Y range is updated incrementally while visible range is scrolled
+    private final SlidingRange slidingRange = ChartRanges.stackedSlidingRange(chart);
 
     BarsPainter(Chart chart) {
         super(chart);
 
-        final int points = chart.x.length;
-        pathsPoints = new float[4 * points];
-        pathsPointsTransformed = new float[4 * points];
-        sums = new float[points];
-
+        sourcesPoints = new float[chart.sources.length][];
 
         barPaint.setStyle(Paint.Style.STROKE);
     }
@@ -47,36 +47,37 @@ class BarsPainter extends Painter {
     }
 
     @Override
-    public void calculateYRange(Range yRange, int from, int to, boolean[] sourcesStates) {
-        // Calculating min and max Y values sums across all visible sources
-
-        final int sourcesCount = chart.sources.length;
-
-        final int minY = 0; // Always starting from 0
-        int maxY = Integer.MIN_VALUE;
-
-        for (int i = from; i <= to; i++) {
-            int sum = 0;
-
-            for (int s = 0; s < sourcesCount; s++) {
-                if (sourcesStates[s]) {
-                    sum += chart.sources[s].y[i];
-                }
-            }
+    public void prepare(int from, int to, float[] sourcesStates) {
+        prepareGeometry(from, to, sourcesStates);
+    }
 
-            maxY = maxY < sum ? sum : maxY;
+    @Override
+    public void releaseCache() {
+        geometry.invalidate();
+        for (int s = 0; s < sourcesPoints.length; s++) {
+            sourcesPoints[s] = null;
         }
+    }
+
+    @Override
+    public void reuseBuffers(Painter previous) {
+        if (previous instanceof BarsPainter) {
+            final BarsPainter prev = (BarsPainter) previous;
 
-        if (maxY <= minY) {
-            maxY = minY + 1;
+            final int count = Math.min(sourcesPoints.length, prev.sourcesPoints.length);
+            System.arraycopy(prev.sourcesPoints, 0, sourcesPoints, 0, count);
         }
+    }
 
-        yRange.set(minY, maxY);
+    @Override
+    public void calculateYRange(Range yRange, int from, int to, boolean[] sourcesStates) {
+        // Calculating min and max Y values sums across all visible sources
+        slidingRange.calculate(from, to, sourcesStates, yRange);
     }
 
     @Override
     public void draw(
-            Canvas canvas,
+            DrawTarget target,
             Rect chartPos,
             Matrix matrix,
             int from,
@@ -89,52 +90,85 @@ class BarsPainter extends Painter {
         final float barWidth = Math.abs(ChartMath.mapX(matrix, 1f) - ChartMath.mapX(matrix, 0f));
         barPaint.setStrokeWidth(barWidth + 1.1f); // Dealing with rounding issues
 
-        final float[] points = pathsPoints;
-        final float[] pointsTrans = pathsPointsTransformed;
-        Arrays.fill(sums, 0f);
+        prepareGeometry(from, to, sourcesStates);
+
+        final int offset = 4 * (from - geometry.from);
+        final int count = 2 * (to - from + 1);
+        // Only visible points are transformed, using shared buffer
+        final float[] pointsTrans = buffers.points(2 * count);
+        final int selectedOffset = 4 * (selectedPos - from);
 
         for (int s = 0, size = chart.sources.length; s < size; s++) {
-            final float state = sourcesStates[s];
-            final Source source = chart.sources[s];
-            if (state == 0f) {
+            if (sourcesStates[s] == 0f) {
                 continue; // Ignoring invisible sources
             }
 
-            // Bars state should change a bit faster for nicer animations
-            final float stateAdjusted = INTERPOLATOR.getInterpolation(state);
-
-            for (int i = from; i <= to; i++) {
-                points[4 * i] = i;
-                points[4 * i + 1] = sums[i];
-                points[4 * i + 2] = i;
-                points[4 * i + 3] = sums[i] + source.y[i] * stateAdjusted;
-
-                sums[i] += source.y[i] * stateAdjusted;
-            }
-
             // Bars should be dimmed down if particular bar is selected
             final int color = getSourceColor(s);
             barPaint.setColor(selectedPos == -1 ? color : ColorUtils.overlay(color, selectionMask));
 
-            final int offset = 4 * from;
-            final int count = 2 * (to - from + 1);
+            matrix.mapPoints(pointsTrans, 0, sourcesPoints[s], offset, count);
 
-            matrix.mapPoints(pointsTrans, offset, points, offset, count);
-
-            canvas.drawLines(pointsTrans, offset, 2 * count, barPaint);
+            target.drawLines(pointsTrans, 0, 2 * count, barPaint);
 
             // Drawing full-color bar, if selected
             if (from <= selectedPos && selectedPos <= to) {
                 barPaint.setColor(color);
-                canvas.drawLine(
-                        pointsTrans[4 * selectedPos],
-                        pointsTrans[4 * selectedPos + 1],
-                        pointsTrans[4 * selectedPos + 2],
-                        pointsTrans[4 * selectedPos + 3],
+                target.drawLine(
+                        pointsTrans[selectedOffset],
+                        pointsTrans[selectedOffset + 1],
+                        pointsTrans[selectedOffset + 2],
+                        pointsTrans[selectedOffset + 3],
                         barPaint
                 );
             }
         }
     }
 
+    /**
+     * Builds stacked bars in chart coordinates, only if requested range is not yet covered by
+     * cached geometry or if sources states were changed.
+     */
+    private void prepareGeometry(int from, int to, float[] sourcesStates) {
+        if (geometry.isValid(from, to, sourcesStates)) {
+            return;
+        }
+
+        geometry.set(from, to, chart.x.length, sourcesStates);
+
+        final int geomFrom = geometry.from;
+        final int geomTo = geometry.to;
+        final int length = geometry.size();
+
+        final float[] sums = buffers.sums(length);
+        Arrays.fill(sums, 0, length, 0f);
+
+        for (int s = 0, size = chart.sources.length; s < size; s++) {
+            final float state = sourcesStates[s];
+            final Source source = chart.sources[s];
+            if (state == 0f) {
+                continue; // Ignoring invisible sources
+            }
+
+            // Bars state should change a bit faster for nicer animations
+            final float stateAdjusted = INTERPOLATOR.getInterpolation(state);
+
+            sourcesPoints[s] = GeometryCache.ensureSize(sourcesPoints[s], 4 * length);
+            final float[] points = sourcesPoints[s];
+
+            for (int i = geomFrom; i <= geomTo; i++) {
+                final int pos = 4 * (i - geomFrom);
+                final float sum = sums[i - geomFrom];
+                final float value = source.y[i] * stateAdjusted;
+
+                points[pos] = i;
+                points[pos + 1] = sum;
+                points[pos + 2] = i;
+                points[pos + 3] = sum + value;
+
+                sums[i - geomFrom] = sum + value;
+            }
+        }
+    }
+
 }
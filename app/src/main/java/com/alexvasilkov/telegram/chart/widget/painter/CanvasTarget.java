@@ -0,0 +1,72 @@
+package com.alexvasilkov.telegram.chart.widget.painter;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+/**
+ * Draw target which delegates to a canvas. Instances are meant to be reused, with canvas set
+ * right before drawing.
+ */
+public class CanvasTarget implements DrawTarget {
+
+    private Canvas canvas;
+
+    public CanvasTarget set(Canvas canvas) {
+        this.canvas = canvas;
+        return this;
+    }
+
+    @Override
+    public void save() {
+        canvas.save();
+    }
+
+    @Override
+    public void restore() {
+        canvas.restore();
+    }
+
+    @Override
+    public void scale(float sx, float sy) {
+        canvas.scale(sx, sy);
+    }
+
+    @Override
+    public void scale(float sx, float sy, float px, float py) {
+        canvas.scale(sx, sy, px, py);
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint) {
+        canvas.drawLine(startX, startY, stopX, stopY, paint);
+    }
+
+    @Override
+    public void drawLines(float[] points, int offset, int count, Paint paint) {
+        canvas.drawLines(points, offset, count, paint);
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        canvas.drawPath(path, paint);
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        canvas.drawCircle(cx, cy, radius, paint);
+    }
+
+    @Override
+    public void drawArc(
+            RectF oval, float startAngle, float sweepAngle, boolean useCenter, Paint paint) {
+        canvas.drawArc(oval, startAngle, sweepAngle, useCenter, paint);
+    }
+
+    @Override
+    public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+        canvas.drawText(text, index, count, x, y, paint);
+    }
+
+}
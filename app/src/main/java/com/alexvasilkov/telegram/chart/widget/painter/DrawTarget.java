@@ -0,0 +1,35 @@
+package com.alexvasilkov.telegram.chart.widget.painter;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+/**
+ * Drawing operations used by painters. Painters draw into {@link Canvas} through
+ * {@link CanvasTarget}, while {@link RecordingTarget} only records emitted primitives, so that
+ * painters' own work can be measured without actual rendering.
+ */
+public interface DrawTarget {
+
+    void save();
+
+    void restore();
+
+    void scale(float sx, float sy);
+
+    void scale(float sx, float sy, float px, float py);
+
+    void drawLine(float startX, float startY, float stopX, float stopY, Paint paint);
+
+    void drawLines(float[] points, int offset, int count, Paint paint);
+
+    void drawPath(Path path, Paint paint);
+
+    void drawCircle(float cx, float cy, float radius, Paint paint);
+
+    void drawArc(RectF oval, float startAngle, float sweepAngle, boolean useCenter, Paint paint);
+
+    void drawText(char[] text, int index, int count, float x, float y, Paint paint);
+
+}
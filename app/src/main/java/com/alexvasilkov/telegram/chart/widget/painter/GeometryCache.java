@@ -0,0 +1,59 @@
+package com.alexvasilkov.telegram.chart.widget.painter;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the points window (and optionally sources states) for which painter's
+ * data-space geometry was built. Geometry only needs to be rebuilt once requested window
+ * is out of cached window or sources states are changed, pans and zooms within cached window
+ * only need to transform existing geometry.
+ */
+class GeometryCache {
+
+    private final boolean trackStates;
+
+    int from = 0;
+    int to = -1;
+    private float[] states;
+
+    GeometryCache(boolean trackStates) {
+        this.trackStates = trackStates;
+    }
+
+    boolean isValid(int from, int to, float[] states) {
+        return this.from <= from && to <= this.to
+                && (!trackStates || Arrays.equals(this.states, states));
+    }
+
+    /**
+     * Stores new cached window, extended by half of the requested window size on each side
+     * (within chart's size) so that small pans won't require geometry rebuilds.
+     */
+    void set(int from, int to, int size, float[] states) {
+        final int extra = (to - from) / 2;
+        this.from = Math.max(0, from - extra);
+        this.to = Math.min(size - 1, to + extra);
+
+        if (trackStates) {
+            if (this.states == null || this.states.length != states.length) {
+                this.states = new float[states.length];
+            }
+            System.arraycopy(states, 0, this.states, 0, states.length);
+        }
+    }
+
+    void invalidate() {
+        from = 0;
+        to = -1;
+        states = null;
+    }
+
+    int size() {
+        return to - from + 1;
+    }
+
+    static float[] ensureSize(float[] array, int size) {
+        return array == null || array.length < size ? new float[size] : array;
+    }
+
+}
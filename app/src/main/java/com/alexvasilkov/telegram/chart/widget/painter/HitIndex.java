@@ -0,0 +1,157 @@
+package com.alexvasilkov.telegram.chart.widget.painter;
+
+import android.graphics.Matrix;
+import android.graphics.Rect;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+
+import java.util.Arrays;
+
+/**
+ * Vertical extents of drawn lines within each pixel column of the chart, stored for each source.
+ * Index is built for particular chart position, matrix and sources states, so that the source
+ * nearest to a touch point can be found in O(sources) while the touch is dragged.
+ */
+class HitIndex {
+
+    private final Rect builtPos = new Rect();
+    private final float[] builtMatrix = new float[9];
+    private float[] builtStates;
+    private boolean valid;
+
+    private final float[] values = new float[9];
+
+    private int columns;
+    private float[] mins;
+    private float[] maxs;
+
+    boolean isValid(Rect chartPos, Matrix matrix, float[] sourcesStates) {
+        if (!valid || !builtPos.equals(chartPos) || !Arrays.equals(builtStates, sourcesStates)) {
+            return false;
+        }
+        matrix.getValues(values);
+        return Arrays.equals(builtMatrix, values);
+    }
+
+    void release() {
+        valid = false;
+        mins = null;
+        maxs = null;
+    }
+
+    void build(
+            Chart chart,
+            float[] sourcesScales,
+            Rect chartPos,
+            Matrix matrix,
+            float[] sourcesStates
+    ) {
+        final int sourcesCount = chart.sources.length;
+
+        valid = true;
+        builtPos.set(chartPos);
+        matrix.getValues(builtMatrix);
+        if (builtStates == null || builtStates.length != sourcesCount) {
+            builtStates = new float[sourcesCount];
+        }
+        System.arraycopy(sourcesStates, 0, builtStates, 0, sourcesCount);
+
+        columns = Math.max(chartPos.width(), 0);
+        final int size = columns * sourcesCount;
+        if (mins == null || mins.length < size) {
+            mins = new float[size];
+            maxs = new float[size];
+        }
+        Arrays.fill(mins, 0, size, Float.POSITIVE_INFINITY);
+        Arrays.fill(maxs, 0, size, Float.NEGATIVE_INFINITY);
+
+        final float scaleX = builtMatrix[Matrix.MSCALE_X];
+        final float transX = builtMatrix[Matrix.MTRANS_X];
+        final float scaleY = builtMatrix[Matrix.MSCALE_Y];
+        final float transY = builtMatrix[Matrix.MTRANS_Y];
+
+        if (scaleX <= 0f || columns == 0) {
+            return;
+        }
+
+        // Only points within chart position are indexed
+        final int maxX = chart.x.length - 1;
+        final int from = Math.max(0, (int) Math.floor((chartPos.left - transX) / scaleX));
+        final int to = Math.min(maxX, (int) Math.ceil((chartPos.right - transX) / scaleX));
+
+        for (int s = 0; s < sourcesCount; s++) {
+            if (sourcesStates[s] == 0f) {
+                continue; // Ignoring invisible sources
+            }
+
+            final int[] y = chart.sources[s].y;
+            final float valueScale = sourcesScales[s] * scaleY;
+            final int offset = s * columns;
+
+            if (from == to) {
+                // Single point, no lines segments
+                final int col = (int) Math.floor(from * scaleX + transX) - chartPos.left;
+                if (0 <= col && col < columns) {
+                    mins[offset + col] = maxs[offset + col] = y[from] * valueScale + transY;
+                }
+                continue;
+            }
+
+            for (int i = from; i < to; i++) {
+                final float x0 = i * scaleX + transX;
+                final float x1 = x0 + scaleX;
+                final float y0 = y[i] * valueScale + transY;
+                final float y1 = y[i + 1] * valueScale + transY;
+
+                final int colFrom = Math.max((int) Math.floor(x0), chartPos.left);
+                final int colTo = Math.min((int) Math.floor(x1), chartPos.right - 1);
+
+                for (int col = colFrom; col <= colTo; col++) {
+                    // Segment part within current pixel column
+                    final float startX = Math.max(x0, col);
+                    final float endX = Math.min(x1, col + 1f);
+                    final float startY = y0 + (y1 - y0) * (startX - x0) / scaleX;
+                    final float endY = y0 + (y1 - y0) * (endX - x0) / scaleX;
+
+                    final int index = offset + col - chartPos.left;
+                    mins[index] = Math.min(mins[index], Math.min(startY, endY));
+                    maxs[index] = Math.max(maxs[index], Math.max(startY, endY));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns index of the source with drawn line nearest to given point in the same pixel
+     * column, within given distance, or -1 if there is no such source.
+     */
+    int findNearest(float posX, float posY, float maxDistance) {
+        if (!valid || columns == 0) {
+            return -1;
+        }
+
+        final int col = Math.max(0, Math.min((int) Math.floor(posX) - builtPos.left, columns - 1));
+
+        int nearest = -1;
+        float nearestDistance = maxDistance;
+
+        for (int s = 0, size = builtStates.length; s < size; s++) {
+            final int index = s * columns + col;
+            final float min = mins[index];
+            final float max = maxs[index];
+
+            if (builtStates[s] == 0f || min > max) {
+                continue; // Nothing is drawn for this source within the column
+            }
+
+            final float distance = posY < min ? min - posY : (posY > max ? posY - max : 0f);
+            if (distance <= nearestDistance) {
+                nearest = s;
+                nearestDistance = distance;
+            }
+        }
+
+        return nearest;
+    }
+
+}
@@ -1,6 +1,5 @@
 package com.alexvasilkov.telegram.chart.widget.painter;
 
-import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Path;
@@ -9,7 +8,9 @@ import android.graphics.Rect;
 import com.alexvasilkov.telegram.chart.domain.Chart;
 import com.alexvasilkov.telegram.chart.domain.Chart.Source;
 import com.alexvasilkov.telegram.chart.utils.ChartMath;
+import com.alexvasilkov.telegram.chart.utils.ChartRanges;
 import com.alexvasilkov.telegram.chart.utils.Range;
+import com.alexvasilkov.telegram.chart.utils.SlidingRange;
 import com.alexvasilkov.telegram.chart.widget.style.ChartStyle;
 
 class LinesPainter extends Painter {
@@ -22,8 +23,17 @@ class LinesPainter extends Painter {
     private float pointRadius;
 
     private final Path path = new Path();
-    private float[] pathsPoints;
-    private float[] pathsPointsTransformed;
+
+    // Lines geometry in chart coordinates for each source, see GeometryCache
+    private final GeometryCache geometry = new GeometryCache(false);
+    private final float[][] sourcesPoints;
+
+    // Drawn lines positions on screen, built when selected point is drawn, see HitIndex
+    private final HitIndex hitIndex = new HitIndex();
+    private float touchRadius;
+
+    // Y range is updated incrementally while visible range is scrolled
+    private final SlidingRange slidingRange = ChartRanges.linesSlidingRange(chart, sourcesScales);
 
     LinesPainter(Chart chart, boolean independentSources) {
         this(chart);
@@ -62,10 +72,7 @@ class LinesPainter extends Painter {
     LinesPainter(Chart chart) {
         super(chart);
 
-        final int points = chart.x.length;
-        pathsPoints = new float[4 * (points - 1)];
-        pathsPointsTransformed = new float[4 * (points - 1)];
-
+        sourcesPoints = new float[chart.sources.length][];
 
         pathPaint.setStyle(Paint.Style.STROKE);
         pathPaint.setStrokeJoin(Paint.Join.ROUND);
@@ -84,6 +91,31 @@ class LinesPainter extends Painter {
 
         pointPaint.setColor(style.backgroundColorHint);
         pointRadius = style.pointRadius;
+        touchRadius = style.touchRadius;
+    }
+
+    @Override
+    public void prepare(int from, int to, float[] sourcesStates) {
+        prepareGeometry(from, to);
+    }
+
+    @Override
+    public void releaseCache() {
+        geometry.invalidate();
+        for (int s = 0; s < sourcesPoints.length; s++) {
+            sourcesPoints[s] = null;
+        }
+        path.reset();
+        hitIndex.release();
+    }
+
+    @Override
+    public void reuseBuffers(Painter previous) {
+        if (previous instanceof LinesPainter) {
+            final LinesPainter prev = (LinesPainter) previous;
+            final int count = Math.min(sourcesPoints.length, prev.sourcesPoints.length);
+            System.arraycopy(prev.sourcesPoints, 0, sourcesPoints, 0, count);
+        }
     }
 
 
@@ -96,37 +128,12 @@ class LinesPainter extends Painter {
     ) {
 
         // Calculating min and max Y value across all visible sources
-        float minY = Float.MAX_VALUE;
-        float maxY = Float.MIN_VALUE;
-
-        for (int l = 0, size = chart.sources.length; l < size; l++) {
-            if (!sourcesStates[l]) {
-                continue; // Ignoring invisible sources
-            }
-
-            final Source source = chart.sources[l];
-            final float valueScale = sourcesScales[l];
-
-            for (int i = from; i <= to; i++) {
-                final float value = source.y[i] * valueScale;
-                minY = minY > value ? value : minY;
-                maxY = maxY < value ? value : maxY;
-            }
-        }
-
-        if (minY == Float.MAX_VALUE) {
-            minY = 0;
-        }
-        if (maxY == Float.MIN_VALUE) {
-            maxY = minY + 1;
-        }
-
-        yRange.set(minY, maxY);
+        slidingRange.calculate(from, to, sourcesStates, yRange);
     }
 
     @Override
     public void draw(
-            Canvas canvas,
+            DrawTarget target,
             Rect chartPos,
             Matrix matrix,
             int from,
@@ -139,7 +146,12 @@ class LinesPainter extends Painter {
         // Drawing selected point line if withing visible range
         if (from <= selectedPos && selectedPos <= to) {
             float posX = ChartMath.mapX(matrix, selectedPos);
-            canvas.drawLine(posX, chartPos.top, posX, chartPos.bottom, selectionPaint);
+            target.drawLine(posX, chartPos.top, posX, chartPos.bottom, selectionPaint);
+        }
+
+        final boolean drawLines = simplified || FORCE_SIMPLIFY;
+        if (drawLines) {
+            prepareGeometry(from, to);
         }
 
         for (int l = 0, size = chart.sources.length; l < size; l++) {
@@ -154,12 +166,12 @@ class LinesPainter extends Painter {
             pathPaint.setColor(getSourceColor(l));
             pathPaint.setAlpha(toAlpha(state));
 
-            if (simplified || FORCE_SIMPLIFY) {
+            if (drawLines) {
                 // Drawing a set of lines is much faster than drawing a path
-                drawAsLines(canvas, matrix, source.y, valuesScale, from, to);
+                drawAsLines(target, matrix, sourcesPoints[l], from, to);
             } else {
                 // But a path looks better since it smoothly joins the lines
-                drawAsPath(canvas, matrix, source.y, valuesScale, from, to);
+                drawAsPath(target, matrix, source.y, valuesScale, from, to);
             }
         }
 
@@ -167,6 +179,11 @@ class LinesPainter extends Painter {
             return;
         }
 
+        // Touch is likely to be moved over the chart, preparing for nearest source lookups
+        if (!hitIndex.isValid(chartPos, matrix, sourcesStates)) {
+            hitIndex.build(chart, sourcesScales, chartPos, matrix, sourcesStates);
+        }
+
         for (int l = 0, size = chart.sources.length; l < size; l++) {
             final float state = sourcesStates[l];
             final Source source = chart.sources[l];
@@ -181,12 +198,27 @@ class LinesPainter extends Painter {
             // Point's alpha should change much slower than main path
             pointPaint.setAlpha(toAlpha((float) Math.sqrt(Math.sqrt(state))));
 
-            drawSelected(canvas, matrix, selectedPos, source.y[selectedPos], valuesScale);
+            drawSelected(target, matrix, selectedPos, source.y[selectedPos], valuesScale);
+        }
+    }
+
+    @Override
+    public int findNearestSource(
+            Rect chartPos,
+            Matrix matrix,
+            float[] sourcesStates,
+            float posX,
+            float posY
+    ) {
+        if (!hitIndex.isValid(chartPos, matrix, sourcesStates)) {
+            // Chart was moved since last draw of selected point
+            hitIndex.build(chart, sourcesScales, chartPos, matrix, sourcesStates);
         }
+        return hitIndex.findNearest(posX, posY, touchRadius);
     }
 
     private void drawAsPath(
-            Canvas canvas, Matrix matrix,
+            DrawTarget target, Matrix matrix,
             int[] values, float valueScale,
             int from, int to
     ) {
@@ -203,38 +235,58 @@ class LinesPainter extends Painter {
 
         path.transform(matrix);
 
-        canvas.drawPath(path, pathPaint);
+        target.drawPath(path, pathPaint);
     }
 
-    private void drawAsLines(
-            Canvas canvas, Matrix matrix,
-            int[] values, float valueScale,
-            int from, int to
-    ) {
-        final float[] points = pathsPoints;
+    /**
+     * Builds lines segments in chart coordinates for all sources, only if requested range is not
+     * yet covered by cached geometry.
+     */
+    private void prepareGeometry(int from, int to) {
+        if (geometry.isValid(from, to, null)) {
+            return;
+        }
 
-        for (int i = from; i < to; i++) {
-            points[4 * i] = i;
-            points[4 * i + 1] = values[i] * valueScale;
-            points[4 * i + 2] = i + 1;
-            points[4 * i + 3] = values[i + 1] * valueScale;
+        geometry.set(from, to, chart.x.length, null);
+
+        final int geomFrom = geometry.from;
+        final int geomTo = geometry.to;
+        final int length = 4 * (geomTo - geomFrom);
+
+        for (int l = 0, size = chart.sources.length; l < size; l++) {
+            final int[] values = chart.sources[l].y;
+            final float valueScale = sourcesScales[l];
+            sourcesPoints[l] = GeometryCache.ensureSize(sourcesPoints[l], length);
+            final float[] points = sourcesPoints[l];
+
+            for (int i = geomFrom; i < geomTo; i++) {
+                final int pos = 4 * (i - geomFrom);
+                points[pos] = i;
+                points[pos + 1] = values[i] * valueScale;
+                points[pos + 2] = i + 1;
+                points[pos + 3] = values[i + 1] * valueScale;
+            }
         }
+    }
 
-        final int offset = 4 * from;
+    private void drawAsLines(DrawTarget target, Matrix matrix, float[] points, int from, int to) {
+        final int offset = 4 * (from - geometry.from);
         final int count = 2 * (to - from);
 
-        matrix.mapPoints(pathsPointsTransformed, offset, points, offset, count);
+        // Only visible points are transformed, using shared buffer
+        final float[] pointsTransformed = buffers.points(2 * count);
+        matrix.mapPoints(pointsTransformed, 0, points, offset, count);
 
-        canvas.drawLines(pathsPointsTransformed, offset, 2 * count, pathPaint);
+        target.drawLines(pointsTransformed, 0, 2 * count, pathPaint);
     }
 
 
-    private void drawSelected(Canvas canvas, Matrix matrix, int x, int y, float yScale) {
+    private void drawSelected(DrawTarget target, Matrix matrix, int x, int y, float yScale) {
         float posX = ChartMath.mapX(matrix, x);
         float posY = ChartMath.mapY(matrix, y * yScale);
 
-        canvas.drawCircle(posX, posY, pointRadius, pointPaint);
-        canvas.drawCircle(posX, posY, pointRadius, pathPaint);
+        target.drawCircle(posX, posY, pointRadius, pointPaint);
+        target.drawCircle(posX, posY, pointRadius, pathPaint);
     }
 
 }
@@ -1,6 +1,5 @@
 package com.alexvasilkov.telegram.chart.widget.painter;
 
-import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Rect;
 
@@ -18,6 +17,9 @@ public abstract class Painter {
 
     private boolean darken;
 
+    // Own buffers by default, e.g. when preparing painter in background before it is attached
+    ScratchBuffers buffers = new ScratchBuffers();
+
     Painter(Chart chart) {
         this.chart = chart;
 
@@ -49,7 +51,7 @@ public abstract class Painter {
     }
 
     public abstract void draw(
-            Canvas canvas,
+            DrawTarget target,
             Rect chartPos,
             Matrix matrix,
             int from,
@@ -64,6 +66,44 @@ public abstract class Painter {
         return false;
     }
 
+    /**
+     * Returns true if painter can draw on a background thread, meaning that
+     * {@link #draw(DrawTarget, Rect, Matrix, int, int, float[], int, boolean) draw} method does not
+     * modify any state used by other methods. Style changes are synchronized on painter instance.
+     */
+    public boolean supportsBackgroundDrawing() {
+        return true;
+    }
+
+    /**
+     * Precomputes drawing geometry for given points range, so that it is ready before the first
+     * draw. Can be called on a background thread, but only before painter is attached to a view.
+     */
+    public void prepare(int from, int to, float[] sourcesStates) {}
+
+    /**
+     * Releases cached geometry and drawing buffers, they will be recreated on next draw.
+     */
+    public void releaseCache() {}
+
+    /**
+     * Takes over cached geometry arrays of a painter previously used by the same view, so that
+     * they are not reallocated when view is switched to a new chart. Previous painter should not
+     * be used for drawing without releasing its cache afterwards.
+     */
+    public void reuseBuffers(Painter previous) {}
+
+    /**
+     * Sets temporary buffers shared with other painters of the same view.
+     */
+    public void setScratchBuffers(ScratchBuffers buffers) {
+        this.buffers = buffers;
+    }
+
+    public ScratchBuffers getScratchBuffers() {
+        return buffers;
+    }
+
 
     public boolean allowXSelection() {
         return true;
@@ -75,6 +115,21 @@ public abstract class Painter {
 
     public void setSelectedSource(int selected) {}
 
+    /**
+     * Returns index of the visible source drawn nearest to given point on the screen, within
+     * style's touch radius, or -1 if there is no such source or if painter can't tell it.
+     * Painter may use data cached during previous draw with the same position and matrix.
+     */
+    public int findNearestSource(
+            Rect chartPos,
+            Matrix matrix,
+            float[] sourcesStates,
+            float posX,
+            float posY
+    ) {
+        return -1;
+    }
+
 
     public boolean hasIndependentSources() {
         for (float scale : sourcesScales) {
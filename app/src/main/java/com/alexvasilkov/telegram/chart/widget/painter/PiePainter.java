@@ -1,7 +1,6 @@
 package com.alexvasilkov.telegram.chart.widget.painter;
 
 import android.annotation.SuppressLint;
-import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Matrix;
 import android.graphics.Paint;
@@ -13,10 +12,10 @@ import android.view.Gravity;
 import com.alexvasilkov.telegram.chart.domain.Chart;
 import com.alexvasilkov.telegram.chart.utils.AnimatedState;
 import com.alexvasilkov.telegram.chart.utils.Range;
+import com.alexvasilkov.telegram.chart.utils.TextBuffer;
 import com.alexvasilkov.telegram.chart.widget.style.ChartStyle;
 
 import java.util.Arrays;
-import java.util.Locale;
 
 public class PiePainter extends Painter {
 
@@ -31,6 +30,7 @@ public class PiePainter extends Painter {
     private final RectF circleRect = new RectF();
 
     private final Rect labelBounds = new Rect();
+    private final TextBuffer label = new TextBuffer();
     private float labelMinSize;
     private float labelMaxSize;
 
@@ -162,6 +162,11 @@ public class PiePainter extends Painter {
         return gravity;
     }
 
+    @Override
+    public boolean supportsBackgroundDrawing() {
+        return false; // Animation states are updated while drawing
+    }
+
     @Override
     public boolean isAnimating() {
         boolean result = !changesAnimation.isFinished();
@@ -175,7 +180,7 @@ public class PiePainter extends Painter {
 
     @Override
     public void draw(
-            Canvas canvas,
+            DrawTarget target,
             Rect chartPos,
             Matrix matrix,
             int from,
@@ -199,7 +204,7 @@ public class PiePainter extends Painter {
         final float centerY = chartPos.centerY();
 
 
-        drawPie(canvas, radius, offset, centerX, centerY, simplified);
+        drawPie(target, radius, offset, centerX, centerY, simplified);
 
 
         for (int s = 0; s < chart.sources.length; s++) {
@@ -211,14 +216,14 @@ public class PiePainter extends Painter {
 
             labelsPaint.setTextSize(calculateTextSize(percent));
 
-            final String label = String.format(Locale.US, "%.0f%%", 100f * percent);
+            label.clear().appendFixed(100f * percent, 0).append('%');
 
             final double labelAngelRad = Math.toRadians(startAngles[s] + 0.5f * sweepAngles[s]);
 
             final float labelRadius = calculateLabelRadius(radius, percent)
                     + selectionAnimations[s].get() * offset;
 
-            measureLabel(label, labelBounds);
+            labelsPaint.getTextBounds(label.chars(), 0, label.length(), labelBounds);
 
             final float labelX = centerX + (float) Math.cos(labelAngelRad) * labelRadius
                     - 0.5f * labelBounds.width();
@@ -227,24 +232,24 @@ public class PiePainter extends Painter {
 
             labelsPaint.setAlpha(toAlpha(sourcesStates[s]));
 
-            canvas.drawText(label, labelX, labelY, labelsPaint);
+            target.drawText(label.chars(), 0, label.length(), labelX, labelY, labelsPaint);
         }
     }
 
     private void drawPie(
-            Canvas canvas,
+            DrawTarget target,
             float radius, float offset,
             float centerX, float centerY,
             boolean simplified
     ) {
-        canvas.save();
+        target.save();
 
         float radiusOptimized = radius;
         float offsetOptimized = offset;
 
         if (simplified) {
             // Scaling down circle and scaling up the canvas instead, reducing drawing area.
-            canvas.scale(OPTIMIZATION_FACTOR, OPTIMIZATION_FACTOR, centerX, centerY);
+            target.scale(OPTIMIZATION_FACTOR, OPTIMIZATION_FACTOR, centerX, centerY);
             radiusOptimized /= OPTIMIZATION_FACTOR;
             offsetOptimized /= OPTIMIZATION_FACTOR;
         }
@@ -274,7 +279,7 @@ public class PiePainter extends Painter {
 
             circleRect.offset(offsetX, offsetY);
 
-            canvas.drawArc(
+            target.drawArc(
                     circleRect,
                     startAngles[s] + 0.5f * offsetSweep,
                     Math.max(sweepAngles[s] - offsetSweep, 0f),
@@ -285,7 +290,7 @@ public class PiePainter extends Painter {
             circleRect.offset(-offsetX, -offsetY);
         }
 
-        canvas.restore();
+        target.restore();
     }
 
     private float calculateTextSize(float percent) {
@@ -0,0 +1,122 @@
+package com.alexvasilkov.telegram.chart.widget.painter;
+
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+import com.alexvasilkov.telegram.chart.utils.DrawRecording;
+
+/**
+ * Draw target which does not draw anything but records emitted commands into
+ * {@link DrawRecording}, which can then be counted or replayed without Android dependencies.
+ * Paths are recorded by their bounds.
+ */
+public class RecordingTarget implements DrawTarget {
+
+    private final DrawRecording recording = new DrawRecording();
+    private final RectF pathBounds = new RectF();
+
+    public void reset() {
+        recording.reset();
+    }
+
+    public DrawRecording getRecording() {
+        return recording;
+    }
+
+    /**
+     * Returns total number of drawing calls, each call can emit several primitives.
+     */
+    public int getCalls() {
+        return recording.getCalls();
+    }
+
+    /**
+     * Returns total number of emitted primitives.
+     */
+    public int getPrimitives() {
+        return recording.getPrimitives();
+    }
+
+    public int getLines() {
+        return recording.getLines();
+    }
+
+    public int getPaths() {
+        return recording.getCalls(DrawRecording.PATH);
+    }
+
+    public int getCircles() {
+        return recording.getCalls(DrawRecording.CIRCLE);
+    }
+
+    public int getArcs() {
+        return recording.getCalls(DrawRecording.ARC);
+    }
+
+    public int getTexts() {
+        return recording.getCalls(DrawRecording.TEXT);
+    }
+
+    public int getSaves() {
+        return recording.getCalls(DrawRecording.SAVE);
+    }
+
+    @Override
+    public void save() {
+        recording.add(DrawRecording.SAVE, 0);
+    }
+
+    @Override
+    public void restore() {
+        recording.add(DrawRecording.RESTORE, 0);
+    }
+
+    @Override
+    public void scale(float sx, float sy) {
+        scale(sx, sy, 0f, 0f);
+    }
+
+    @Override
+    public void scale(float sx, float sy, float px, float py) {
+        recording.add(DrawRecording.SCALE, 0).arg(sx).arg(sy).arg(px).arg(py);
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint) {
+        recording.add(DrawRecording.LINE, paint.getColor())
+                .arg(startX).arg(startY).arg(stopX).arg(stopY);
+    }
+
+    @Override
+    public void drawLines(float[] points, int offset, int count, Paint paint) {
+        recording.add(DrawRecording.LINES, paint.getColor()).args(points, offset, count);
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        path.computeBounds(pathBounds, true);
+        recording.add(DrawRecording.PATH, paint.getColor())
+                .arg(pathBounds.left).arg(pathBounds.top)
+                .arg(pathBounds.right).arg(pathBounds.bottom);
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        recording.add(DrawRecording.CIRCLE, paint.getColor()).arg(cx).arg(cy).arg(radius);
+    }
+
+    @Override
+    public void drawArc(
+            RectF oval, float startAngle, float sweepAngle, boolean useCenter, Paint paint) {
+        recording.add(DrawRecording.ARC, paint.getColor())
+                .arg(oval.left).arg(oval.top).arg(oval.right).arg(oval.bottom)
+                .arg(startAngle).arg(sweepAngle).arg(useCenter ? 1f : 0f);
+    }
+
+    @Override
+    public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+        recording.add(DrawRecording.TEXT, paint.getColor()).arg(x).arg(y).arg(count);
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.alexvasilkov.telegram.chart.widget.painter;
+
+/**
+ * Growable temporary buffers shared by all painters of the same view, used for transformed
+ * points and intermediate geometry values. Buffers are only sized to the drawn window of points,
+ * and their content is not retained between calls.
+ * <p>
+ * Buffers are only meant to be used by one painter at a time, which is the case for painters
+ * set to the same view one after another. Painters can be drawn on a background thread, so
+ * drawing and releasing the buffers is synchronized on buffers instance.
+ */
+public class ScratchBuffers {
+
+    private float[] points;
+    private float[] sums;
+    private float[] scales;
+
+    float[] points(int size) {
+        return points = ensureSize(points, size);
+    }
+
+    float[] sums(int size) {
+        return sums = ensureSize(sums, size);
+    }
+
+    float[] scales(int size) {
+        return scales = ensureSize(scales, size);
+    }
+
+    public void release() {
+        points = null;
+        sums = null;
+        scales = null;
+    }
+
+    private static float[] ensureSize(float[] array, int size) {
+        if (array == null || array.length < size) {
+            // Growing a bit more than needed to avoid reallocations on each small zoom out
+            return new float[size + size / 2];
+        }
+        return array;
+    }
+
+}
@@ -26,6 +26,8 @@ public class ChartStyle {
     public final float pieMinTextSize;
     public final float pieMaxTextSize;
 
+    public final float touchRadius;
+
 
     public ChartStyle(Context context, AttributeSet attrs) {
         TypedArray arr = context.obtainStyledAttributes(attrs, R.styleable.BaseChartView);
@@ -56,6 +58,9 @@ public class ChartStyle {
         pieMaxTextSize = arr.getDimension(R.styleable.BaseChartView_chart_pie_maxTextSize,
                 dpToPx(context, 24f));
 
+        touchRadius = arr.getDimension(R.styleable.BaseChartView_chart_touchRadius,
+                dpToPx(context, 24f));
+
         arr.recycle();
     }
 
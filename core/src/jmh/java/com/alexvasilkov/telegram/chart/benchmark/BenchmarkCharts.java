@@ -0,0 +1,29 @@
+package com.alexvasilkov.telegram.chart.benchmark;
+
+import com.alexvasilkov.telegram.chart.data.ChartGenerator;
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+
+/**
+ * Deterministic charts used as benchmarks input.
+ */
+class BenchmarkCharts {
+
+    private static final long SEED = 42L;
+
+    private BenchmarkCharts() {} // No instances
+
+    /**
+     * Creates chart with random walk values, the same arguments always produce the same chart.
+     */
+    static Chart create(Chart.Type type, Resolution resolution, int points, int sources) {
+        return new ChartGenerator()
+                .setType(type)
+                .setResolution(resolution)
+                .setPoints(points)
+                .setSources(sources)
+                .setSeed(SEED)
+                .generate(0);
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.alexvasilkov.telegram.chart.benchmark;
+
+import com.alexvasilkov.telegram.chart.domain.GroupBy;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups arithmetic over all chart points, as done for X labels levels, using UTC epoch millis
+ * (current implementation) and using {@link Calendar} (previous implementation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DatesBenchmark {
+
+    // 2019-01-01 00:00 UTC
+    private static final long START = 1546300800000L;
+
+    @Param({ "10000" })
+    int points;
+
+    @Param({ "DAY", "MONTH" })
+    GroupBy groupBy;
+
+    private final Calendar calendar =
+            new GregorianCalendar(TimeZone.getTimeZone("UTC"), Locale.US);
+
+    private long[] x;
+
+    @Setup
+    public void setup() {
+        x = new long[points];
+        for (int i = 0; i < points; i++) {
+            x[i] = Resolution.HOUR.add(START, i);
+        }
+    }
+
+    @Benchmark
+    public int epochStarts() {
+        int count = 0;
+        for (long time : x) {
+            if (groupBy.isStart(time)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int calendarStarts() {
+        int count = 0;
+        for (long time : x) {
+            if (isStart(calendar, groupBy, time)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long epochClosestStarts() {
+        long sum = 0L;
+        for (long time : x) {
+            sum += groupBy.add(groupBy.getClosestStart(time, 1), -1);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long calendarClosestStarts() {
+        long sum = 0L;
+        for (long time : x) {
+            sum += add(calendar, groupBy, getClosestStart(calendar, groupBy, time), -1);
+        }
+        return sum;
+    }
+
+
+    private static boolean isStart(Calendar cal, GroupBy groupBy, long time) {
+        cal.setTimeInMillis(time);
+
+        switch (groupBy) {
+            case DAY:
+                return cal.get(Calendar.HOUR_OF_DAY) == 0 && cal.get(Calendar.MINUTE) == 0;
+            case MONTH:
+                return cal.get(Calendar.DAY_OF_MONTH) == 1;
+            default:
+                throw new IllegalArgumentException("Unsupported type: " + groupBy);
+        }
+    }
+
+    private static long getClosestStart(Calendar cal, GroupBy groupBy, long time) {
+        if (isStart(cal, groupBy, time)) {
+            return time;
+        }
+
+        cal.setTimeInMillis(time);
+
+        switch (groupBy) {
+            case DAY:
+                cal.set(Calendar.HOUR_OF_DAY, 0);
+                cal.add(Calendar.DAY_OF_MONTH, 1);
+                break;
+            case MONTH:
+                cal.set(Calendar.DAY_OF_MONTH, 1);
+                cal.add(Calendar.MONTH, 1);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported type: " + groupBy);
+        }
+
+        return cal.getTimeInMillis();
+    }
+
+    private static long add(Calendar cal, GroupBy groupBy, long time, int amount) {
+        cal.setTimeInMillis(time);
+        cal.add(groupBy == GroupBy.DAY ? Calendar.DAY_OF_MONTH : Calendar.MONTH, amount);
+        return cal.getTimeInMillis();
+    }
+
+}
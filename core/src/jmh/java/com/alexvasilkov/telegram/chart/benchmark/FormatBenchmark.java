@@ -0,0 +1,77 @@
+package com.alexvasilkov.telegram.chart.benchmark;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+import com.alexvasilkov.telegram.chart.utils.NumberFormats;
+import com.alexvasilkov.telegram.chart.utils.TextBuffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Popup values formatting for a single point, which happens on each frame while user
+ * drags popup along the chart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FormatBenchmark {
+
+    private static final int POINTS = 1000;
+
+    @Param({ "1", "10", "100" })
+    int sources;
+
+    private final TextBuffer buffer = new TextBuffer();
+
+    private Chart chart;
+    private int pos;
+
+    @Setup
+    public void setup() {
+        chart = BenchmarkCharts.create(Chart.Type.BARS, Resolution.DAY, POINTS, sources);
+    }
+
+    @Benchmark
+    public int popupValues() {
+        pos = pos == POINTS - 1 ? 0 : pos + 1;
+
+        int length = 0;
+        for (Chart.Source source : chart.sources) {
+            buffer.clear();
+            NumberFormats.grouped(source.y[pos], buffer);
+            length += buffer.length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int axisLabels() {
+        pos = pos == POINTS - 1 ? 0 : pos + 1;
+
+        // Y guides values are abbreviated relative to the max visible value
+        final int max = chart.sources[0].y[pos] * 6;
+        int length = 0;
+        for (int i = 0; i <= 5; i++) {
+            buffer.clear();
+            NumberFormats.abbreviated(max * i / 5, max, buffer);
+            length += buffer.length();
+        }
+        return length;
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.alexvasilkov.telegram.chart.benchmark;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.GroupBy;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+import com.alexvasilkov.telegram.chart.utils.LabelsHelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * X labels levels computation, done each time chart is set or chart view is resized.
+ * Hourly chart is used so that both evenly distributed and grouped (by day) levels are covered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class LabelsBenchmark {
+
+    @Param({ "1000", "100000", "10000000" })
+    int points;
+
+    @Param({ "none", "DAY" })
+    String groupBy;
+
+    private final LabelsHelper helper = new LabelsHelper();
+
+    private Chart chart;
+
+    @Setup
+    public void setup() {
+        // Sources do not affect labels
+        chart = BenchmarkCharts.create(Chart.Type.LINES, Resolution.HOUR, points, 1);
+        helper.setGroupBy("none".equals(groupBy) ? null : GroupBy.valueOf(groupBy));
+    }
+
+    @Benchmark
+    public float[] computeLevels() {
+        helper.init(1080, 120, 30f);
+        return helper.computeLabelsLevels(chart);
+    }
+
+}
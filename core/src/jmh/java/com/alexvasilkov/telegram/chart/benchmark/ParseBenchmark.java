@@ -0,0 +1,54 @@
+package com.alexvasilkov.telegram.chart.benchmark;
+
+import com.alexvasilkov.telegram.chart.data.ChartParser;
+import com.alexvasilkov.telegram.chart.data.ChartWriter;
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of chart JSON. Uses smaller sizes than other benchmarks since JSON text and its
+ * intermediate objects take about 50 times more memory than the parsed chart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ParseBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    int points;
+
+    @Param({ "1", "10" })
+    int sources;
+
+    private String json;
+
+    @Setup
+    public void setup() {
+        json = ChartWriter.toJson(
+                BenchmarkCharts.create(Chart.Type.LINES, Resolution.DAY, points, sources));
+    }
+
+    @Benchmark
+    public Chart parse() throws JSONException {
+        return ChartParser.parse(0, Resolution.DAY, json);
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.alexvasilkov.telegram.chart.benchmark;
+
+import com.alexvasilkov.telegram.chart.data.ChartSlicer;
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slicing details range out of a chart and merging loaded day charts back together.
+ * <p>
+ * Largest combination (10M points, 100 sources) takes 4 GB for the chart itself, the same for
+ * its parts and for each merged copy, so it needs about 16 GB of heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx16g")
+public class SliceBenchmark {
+
+    @Param({ "1000", "100000", "10000000" })
+    int points;
+
+    @Param({ "1", "10", "100" })
+    int sources;
+
+    private Chart chart;
+    private List<Chart> parts;
+    private long sliceFrom;
+    private long sliceTo;
+
+    @Setup
+    public void setup() {
+        chart = BenchmarkCharts.create(Chart.Type.LINES, Resolution.HOUR, points, sources);
+
+        // Slicing 10% from the middle of the chart
+        sliceFrom = chart.x[points * 45 / 100];
+        sliceTo = chart.x[points * 55 / 100];
+
+        // Splitting chart into 3 consecutive parts to be merged
+        final long third = (chart.x[points - 1] - chart.x[0]) / 3;
+        parts = Arrays.asList(
+                ChartSlicer.subChart(chart, chart.x[0], chart.x[0] + third - 1),
+                ChartSlicer.subChart(chart, chart.x[0] + third, chart.x[0] + 2 * third - 1),
+                ChartSlicer.subChart(chart, chart.x[0] + 2 * third, chart.x[points - 1])
+        );
+    }
+
+    @Benchmark
+    public Chart subChart() {
+        return ChartSlicer.subChart(chart, sliceFrom, sliceTo);
+    }
+
+    @Benchmark
+    public Chart merge() {
+        return ChartSlicer.merge(parts);
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.alexvasilkov.telegram.chart.benchmark;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+import com.alexvasilkov.telegram.chart.utils.ChartRanges;
+import com.alexvasilkov.telegram.chart.utils.Range;
+import com.alexvasilkov.telegram.chart.utils.SlidingRange;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Y range calculation for a visible window (10% of the chart) which moves by 1 point on each
+ * invocation, the same way it happens when chart is scrolled. Sliding versions update the range
+ * incrementally, see {@link SlidingRange}.
+ * <p>
+ * Largest combination (10M points, 100 sources) takes about 4 GB of heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx6g")
+public class YRangeBenchmark {
+
+    @Param({ "1000", "100000", "10000000" })
+    int points;
+
+    @Param({ "1", "10", "100" })
+    int sources;
+
+    private final Range range = new Range();
+
+    private Chart chart;
+    private SlidingRange linesSliding;
+    private SlidingRange stackedSliding;
+    private float[] scales;
+    private boolean[] states;
+    private int window;
+    private int from;
+
+    @Setup
+    public void setup() {
+        chart = BenchmarkCharts.create(Chart.Type.LINES, Resolution.DAY, points, sources);
+
+        scales = new float[sources];
+        Arrays.fill(scales, 1f);
+        states = new boolean[sources];
+        Arrays.fill(states, true);
+
+        linesSliding = ChartRanges.linesSlidingRange(chart, scales);
+        stackedSliding = ChartRanges.stackedSlidingRange(chart);
+
+        window = Math.max(1, points / 10);
+        from = 0;
+    }
+
+    @Benchmark
+    public Range lines() {
+        ChartRanges.linesRange(chart, scales, from, nextTo(), states, range);
+        return range;
+    }
+
+    @Benchmark
+    public Range stacked() {
+        ChartRanges.stackedRange(chart, from, nextTo(), states, range);
+        return range;
+    }
+
+    @Benchmark
+    public Range linesSliding() {
+        linesSliding.calculate(from, nextTo(), states, range);
+        return range;
+    }
+
+    @Benchmark
+    public Range stackedSliding() {
+        stackedSliding.calculate(from, nextTo(), states, range);
+        return range;
+    }
+
+    private int nextTo() {
+        from = from + window >= points ? 0 : from + 1;
+        return from + window - 1;
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.alexvasilkov.telegram.chart.data;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.Chart.Source;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+
+import java.util.Random;
+
+/**
+ * Generates synthetic charts of arbitrary size. Generation is deterministic: the same settings
+ * (including seed) always produce the same chart.
+ */
+public class ChartGenerator {
+
+    private static final int BASE_VALUE = 1000;
+
+    private Chart.Type type = Chart.Type.LINES;
+    private Resolution resolution = Resolution.DAY;
+    private long start = 1546300800000L; // 2019-01-01 00:00 UTC
+    private int points = 365;
+    private int sources = 2;
+    private Distribution distribution = Distribution.RANDOM_WALK;
+    private float gaps = 0f;
+    private int maxGapLength = 1;
+    private long seed = 0L;
+
+    public ChartGenerator setType(Chart.Type type) {
+        this.type = type;
+        return this;
+    }
+
+    public ChartGenerator setResolution(Resolution resolution) {
+        this.resolution = resolution;
+        return this;
+    }
+
+    /**
+     * Sets time of the first point, in UTC millis.
+     */
+    public ChartGenerator setStart(long start) {
+        this.start = start;
+        return this;
+    }
+
+    public ChartGenerator setPoints(int points) {
+        this.points = points;
+        return this;
+    }
+
+    public ChartGenerator setSources(int sources) {
+        this.sources = sources;
+        return this;
+    }
+
+    public ChartGenerator setDistribution(Distribution distribution) {
+        this.distribution = distribution;
+        return this;
+    }
+
+    /**
+     * Sets probability for a gap (a run of zero values in all sources) to start at each point,
+     * gaps length is random within [1, maxLength] points.
+     */
+    public ChartGenerator setGaps(float probability, int maxLength) {
+        this.gaps = probability;
+        this.maxGapLength = Math.max(maxLength, 1);
+        return this;
+    }
+
+    public ChartGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+
+    public Chart generate(int id) {
+        if (points <= 0 || sources <= 0) {
+            throw new IllegalArgumentException("Points and sources count should be positive");
+        }
+
+        final Random random = new Random(seed);
+
+        final long[] x = new long[points];
+        for (int i = 0; i < points; i++) {
+            x[i] = resolution.add(start, i);
+        }
+
+        final boolean[] gapsMask = gaps > 0f ? new boolean[points] : null;
+        if (gapsMask != null) {
+            int gapEnd = 0;
+            for (int i = 0; i < points; i++) {
+                if (i >= gapEnd && random.nextFloat() < gaps) {
+                    gapEnd = i + 1 + random.nextInt(maxGapLength);
+                }
+                gapsMask[i] = i < gapEnd;
+            }
+        }
+
+        final Source[] sourcesArr = new Source[sources];
+        for (int s = 0; s < sources; s++) {
+            // Sources values are of different orders to resemble real data
+            final int base = BASE_VALUE * (1 + random.nextInt(10));
+            final int[] y = new int[points];
+            generateValues(random, base, y);
+
+            if (gapsMask != null) {
+                for (int i = 0; i < points; i++) {
+                    y[i] = gapsMask[i] ? 0 : y[i];
+                }
+            }
+
+            final int color = 0xFF000000 | random.nextInt(0x1000000);
+            sourcesArr[s] = new Source("Source " + (s + 1), color, y);
+        }
+
+        return new Chart(id, type, resolution, x, sourcesArr);
+    }
+
+    private void generateValues(Random random, int base, int[] y) {
+        final int size = y.length;
+
+        switch (distribution) {
+            case UNIFORM:
+                for (int i = 0; i < size; i++) {
+                    y[i] = random.nextInt(2 * base + 1);
+                }
+                break;
+            case NORMAL:
+                for (int i = 0; i < size; i++) {
+                    final double value = base + 0.25 * base * random.nextGaussian();
+                    y[i] = (int) Math.max(0L, Math.round(value));
+                }
+                break;
+            case SPIKES:
+                // Exponentially distributed values, with rare values much bigger than average
+                for (int i = 0; i < size; i++) {
+                    final double value = -base * Math.log(1.0 - random.nextDouble());
+                    y[i] = (int) Math.min(Integer.MAX_VALUE / 2, Math.round(value));
+                }
+                break;
+            case RANDOM_WALK:
+            default:
+                final int step = Math.max(base / 20, 1);
+                int value = base;
+                for (int i = 0; i < size; i++) {
+                    value = Math.max(0, value + random.nextInt(2 * step + 1) - step);
+                    y[i] = value;
+                }
+                break;
+        }
+    }
+
+
+    public enum Distribution {
+        RANDOM_WALK, UNIFORM, NORMAL, SPIKES
+    }
+
+}
@@ -0,0 +1,253 @@
+package com.alexvasilkov.telegram.chart.data;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.Chart.Source;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rollup pyramid of a chart: a set of coarser charts where each point represents a bucket of
+ * consecutive points of the original chart. Buckets follow resolutions (5 min, hour, day,
+ * week), continuing by a factor of 4 afterwards, until level is too small to be useful.
+ * <p>
+ * Buckets are aggregated according to chart type, so that coarser level looks the same when
+ * drawn with at least one point per pixel:
+ * <ul>
+ * <li>Lines: min and max values of each bucket, in order of their appearance.</li>
+ * <li>Bars: the point with max sum of all sources.</li>
+ * <li>Areas: average values.</li>
+ * </ul>
+ * Bars are not summed: levels are drawn within the Y range computed by the base painter for
+ * the original points, so a bucket's sum would be up to {@code step} times taller than any
+ * original bar and would not fit. The bar with max sum keeps the tallest visible stack (and so
+ * the Y range), which averaging would flatten.
+ * Pie charts have no levels.
+ * <p>
+ * Point {@code j} of a level covers points range {@code [j * step, (j + 1) * step)} of the
+ * original chart, see {@link Level#toLevelX(float)} and {@link Level#toBaseX(float)}.
+ */
+public class ChartLevels {
+
+    // Levels which are smaller than any screen are never used
+    private static final int MIN_LEVEL_SIZE = 256;
+    private static final int EXTRA_FACTOR = 4;
+
+    private final Level[] levels;
+
+    private ChartLevels(Level[] levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * Number of levels, not including original chart.
+     */
+    public int size() {
+        return levels.length;
+    }
+
+    /**
+     * Returns level for given index, from finest to coarsest.
+     */
+    public Level get(int index) {
+        return levels[index];
+    }
+
+
+    public static ChartLevels build(Chart chart) {
+        final List<Level> levels = new ArrayList<>();
+
+        if (chart.type != Chart.Type.PIE) {
+            final int size = chart.x.length;
+            final boolean lines = chart.type == Chart.Type.LINES
+                    || chart.type == Chart.Type.LINES_INDEPENDENT;
+
+            Resolution resolution = chart.resolution;
+            int factor = 1;
+
+            while (true) {
+                final Resolution next = nextResolution(resolution);
+                final int stepFactor = next == resolution
+                        ? EXTRA_FACTOR
+                        : (int) (next.duration / resolution.duration);
+                factor *= stepFactor;
+                resolution = next;
+
+                final int buckets = (size + factor - 1) / factor;
+                final int levelSize = lines ? 2 * buckets : buckets;
+                if (levelSize < MIN_LEVEL_SIZE) {
+                    break;
+                }
+
+                final Chart level;
+                final float step;
+                if (lines) {
+                    level = buildMinMax(chart, resolution, factor, buckets);
+                    step = 0.5f * factor;
+                } else if (chart.type == Chart.Type.BARS) {
+                    level = buildMaxSum(chart, resolution, factor, buckets);
+                    step = factor;
+                } else {
+                    level = buildAverage(chart, resolution, factor, buckets);
+                    step = factor;
+                }
+                levels.add(new Level(level, step));
+            }
+        }
+
+        return new ChartLevels(levels.toArray(new Level[0]));
+    }
+
+    private static Resolution nextResolution(Resolution resolution) {
+        switch (resolution) {
+            case FIVE_MIN:
+                return Resolution.HOUR;
+            case HOUR:
+                return Resolution.DAY;
+            case DAY:
+            case WEEK:
+            default:
+                return Resolution.WEEK;
+        }
+    }
+
+    private static Chart buildMinMax(
+            Chart chart, Resolution resolution, int factor, int buckets) {
+        final int size = chart.x.length;
+        final long[] x = new long[2 * buckets];
+
+        for (int b = 0; b < buckets; b++) {
+            x[2 * b] = x[2 * b + 1] = chart.x[b * factor];
+        }
+
+        final Source[] sources = new Source[chart.sources.length];
+
+        for (int s = 0; s < sources.length; s++) {
+            final int[] values = chart.sources[s].y;
+            final int[] y = new int[2 * buckets];
+
+            for (int b = 0; b < buckets; b++) {
+                final int from = b * factor;
+                final int to = Math.min(from + factor, size);
+
+                int minPos = from;
+                int maxPos = from;
+                for (int i = from + 1; i < to; i++) {
+                    minPos = values[i] < values[minPos] ? i : minPos;
+                    maxPos = values[i] > values[maxPos] ? i : maxPos;
+                }
+
+                // Keeping the order of extremums to preserve the chart's shape
+                y[2 * b] = values[Math.min(minPos, maxPos)];
+                y[2 * b + 1] = values[Math.max(minPos, maxPos)];
+            }
+
+            sources[s] = chart.sources[s].setY(y);
+        }
+
+        return new Chart(chart.id, chart.type, resolution, x, sources);
+    }
+
+    private static Chart buildMaxSum(
+            Chart chart, Resolution resolution, int factor, int buckets) {
+        final int size = chart.x.length;
+        final int sourcesCount = chart.sources.length;
+        final long[] x = new long[buckets];
+        final int[][] y = new int[sourcesCount][buckets];
+
+        for (int b = 0; b < buckets; b++) {
+            final int from = b * factor;
+            final int to = Math.min(from + factor, size);
+
+            int maxPos = from;
+            long maxSum = Long.MIN_VALUE;
+            for (int i = from; i < to; i++) {
+                long sum = 0L;
+                for (int s = 0; s < sourcesCount; s++) {
+                    sum += chart.sources[s].y[i];
+                }
+                if (sum > maxSum) {
+                    maxSum = sum;
+                    maxPos = i;
+                }
+            }
+
+            x[b] = chart.x[from];
+            for (int s = 0; s < sourcesCount; s++) {
+                y[s][b] = chart.sources[s].y[maxPos];
+            }
+        }
+
+        return new Chart(chart.id, chart.type, resolution, x, setY(chart.sources, y));
+    }
+
+    private static Chart buildAverage(
+            Chart chart, Resolution resolution, int factor, int buckets) {
+        final int size = chart.x.length;
+        final int sourcesCount = chart.sources.length;
+        final long[] x = new long[buckets];
+        final int[][] y = new int[sourcesCount][buckets];
+
+        for (int b = 0; b < buckets; b++) {
+            final int from = b * factor;
+            final int to = Math.min(from + factor, size);
+
+            x[b] = chart.x[from];
+            for (int s = 0; s < sourcesCount; s++) {
+                final int[] values = chart.sources[s].y;
+                long sum = 0L;
+                for (int i = from; i < to; i++) {
+                    sum += values[i];
+                }
+                y[s][b] = (int) (sum / (to - from));
+            }
+        }
+
+        return new Chart(chart.id, chart.type, resolution, x, setY(chart.sources, y));
+    }
+
+    private static Source[] setY(Source[] original, int[][] y) {
+        final Source[] sources = new Source[original.length];
+        for (int s = 0; s < sources.length; s++) {
+            sources[s] = original[s].setY(y[s]);
+        }
+        return sources;
+    }
+
+
+    public static class Level {
+        public final Chart chart;
+        /**
+         * Number of original chart points per level point, can be fractional.
+         */
+        public final float step;
+
+        Level(Chart chart, float step) {
+            this.chart = chart;
+            this.step = step;
+        }
+
+        /**
+         * Converts X position in original chart points into level points.
+         */
+        public float toLevelX(float x) {
+            return (x - getOffset()) / step;
+        }
+
+        /**
+         * Converts X position in level points into original chart points.
+         */
+        public float toBaseX(float x) {
+            return x * step + getOffset();
+        }
+
+        /**
+         * Level point is placed in the middle of original points it covers.
+         */
+        public float getOffset() {
+            return 0.5f * (step - 1f);
+        }
+    }
+
+}
@@ -1,8 +1,5 @@
 package com.alexvasilkov.telegram.chart.data;
 
-import android.graphics.Color;
-import android.os.Build;
-
 import com.alexvasilkov.telegram.chart.domain.Chart;
 import com.alexvasilkov.telegram.chart.domain.Chart.Source;
 import com.alexvasilkov.telegram.chart.domain.Resolution;
@@ -13,16 +10,24 @@ import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
-class ChartParser {
+public class ChartParser {
+
+    // Some JSON implementations (e.g. on old Android versions) do not preserve keys order
+    private static final boolean KEYS_ORDER_PRESERVED = checkKeysOrderPreserved();
+
+    // Same color names as supported by Android's Color.parseColor()
+    private static final Map<String, Integer> COLOR_NAMES = createColorNames();
 
     private ChartParser() {} // No instances
 
-    static Chart parse(int id, Resolution resolution, String json) throws JSONException {
+    public static Chart parse(int id, Resolution resolution, String json) throws JSONException {
         final JSONObject object = new JSONObject(json);
         final Object[][] columns = toArrayOfArrays(object.getJSONArray("columns"));
         final Map<String, String> types = toMap(object.getJSONObject("types"));
@@ -43,8 +48,8 @@ class ChartParser {
 
         List<String> yNames = getKeysForValue(types, type);
 
-        if (Build.VERSION.SDK_INT <= Build.VERSION_CODES.KITKAT) {
-            Collections.sort(yNames); // Old versions does not preserve keys order
+        if (!KEYS_ORDER_PRESERVED) {
+            Collections.sort(yNames);
         }
 
         long[] xValues = null;
@@ -69,7 +74,7 @@ class ChartParser {
             String name = names.get(yName);
             checkNotNull(name);
 
-            int color = Color.parseColor(colors.get(yName));
+            int color = parseColor(colors.get(yName));
 
             sources.add(new Source(name, color, yValues));
         }
@@ -156,6 +161,69 @@ class ChartParser {
     }
 
 
+    /**
+     * Parses color in '#RRGGBB' or '#AARRGGBB' format.
+     */
+    /**
+     * Parses color in the same formats as Android's {@code Color.parseColor()}: '#RRGGBB',
+     * '#AARRGGBB' or one of predefined color names.
+     */
+    private static int parseColor(String color) {
+        checkNotNull(color);
+
+        if (color.charAt(0) == '#') {
+            final long value = Long.parseLong(color.substring(1), 16);
+            if (color.length() == 7) {
+                return (int) (value | 0xFF000000L);
+            } else if (color.length() == 9) {
+                return (int) value;
+            }
+        } else {
+            final Integer value = COLOR_NAMES.get(color.toLowerCase(Locale.ROOT));
+            if (value != null) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unknown color: " + color);
+    }
+
+    private static Map<String, Integer> createColorNames() {
+        final Map<String, Integer> names = new HashMap<>();
+        names.put("black", 0xFF000000);
+        names.put("darkgray", 0xFF444444);
+        names.put("gray", 0xFF888888);
+        names.put("lightgray", 0xFFCCCCCC);
+        names.put("white", 0xFFFFFFFF);
+        names.put("red", 0xFFFF0000);
+        names.put("green", 0xFF00FF00);
+        names.put("blue", 0xFF0000FF);
+        names.put("yellow", 0xFFFFFF00);
+        names.put("cyan", 0xFF00FFFF);
+        names.put("magenta", 0xFFFF00FF);
+        names.put("aqua", 0xFF00FFFF);
+        names.put("fuchsia", 0xFFFF00FF);
+        names.put("darkgrey", 0xFF444444);
+        names.put("grey", 0xFF888888);
+        names.put("lightgrey", 0xFFCCCCCC);
+        names.put("lime", 0xFF00FF00);
+        names.put("maroon", 0xFF800000);
+        names.put("navy", 0xFF000080);
+        names.put("olive", 0xFF808000);
+        names.put("purple", 0xFF800080);
+        names.put("silver", 0xFFC0C0C0);
+        names.put("teal", 0xFF008080);
+        return names;
+    }
+
+    private static boolean checkKeysOrderPreserved() {
+        try {
+            final Iterator<String> keys = new JSONObject("{\"b\":0,\"a\":0}").keys();
+            return "b".equals(keys.next());
+        } catch (JSONException ex) {
+            return false;
+        }
+    }
+
     private static void checkNotNull(Object value) {
         if (value == null) {
             throw new NullPointerException("Value is not expected to be null");
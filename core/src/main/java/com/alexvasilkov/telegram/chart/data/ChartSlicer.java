@@ -0,0 +1,87 @@
+package com.alexvasilkov.telegram.chart.data;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.Chart.Source;
+
+import java.util.List;
+
+public class ChartSlicer {
+
+    private ChartSlicer() {} // No instances
+
+    /**
+     * Combines consecutive charts with the same sources into a single chart.
+     */
+    public static Chart merge(List<Chart> charts) {
+        if (charts.isEmpty()) {
+            return null;
+        }
+
+        final Chart first = charts.get(0);
+
+        int size = 0;
+        for (Chart chart : charts) {
+            size += chart.x.length;
+        }
+
+        final long[] x = new long[size];
+        final int[][] y = new int[first.sources.length][size];
+
+        int pos = 0;
+        for (Chart chart : charts) {
+            System.arraycopy(chart.x, 0, x, pos, chart.x.length);
+
+            for (int s = 0; s < chart.sources.length; s++) {
+                final int[] sourceY = chart.sources[s].y;
+                System.arraycopy(sourceY, 0, y[s], pos, sourceY.length);
+            }
+            pos += chart.x.length;
+        }
+
+        final int sourcesCount = first.sources.length;
+        final Source[] sources = new Source[sourcesCount];
+        for (int s = 0; s < sourcesCount; s++) {
+            sources[s] = first.sources[s].setY(y[s]);
+        }
+
+        return first.setX(x).setSources(sources);
+    }
+
+    /**
+     * Returns part of the chart with X values within [from, to] range.
+     */
+    public static Chart subChart(Chart chart, long from, long to) {
+        final int size = chart.x.length;
+        int fromInd = 0;
+        int toInd = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            if (chart.x[i] >= from) {
+                fromInd = i;
+                break;
+            }
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            if (chart.x[i] <= to) {
+                toInd = i;
+                break;
+            }
+        }
+
+        final long[] resultX = new long[toInd - fromInd + 1];
+        System.arraycopy(chart.x, fromInd, resultX, 0, resultX.length);
+
+        final int sourcesCount = chart.sources.length;
+        final Source[] sources = new Source[sourcesCount];
+        for (int s = 0; s < sourcesCount; s++) {
+            final Source source = chart.sources[s];
+            final int[] resultY = new int[toInd - fromInd + 1];
+            System.arraycopy(source.y, fromInd, resultY, 0, resultY.length);
+
+            sources[s] = source.setY(resultY);
+        }
+
+        return chart.setX(resultX).setSources(sources);
+    }
+
+}
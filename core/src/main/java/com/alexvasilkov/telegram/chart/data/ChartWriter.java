@@ -0,0 +1,191 @@
+package com.alexvasilkov.telegram.chart.data;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.Chart.Source;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Writes charts in the JSON format expected by {@link ChartParser}, using the same files
+ * structure as read by the app: 'overview.json' for the main chart and 'yyyy-MM/dd.json' for
+ * each day of details.
+ */
+public class ChartWriter {
+
+    public static final String OVERVIEW_FILE = "overview.json";
+
+    private static final String DATE_FORMAT = "yyyy-MM";
+    private static final String DAY_FILE_FORMAT = "dd'.json'";
+    private static final TimeZone TIME_ZONE = TimeZone.getTimeZone("UTC");
+
+    private static final long DAY = 24L * 60L * 60L * 1000L;
+
+    private ChartWriter() {} // No instances
+
+    public static String toJson(Chart chart) {
+        final StringWriter out = new StringWriter();
+        try {
+            write(chart, 0, chart.x.length - 1, out);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex); // Should never happen for StringWriter
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes overview chart into 'overview.json' file within given chart directory.
+     */
+    public static void writeOverview(Chart chart, File chartDir) throws IOException {
+        write(chart, 0, chart.x.length - 1, new File(chartDir, OVERVIEW_FILE));
+    }
+
+    /**
+     * Splits details chart into separate days (in UTC) and writes each day into
+     * 'yyyy-MM/dd.json' file within given chart directory. Days where all the values are 0 are
+     * considered as missing data and are not written.
+     *
+     * @return Number of written days.
+     */
+    public static int writeDays(Chart chart, File chartDir) throws IOException {
+        final SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT, Locale.US);
+        dateFormat.setTimeZone(TIME_ZONE);
+
+        final SimpleDateFormat dayFileFormat = new SimpleDateFormat(DAY_FILE_FORMAT, Locale.US);
+        dayFileFormat.setTimeZone(TIME_ZONE);
+
+        final int size = chart.x.length;
+        int written = 0;
+        int from = 0;
+
+        while (from < size) {
+            final long dayStart = startOfDay(chart.x[from]);
+            final long dayEnd = dayStart + DAY;
+
+            int to = from;
+            while (to + 1 < size && chart.x[to + 1] < dayEnd) {
+                to++;
+            }
+
+            if (hasValues(chart, from, to)) {
+                final File dir = new File(chartDir, dateFormat.format(dayStart));
+                write(chart, from, to, new File(dir, dayFileFormat.format(dayStart)));
+                written++;
+            }
+
+            from = to + 1;
+        }
+
+        return written;
+    }
+
+
+    private static void write(Chart chart, int from, int to, File file) throws IOException {
+        final File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create directory: " + dir);
+        }
+
+        final Charset charset = Charset.forName("UTF-8");
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), charset))) {
+            write(chart, from, to, out);
+        }
+    }
+
+    private static void write(Chart chart, int from, int to, Writer out) throws IOException {
+        final Source[] sources = chart.sources;
+
+        out.write("{\"columns\":[[\"x\"");
+        for (int i = from; i <= to; i++) {
+            out.write(',');
+            out.write(Long.toString(chart.x[i]));
+        }
+        out.write(']');
+
+        for (int s = 0; s < sources.length; s++) {
+            out.write(",[\"" + key(s) + "\"");
+            final int[] y = sources[s].y;
+            for (int i = from; i <= to; i++) {
+                out.write(',');
+                out.write(Integer.toString(y[i]));
+            }
+            out.write(']');
+        }
+        out.write("],");
+
+        out.write("\"types\":{\"x\":\"x\"");
+        final String type = toJsonType(chart.type);
+        for (int s = 0; s < sources.length; s++) {
+            out.write(",\"" + key(s) + "\":\"" + type + "\"");
+        }
+        out.write("},");
+
+        out.write("\"names\":{");
+        for (int s = 0; s < sources.length; s++) {
+            final String name = escape(sources[s].name);
+            out.write((s == 0 ? "" : ",") + "\"" + key(s) + "\":\"" + name + "\"");
+        }
+        out.write("},");
+
+        out.write("\"colors\":{");
+        for (int s = 0; s < sources.length; s++) {
+            final String color = String.format(Locale.US, "#%06X", sources[s].color & 0xFFFFFF);
+            out.write((s == 0 ? "" : ",") + "\"" + key(s) + "\":\"" + color + "\"");
+        }
+        out.write('}');
+
+        if (chart.type == Chart.Type.LINES_INDEPENDENT) {
+            out.write(",\"y_scaled\":true");
+        }
+        out.write('}');
+    }
+
+    private static boolean hasValues(Chart chart, int from, int to) {
+        for (Source source : chart.sources) {
+            for (int i = from; i <= to; i++) {
+                if (source.y[i] != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static long startOfDay(long time) {
+        final long timeOfDay = time % DAY;
+        return time - (timeOfDay < 0L ? timeOfDay + DAY : timeOfDay);
+    }
+
+    private static String key(int sourceInd) {
+        return "y" + sourceInd;
+    }
+
+    private static String toJsonType(Chart.Type type) {
+        switch (type) {
+            case LINES:
+            case LINES_INDEPENDENT:
+                return "line";
+            case BARS:
+                return "bar";
+            case AREA:
+                return "area";
+            default:
+                throw new IllegalArgumentException("Unsupported type: " + type);
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.alexvasilkov.telegram.chart.domain;
+
+import com.alexvasilkov.telegram.chart.utils.TextBuffer;
+
+public interface FormatterValue {
+
+    /**
+     * Appends formatted value to the given buffer, should not allocate any new objects.
+     */
+    void format(int value, int maxValue, TextBuffer out);
+
+}
@@ -0,0 +1,128 @@
+package com.alexvasilkov.telegram.chart.domain;
+
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups of chart points in UTC, all the methods are using {@link UtcDates} arithmetic instead
+ * of {@link java.util.Calendar}, while keeping calendar semantics. Weeks start on Monday.
+ * <p>
+ * To find groups within a particular chart use {@link GroupsIndex}.
+ */
+public enum GroupBy {
+    HOUR(TimeUnit.HOURS.toMillis(1L)),
+    DAY(TimeUnit.DAYS.toMillis(1L)),
+    WEEK(TimeUnit.DAYS.toMillis(7L)),
+    MONTH(TimeUnit.DAYS.toMillis(30L)),
+    YEAR(TimeUnit.DAYS.toMillis(365L));
+
+    private final long duration;
+
+    GroupBy(long duration) {
+        this.duration = duration;
+    }
+
+    public int stepsCount(Resolution resolution) {
+        return Math.round(duration / (float) resolution.duration);
+    }
+
+    public float distance(long from, long to) {
+        return ((to - from) / (float) duration);
+    }
+
+    public boolean isStart(long time) {
+        switch (this) {
+            case HOUR:
+                // Only minutes are checked
+                return UtcDates.timeOfDay(time) % UtcDates.HOUR < UtcDates.MINUTE;
+            case DAY:
+                // Only hours and minutes are checked
+                return UtcDates.timeOfDay(time) < UtcDates.MINUTE;
+            case WEEK:
+                return UtcDates.daysSinceMonday(time) == 0;
+            case MONTH:
+                return UtcDates.dayOfMonth(time) == 1;
+            case YEAR:
+                return UtcDates.dayOfYear(time) == 1;
+            default:
+                throw new IllegalArgumentException("Unknown type: " + this);
+        }
+    }
+
+    public long getClosestStart(long time, int direction) {
+        if (isStart(time)) {
+            return time;
+        }
+
+        final long result;
+
+        switch (this) {
+            case HOUR:
+                // Resetting minutes only, same as setting calendar's MINUTE to 0
+                final long minutes = UtcDates.timeOfDay(time) % UtcDates.HOUR / UtcDates.MINUTE;
+                result = time - minutes * UtcDates.MINUTE;
+                return direction > 0 ? result + UtcDates.HOUR : result;
+            case DAY:
+                // Resetting hours only, same as setting calendar's HOUR_OF_DAY to 0
+                final long hours = UtcDates.timeOfDay(time) / UtcDates.HOUR;
+                result = time - hours * UtcDates.HOUR;
+                return direction > 0 ? result + UtcDates.DAY : result;
+            case WEEK:
+                // Resetting day of week only, same as setting calendar's DAY_OF_WEEK to MONDAY
+                result = time - UtcDates.daysSinceMonday(time) * UtcDates.DAY;
+                return direction > 0 ? result + 7L * UtcDates.DAY : result;
+            case MONTH:
+                // Resetting day of month only, same as setting calendar's DAY_OF_MONTH to 1
+                result = time - (UtcDates.dayOfMonth(time) - 1) * UtcDates.DAY;
+                return direction > 0 ? UtcDates.addMonths(result, 1) : result;
+            case YEAR:
+                // Resetting day of year only, same as setting calendar's DAY_OF_YEAR to 1
+                result = time - (UtcDates.dayOfYear(time) - 1) * UtcDates.DAY;
+                return direction > 0 ? UtcDates.addMonths(result, 12) : result;
+            default:
+                throw new IllegalArgumentException("Unknown type: " + this);
+        }
+    }
+
+    /**
+     * Start of the group containing given time. Unlike {@link #getClosestStart(long, int)} all
+     * the fields below group unit are cleared, e.g. hours, minutes and seconds for days.
+     */
+    public long getGroupStart(long time) {
+        final long days = UtcDates.days(time);
+
+        switch (this) {
+            case HOUR:
+                return time - UtcDates.timeOfDay(time) % UtcDates.HOUR;
+            case DAY:
+                return days * UtcDates.DAY;
+            case WEEK:
+                return (days - UtcDates.daysSinceMonday(time)) * UtcDates.DAY;
+            case MONTH:
+                return (days - UtcDates.dayOfMonth(time) + 1L) * UtcDates.DAY;
+            case YEAR:
+                return (days - UtcDates.dayOfYear(time) + 1L) * UtcDates.DAY;
+            default:
+                throw new IllegalArgumentException("Unknown type: " + this);
+        }
+    }
+
+    public long add(long time, int amount) {
+        switch (this) {
+            case HOUR:
+                return time + amount * UtcDates.HOUR;
+            case DAY:
+                return time + amount * UtcDates.DAY;
+            case WEEK:
+                return time + amount * 7L * UtcDates.DAY;
+            case MONTH:
+                return UtcDates.addMonths(time, amount);
+            case YEAR:
+                return UtcDates.addMonths(time, 12 * amount);
+            default:
+                throw new IllegalArgumentException("Unknown type: " + this);
+        }
+    }
+
+
+}
@@ -0,0 +1,129 @@
+package com.alexvasilkov.telegram.chart.domain;
+
+import java.util.Arrays;
+
+/**
+ * Sorted positions of groups starts within a particular chart, allowing to find closest group
+ * start for any chart position with a binary search.
+ */
+public class GroupsIndex {
+
+    public final GroupBy groupBy;
+
+    private final int[] starts;
+
+    private GroupsIndex(GroupBy groupBy, int[] starts) {
+        this.groupBy = groupBy;
+        this.starts = starts;
+    }
+
+    /**
+     * Builds index of chart points for which {@link GroupBy#isStart(long)} is true, by jumping
+     * from one group to another, so it only takes O(g * log(n)) time, where g is a number of
+     * groups and n is a number of chart points.
+     * <p>
+     * Group start check only passes for times within the beginning of the group (e.g. within
+     * the first minute of a day), so once a point fails the check the rest of its group can be
+     * skipped. Groups which start at the time which is not present in chart (e.g. within a gap)
+     * are skipped.
+     */
+    public static GroupsIndex build(Chart chart, GroupBy groupBy) {
+        final long[] x = chart.x;
+        final int size = x.length;
+
+        int[] starts = new int[16];
+        int count = 0;
+
+        int pos = 0;
+        while (pos < size) {
+            if (groupBy.isStart(x[pos])) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, 2 * count);
+                }
+                starts[count++] = pos++;
+            } else {
+                // Jumping to the first point at or after the next group start
+                final long next = groupBy.add(groupBy.getGroupStart(x[pos]), 1);
+                pos = ceilPos(x, pos + 1, size, next);
+            }
+        }
+
+        return new GroupsIndex(groupBy, Arrays.copyOf(starts, count));
+    }
+
+    /**
+     * Same as {@link #build(Chart, GroupBy)} but for given number of points evenly spaced with
+     * given resolution, starting at 'from'.
+     */
+    public static GroupsIndex build(long from, Resolution resolution, int size, GroupBy groupBy) {
+        final long step = resolution.duration;
+
+        int[] starts = new int[16];
+        int count = 0;
+
+        int pos = 0;
+        while (pos < size) {
+            final long time = from + pos * step;
+            if (groupBy.isStart(time)) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, 2 * count);
+                }
+                starts[count++] = pos++;
+            } else {
+                // Jumping to the first point at or after the next group start
+                final long next = groupBy.add(groupBy.getGroupStart(time), 1);
+                pos = (int) Math.max(pos + 1, (next - from + step - 1) / step);
+            }
+        }
+
+        return new GroupsIndex(groupBy, Arrays.copyOf(starts, count));
+    }
+
+    private static int ceilPos(long[] x, int from, int to, long time) {
+        final int pos = Arrays.binarySearch(x, from, to, time);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    /**
+     * Number of groups starts within the chart.
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * Chart position of the group start with given index.
+     */
+    public int get(int index) {
+        return starts[index];
+    }
+
+    public boolean isStart(int pos) {
+        return Arrays.binarySearch(starts, pos) >= 0;
+    }
+
+    /**
+     * Returns position of the closest group start at or before given position, or -1 if none.
+     */
+    public int floor(int pos) {
+        final int ind = Arrays.binarySearch(starts, pos);
+        if (ind >= 0) {
+            return pos;
+        }
+        final int insertion = -ind - 1;
+        return insertion == 0 ? -1 : starts[insertion - 1];
+    }
+
+    /**
+     * Returns position of the closest group start at or after given position, or -1 if none.
+     */
+    public int ceil(int pos) {
+        final int ind = Arrays.binarySearch(starts, pos);
+        if (ind >= 0) {
+            return pos;
+        }
+        final int insertion = -ind - 1;
+        return insertion == starts.length ? -1 : starts[insertion];
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.alexvasilkov.telegram.chart.domain;
+
+import java.util.concurrent.TimeUnit;
+
+public enum Resolution {
+    WEEK(TimeUnit.DAYS.toMillis(7L)),
+    DAY(TimeUnit.DAYS.toMillis(1L)),
+    HOUR(TimeUnit.HOURS.toMillis(1L)),
+    FIVE_MIN(TimeUnit.MINUTES.toMillis(5L));
+
+    public final long duration;
+
+    Resolution(long duration) {
+        this.duration = duration;
+    }
+
+    public float distance(long from, long to) {
+        return ((to - from) / (float) duration);
+    }
+
+    /**
+     * Adds given amount of steps to the time. All resolutions have fixed duration in UTC,
+     * so it is the same as adding corresponding calendar fields.
+     */
+    public long add(long time, int amount) {
+        return time + amount * duration;
+    }
+
+}
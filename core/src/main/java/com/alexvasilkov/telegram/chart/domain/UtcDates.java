@@ -0,0 +1,128 @@
+package com.alexvasilkov.telegram.chart.domain;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calendar arithmetic in UTC using plain epoch millis, it produces the same results as
+ * {@link java.util.GregorianCalendar} with UTC time zone (for dates after Gregorian calendar
+ * adoption in 1582) but is much faster and does not allocate.
+ * <p>
+ * Date conversions are based on H. Hinnant's "chrono-compatible low-level date algorithms".
+ */
+final class UtcDates {
+
+    static final long DAY = TimeUnit.DAYS.toMillis(1L);
+    static final long HOUR = TimeUnit.HOURS.toMillis(1L);
+    static final long MINUTE = TimeUnit.MINUTES.toMillis(1L);
+
+    private UtcDates() {}
+
+    /**
+     * Number of whole days since epoch.
+     */
+    static long days(long time) {
+        final long days = time / DAY;
+        return time % DAY < 0L ? days - 1L : days;
+    }
+
+    /**
+     * Milliseconds since start of the day.
+     */
+    static long timeOfDay(long time) {
+        return time - days(time) * DAY;
+    }
+
+    /**
+     * Number of whole days since last Monday, 0 for Monday.
+     */
+    static int daysSinceMonday(long time) {
+        // Epoch (1970-01-01) was Thursday, i.e. 3 days after Monday
+        final long days = days(time) + 3L;
+        final long mod = days % 7L;
+        return (int) (mod < 0L ? mod + 7L : mod);
+    }
+
+    /**
+     * Day of year, 1 for January 1.
+     */
+    static int dayOfYear(long time) {
+        final long days = days(time);
+        final long doy = dayOfYearFromMarch(days);
+        final long mp = (5L * doy + 2L) / 153L;
+        final long month = mp < 10L ? mp + 3L : mp - 9L;
+        // Years are counted from March, so January and February belong to previous one
+        final long year = yearFromMarch(days) + (month <= 2L ? 1L : 0L);
+        return (int) (days - daysFromCivil(year, 1L, 1L) + 1L);
+    }
+
+    static int dayOfMonth(long time) {
+        final long doy = dayOfYearFromMarch(days(time));
+        final long mp = (5L * doy + 2L) / 153L;
+        return (int) (doy - (153L * mp + 2L) / 5L + 1L);
+    }
+
+    /**
+     * Adds given amount of months keeping the time of the day. Day of month is pinned to the last
+     * day of resulting month if needed, same as {@link java.util.Calendar#add}.
+     */
+    static long addMonths(long time, int amount) {
+        final long days = days(time);
+        final long timeOfDay = time - days * DAY;
+
+        // Converting days to civil date
+        final long z = days + 719468L;
+        final long era = (z >= 0L ? z : z - 146096L) / 146097L;
+        final long doe = z - era * 146097L;
+        final long yoe = (doe - doe / 1460L + doe / 36524L - doe / 146096L) / 365L;
+        final long doy = doe - (365L * yoe + yoe / 4L - yoe / 100L);
+        final long mp = (5L * doy + 2L) / 153L;
+        final long day = doy - (153L * mp + 2L) / 5L + 1L;
+        final long month = mp < 10L ? mp + 3L : mp - 9L;
+        final long year = yoe + era * 400L + (month <= 2L ? 1L : 0L);
+
+        // Adding months
+        final long monthsTotal = year * 12L + (month - 1L) + amount;
+        final long newYear = monthsTotal >= 0L ? monthsTotal / 12L : (monthsTotal - 11L) / 12L;
+        final long newMonth = monthsTotal - newYear * 12L + 1L;
+        final long newDay = Math.min(day, daysInMonth(newYear, newMonth));
+
+        return daysFromCivil(newYear, newMonth, newDay) * DAY + timeOfDay;
+    }
+
+    private static long dayOfYearFromMarch(long days) {
+        final long z = days + 719468L;
+        final long era = (z >= 0L ? z : z - 146096L) / 146097L;
+        final long doe = z - era * 146097L;
+        final long yoe = (doe - doe / 1460L + doe / 36524L - doe / 146096L) / 365L;
+        return doe - (365L * yoe + yoe / 4L - yoe / 100L);
+    }
+
+    private static long daysFromCivil(long year, long month, long day) {
+        final long y = month <= 2L ? year - 1L : year;
+        final long era = (y >= 0L ? y : y - 399L) / 400L;
+        final long yoe = y - era * 400L;
+        final long doy = (153L * (month > 2L ? month - 3L : month + 9L) + 2L) / 5L + day - 1L;
+        final long doe = yoe * 365L + yoe / 4L - yoe / 100L + doy;
+        return era * 146097L + doe - 719468L;
+    }
+
+    private static long yearFromMarch(long days) {
+        final long z = days + 719468L;
+        final long era = (z >= 0L ? z : z - 146096L) / 146097L;
+        final long doe = z - era * 146097L;
+        final long yoe = (doe - doe / 1460L + doe / 36524L - doe / 146096L) / 365L;
+        return yoe + era * 400L;
+    }
+
+    private static boolean isLeapYear(long year) {
+        return year % 4L == 0L && (year % 100L != 0L || year % 400L == 0L);
+    }
+
+    private static long daysInMonth(long year, long month) {
+        if (month == 2L) {
+            return isLeapYear(year) ? 29L : 28L;
+        }
+        return month == 4L || month == 6L || month == 9L || month == 11L ? 30L : 31L;
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+/**
+ * Counts memory allocations made by current thread, used to check that drawing hot paths do not
+ * allocate. Counted units depend on implementation (e.g. objects or bytes), only the difference
+ * between two calls is meaningful.
+ */
+public interface AllocationCounter {
+
+    /**
+     * Returns number of allocations made by current thread so far.
+     */
+    long count();
+
+}
@@ -0,0 +1,202 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.Chart.Source;
+
+import java.util.Arrays;
+
+/**
+ * Y values ranges calculations used by chart painters.
+ */
+public class ChartRanges {
+
+    private ChartRanges() {} // No instances
+
+    /**
+     * Stores min and max Y values across all visible sources, within [from, to] points range,
+     * taking sources scales into account.
+     */
+    public static void linesRange(
+            Chart chart,
+            float[] sourcesScales,
+            int from,
+            int to,
+            boolean[] sourcesStates,
+            Range yRange
+    ) {
+        float minY = Float.MAX_VALUE;
+        float maxY = Float.MIN_VALUE;
+
+        for (int l = 0, size = chart.sources.length; l < size; l++) {
+            if (!sourcesStates[l]) {
+                continue; // Ignoring invisible sources
+            }
+
+            final Source source = chart.sources[l];
+            final float valueScale = sourcesScales[l];
+
+            for (int i = from; i <= to; i++) {
+                final float value = source.y[i] * valueScale;
+                minY = minY > value ? value : minY;
+                maxY = maxY < value ? value : maxY;
+            }
+        }
+
+        setLinesRange(minY, maxY, yRange);
+    }
+
+    private static void setLinesRange(float minY, float maxY, Range yRange) {
+        if (minY == Float.MAX_VALUE) {
+            minY = 0;
+        }
+        if (maxY == Float.MIN_VALUE) {
+            maxY = minY + 1;
+        }
+
+        yRange.set(minY, maxY);
+    }
+
+    /**
+     * Stores Y range from 0 to max sum of all visible sources, within [from, to] points range.
+     */
+    public static void stackedRange(
+            Chart chart,
+            int from,
+            int to,
+            boolean[] sourcesStates,
+            Range yRange
+    ) {
+        final int sourcesCount = chart.sources.length;
+
+        int maxY = Integer.MIN_VALUE;
+
+        for (int i = from; i <= to; i++) {
+            int sum = 0;
+
+            for (int s = 0; s < sourcesCount; s++) {
+                if (sourcesStates[s]) {
+                    sum += chart.sources[s].y[i];
+                }
+            }
+
+            maxY = maxY < sum ? sum : maxY;
+        }
+
+        setStackedRange(maxY, yRange);
+    }
+
+    private static void setStackedRange(int maxY, Range yRange) {
+        final int minY = 0; // Always starting from 0
+
+        if (maxY <= minY) {
+            maxY = minY + 1;
+        }
+
+        yRange.set(minY, maxY);
+    }
+
+
+    /**
+     * Creates incremental version of {@link #linesRange} for windows which are moved by small
+     * steps.
+     */
+    public static SlidingRange linesSlidingRange(Chart chart, float[] sourcesScales) {
+        return new LinesSlidingRange(chart, sourcesScales);
+    }
+
+    /**
+     * Creates incremental version of {@link #stackedRange} for windows which are moved by small
+     * steps.
+     */
+    public static SlidingRange stackedSlidingRange(Chart chart) {
+        return new StackedSlidingRange(chart);
+    }
+
+
+    private static class LinesSlidingRange extends SlidingRange {
+        private final Chart chart;
+        private final float[] sourcesScales;
+        private final float[] usedScales;
+
+        LinesSlidingRange(Chart chart, float[] sourcesScales) {
+            super(chart.sources.length);
+            this.chart = chart;
+            this.sourcesScales = sourcesScales;
+            this.usedScales = sourcesScales.clone();
+        }
+
+        @Override
+        boolean isInputValid() {
+            // Sources scales can be changed by painter's owner
+            return Arrays.equals(usedScales, sourcesScales);
+        }
+
+        @Override
+        void storeInput() {
+            System.arraycopy(sourcesScales, 0, usedScales, 0, usedScales.length);
+        }
+
+        @Override
+        double minValue(int pos) {
+            float minY = Float.NaN;
+            for (int s = 0, size = chart.sources.length; s < size; s++) {
+                if (sourcesStates[s]) {
+                    final float value = chart.sources[s].y[pos] * sourcesScales[s];
+                    minY = !(minY <= value) ? value : minY;
+                }
+            }
+            return minY;
+        }
+
+        @Override
+        double maxValue(int pos) {
+            float maxY = Float.NaN;
+            for (int s = 0, size = chart.sources.length; s < size; s++) {
+                if (sourcesStates[s]) {
+                    final float value = chart.sources[s].y[pos] * sourcesScales[s];
+                    maxY = !(maxY >= value) ? value : maxY;
+                }
+            }
+            return maxY;
+        }
+
+        @Override
+        void setRange(double minValue, double maxValue, Range yRange) {
+            // Same rules as in non-incremental version
+            final float minY = Double.isNaN(minValue) ? Float.MAX_VALUE : (float) minValue;
+            final float maxY = Double.isNaN(maxValue) ? Float.MIN_VALUE : (float) maxValue;
+            setLinesRange(minY, Math.max(maxY, Float.MIN_VALUE), yRange);
+        }
+    }
+
+    private static class StackedSlidingRange extends SlidingRange {
+        private final Chart chart;
+
+        StackedSlidingRange(Chart chart) {
+            super(chart.sources.length);
+            this.chart = chart;
+        }
+
+        @Override
+        double minValue(int pos) {
+            return Double.NaN; // Always starting from 0
+        }
+
+        @Override
+        double maxValue(int pos) {
+            int sum = 0;
+            for (int s = 0, size = chart.sources.length; s < size; s++) {
+                if (sourcesStates[s]) {
+                    sum += chart.sources[s].y[pos];
+                }
+            }
+            return sum;
+        }
+
+        @Override
+        void setRange(double minValue, double maxValue, Range yRange) {
+            setStackedRange(Double.isNaN(maxValue) ? Integer.MIN_VALUE : (int) maxValue, yRange);
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+import java.util.Arrays;
+
+/**
+ * Android-free record of drawing commands: commands types with their float arguments and paints
+ * colors. Storage grows on demand and is reused after {@link #reset()}, so recording frames of
+ * similar complexity does not allocate. Recorded commands can be replayed with
+ * {@link #replay(Player)}.
+ */
+public class DrawRecording {
+
+    public static final int SAVE = 0; // No arguments
+    public static final int RESTORE = 1; // No arguments
+    public static final int SCALE = 2; // sx, sy, px, py
+    public static final int LINE = 3; // startX, startY, stopX, stopY
+    public static final int LINES = 4; // Lines points, 4 per line
+    public static final int PATH = 5; // Path bounds: left, top, right, bottom
+    public static final int CIRCLE = 6; // cx, cy, radius
+    public static final int ARC = 7; // Oval bounds, start angle, sweep angle, use center (0 or 1)
+    public static final int TEXT = 8; // x, y, characters count
+
+    private static final int TYPES_COUNT = 9;
+
+    private int[] types = new int[64];
+    private int[] colors = new int[64];
+    private int[] argsEnds = new int[64];
+    private float[] args = new float[256];
+
+    private int size;
+    private int argsSize;
+
+    private final int[] calls = new int[TYPES_COUNT];
+    private int lines;
+
+    public void reset() {
+        size = 0;
+        argsSize = 0;
+        Arrays.fill(calls, 0);
+        lines = 0;
+    }
+
+    /**
+     * Starts a new command, its arguments should be added right after that.
+     */
+    public DrawRecording add(int type, int color) {
+        if (size == types.length) {
+            final int capacity = 2 * size;
+            types = Arrays.copyOf(types, capacity);
+            colors = Arrays.copyOf(colors, capacity);
+            argsEnds = Arrays.copyOf(argsEnds, capacity);
+        }
+
+        types[size] = type;
+        colors[size] = color;
+        argsEnds[size] = argsSize;
+        size++;
+
+        calls[type]++;
+        if (type == LINE) {
+            lines++;
+        }
+        return this;
+    }
+
+    public DrawRecording arg(float value) {
+        ensureArgsCapacity(1);
+        args[argsSize++] = value;
+        argsEnds[size - 1] = argsSize;
+        return this;
+    }
+
+    public DrawRecording args(float[] values, int offset, int count) {
+        ensureArgsCapacity(count);
+        System.arraycopy(values, offset, args, argsSize, count);
+        argsSize += count;
+        argsEnds[size - 1] = argsSize;
+
+        if (types[size - 1] == LINES) {
+            lines += count / 4;
+        }
+        return this;
+    }
+
+    private void ensureArgsCapacity(int count) {
+        if (argsSize + count > args.length) {
+            args = Arrays.copyOf(args, Math.max(2 * args.length, argsSize + count));
+        }
+    }
+
+    /**
+     * Returns number of recorded commands.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns number of recorded commands of given type.
+     */
+    public int getCalls(int type) {
+        return calls[type];
+    }
+
+    /**
+     * Returns number of recorded drawing commands, each command can emit several primitives.
+     */
+    public int getCalls() {
+        return size - calls[SAVE] - calls[RESTORE] - calls[SCALE];
+    }
+
+    /**
+     * Returns number of separate lines, drawn either one by one or in batches.
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    /**
+     * Returns total number of emitted primitives: separate lines, paths, circles, arcs and texts.
+     */
+    public int getPrimitives() {
+        return lines + calls[PATH] + calls[CIRCLE] + calls[ARC] + calls[TEXT];
+    }
+
+    /**
+     * Passes all recorded commands to given player, in recording order.
+     */
+    public void replay(Player player) {
+        for (int i = 0; i < size; i++) {
+            final int from = i == 0 ? 0 : argsEnds[i - 1];
+            player.play(types[i], colors[i], args, from, argsEnds[i] - from);
+        }
+    }
+
+
+    public interface Player {
+        /**
+         * Plays a single command, its arguments are stored in given array starting from offset.
+         */
+        void play(int type, int color, float[] args, int offset, int count);
+    }
+
+}
@@ -2,12 +2,9 @@ package com.alexvasilkov.telegram.chart.utils;
 
 import com.alexvasilkov.telegram.chart.domain.Chart;
 import com.alexvasilkov.telegram.chart.domain.GroupBy;
+import com.alexvasilkov.telegram.chart.domain.GroupsIndex;
 import com.alexvasilkov.telegram.chart.domain.Resolution;
 
-import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.List;
-import java.util.TimeZone;
 
 public class LabelsHelper {
 
@@ -43,11 +40,10 @@ public class LabelsHelper {
         final long fromDate = chart.x[0];
         final long toDate = chart.x[size - 1];
         final Resolution resolution = chart.resolution;
-        final Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
 
         // If grouping is not specified or chart range does not include at least 1 group
         // then we'll return an array of evenly distributed levels.
-        if (groupBy == null || toDate < groupBy.add(cal, fromDate, 1)) {
+        if (groupBy == null || toDate < groupBy.add(fromDate, 1)) {
             return computeEvenlyDistributedLevels(size);
         }
 
@@ -60,29 +56,28 @@ public class LabelsHelper {
         // and all the lower levels we'll have a power-of-2 levels distribution.
 
         // Computing start of the first group, should be earlier than 'fromDate'
-        final long fromDateExt = groupBy.getClosestStart(cal, groupBy.add(cal, fromDate, -1), 1);
+        final long fromDateExt = groupBy.getClosestStart(groupBy.add(fromDate, -1), 1);
 
         // Computing end of the last group, should be later than 'toDate'
-        final long toDateExt = groupBy.getClosestStart(cal, groupBy.add(cal, toDate, 1), -1);
+        final long toDateExt = groupBy.getClosestStart(groupBy.add(toDate, 1), -1);
 
         final int sizeExt = Math.round(resolution.distance(fromDateExt, toDateExt)) + 1;
+        final int daysOffset = Math.round(resolution.distance(fromDateExt, fromDate));
 
-        final List<Integer> groupsStartPos = new ArrayList<>();
-
-        for (int i = 0; i < sizeExt; i++) {
-            final long time = resolution.add(cal, fromDateExt, i);
-            if (groupBy.isStart(cal, time)) {
-                groupsStartPos.add(i);
-            }
-        }
-
-        final int groupsSizeExt = groupsStartPos.size();
+        // Groups starts are checked for extended range points with the same resolution
+        final GroupsIndex index = GroupsIndex.build(fromDateExt, resolution, sizeExt, groupBy);
+        final int groupsSizeExt = index.size();
 
         // We took extra groups starts in the start and in the end when computed
         // 'fromDateExt' and 'toDateExt', but they should not be considered.
-        // Always > 0 since we already checked that we have at least 1 group (see above).
         final int groupsSize = groupsSizeExt - 2;
 
+        // Groups can't be distributed if chart points are not aligned with groups starts
+        // (e.g. 5 minutes points starting at 00:02 have no days starts)
+        if (groupsSize < 2) {
+            return computeEvenlyDistributedLevels(size);
+        }
+
         // Evenly distributing groups starting points, as if there are no other chart points
         final float[] groupsLevels = computeEvenlyDistributedLevels(groupsSize);
 
@@ -102,19 +97,18 @@ public class LabelsHelper {
         final float[] levelsExt = new float[sizeExt];
 
         for (int i = 0; i < groupsSizeExt; i++) {
-            final int pos = groupsStartPos.get(i);
+            final int pos = index.get(i);
             final int shifted = (groupsSizeExt - 1 - i) % groupsSizeExt;
             levelsExt[pos] = groupsLevelsExt[shifted] * levelsMultiplier;
 
             if (i != 0) {
-                final int prevPos = groupsStartPos.get(i - 1);
+                final int prevPos = index.get(i - 1);
                 final float level = Math.min(levelsExt[prevPos], levelsExt[pos]);
                 fillLevelsInHalves(levelsExt, level, prevPos, pos);
             }
         }
 
         final float[] levels = new float[size];
-        final int daysOffset = Math.round(resolution.distance(fromDateExt, fromDate));
         System.arraycopy(levelsExt, daysOffset, levels, 0, size);
         return levels;
     }
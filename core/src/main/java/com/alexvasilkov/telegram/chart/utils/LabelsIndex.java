@@ -0,0 +1,81 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+/**
+ * Index of labels positions by their levels (see {@link LabelsHelper#computeLabelsLevels}).
+ * Allows visiting only labels of at least given level within a range of positions, instead of
+ * walking all the positions in between.
+ * <p>
+ * Positions are split into tiers: tier 0 holds all the positions and tier {@code t > 0} holds
+ * positions with level of at least {@code 2^(t-1)}. Since labels levels are halved on each
+ * deeper level, each tier is about twice smaller than the previous one.
+ */
+public class LabelsIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final int[][] tiers;
+
+    public LabelsIndex(float[] levels) {
+        final int size = levels.length;
+
+        int maxTier = 0;
+        for (int i = 0; i < size; i++) {
+            maxTier = Math.max(maxTier, getTier(levels[i]));
+        }
+
+        final int[] counts = new int[maxTier + 1];
+        for (int i = 0; i < size; i++) {
+            counts[getTier(levels[i])]++;
+        }
+        // Each tier also includes all positions from higher tiers
+        for (int t = maxTier - 1; t >= 0; t--) {
+            counts[t] += counts[t + 1];
+        }
+
+        tiers = new int[maxTier + 1][];
+        for (int t = 0; t <= maxTier; t++) {
+            tiers[t] = counts[t] == 0 ? EMPTY : new int[counts[t]];
+        }
+
+        final int[] filled = new int[maxTier + 1];
+        for (int i = 0; i < size; i++) {
+            for (int t = getTier(levels[i]); t >= 0; t--) {
+                tiers[t][filled[t]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Returns sorted positions which include all the positions with level of at least given
+     * minimum level. Returned positions may also include positions with lower levels, but not
+     * lower than half of the minimum level (unless minimum level is less than 1).
+     */
+    public int[] getPositions(float minLevel) {
+        final int tier = getTier(minLevel);
+        return tier < tiers.length ? tiers[tier] : EMPTY;
+    }
+
+    /**
+     * Returns index of the first position in sorted positions array which is not less than given
+     * position, or array length if there is no such position.
+     */
+    public static int indexOf(int[] positions, int pos) {
+        int from = 0;
+        int to = positions.length;
+        while (from < to) {
+            final int mid = (from + to) >>> 1;
+            if (positions[mid] < pos) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    private static int getTier(float level) {
+        // Exponent of a float is the floor of its binary logarithm
+        return level < 1f ? 0 : 1 + Math.getExponent(level);
+    }
+
+}
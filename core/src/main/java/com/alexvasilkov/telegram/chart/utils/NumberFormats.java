@@ -0,0 +1,39 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+/**
+ * Allocation-free numbers formatting into {@link TextBuffer}.
+ */
+public class NumberFormats {
+
+    private static final char GROUPING_SEPARATOR = ' ';
+
+    private NumberFormats() {} // No instances
+
+    /**
+     * Appends given value with each 3 digits separated by space, e.g. '12 345'.
+     */
+    public static void grouped(long value, TextBuffer out) {
+        out.appendGrouped(value, GROUPING_SEPARATOR);
+    }
+
+    /**
+     * Appends given value abbreviated with 'K' or 'M' suffix, number of fraction digits depends
+     * on max value, e.g. '1.5K' if max is less than 10 000 and '2K' otherwise.
+     */
+    public static void abbreviated(int value, long max, TextBuffer out) {
+        if (value == 0) {
+            out.append('0');
+        } else if (max >= 10_000_000) {
+            out.appendFixed(value / 1_000_000f, 0).append('M');
+        } else if (max >= 1_000_000) {
+            out.appendFixed(value / 1_000_000f, 1).append('M');
+        } else if (max >= 10_000) {
+            out.appendFixed(value / 1_000f, 0).append('K');
+        } else if (max >= 1_000) {
+            out.appendFixed(value / 1_000f, 1).append('K');
+        } else {
+            out.append(value);
+        }
+    }
+
+}
@@ -0,0 +1,241 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+import java.util.Arrays;
+
+/**
+ * Tracks min and max values within a window of points which is moved by small steps, as it
+ * happens when chart is scrolled. Extrema are kept in monotonic deques, so moving the window by
+ * N points takes O(N) instead of O(window size).
+ * <p>
+ * Deques only survive window ends moving in certain directions (see {@link Extremum}), deques
+ * are rebuilt from scratch if scroll direction is changed or if window is moved too far.
+ * <p>
+ * Values for each point are provided by subclasses, see {@link ChartRanges}.
+ */
+public abstract class SlidingRange {
+
+    private final Extremum min = new Extremum();
+    private final Extremum max = new Extremum();
+
+    // Sources visibility used to compute current deques
+    boolean[] sourcesStates;
+
+    private boolean valid;
+    private boolean anchoredRight;
+    private int from;
+    private int to;
+
+    SlidingRange(int sourcesCount) {
+        sourcesStates = new boolean[sourcesCount];
+    }
+
+    /**
+     * Stores Y range within [from, to] points range into 'yRange'.
+     */
+    public void calculate(int from, int to, boolean[] sourcesStates, Range yRange) {
+        // Both checks are needed, even if states are changed we have to store current input
+        final boolean statesChanged = !Arrays.equals(this.sourcesStates, sourcesStates);
+        final boolean inputChanged = !isInputValid();
+        if (statesChanged || inputChanged) {
+            System.arraycopy(sourcesStates, 0, this.sourcesStates, 0, sourcesStates.length);
+            storeInput();
+            valid = false;
+        }
+
+        final int changes = Math.abs(from - this.from) + Math.abs(to - this.to);
+
+        if (!valid || changes > to - from + 1) {
+            rebuild(from, to, anchoredRight || !valid);
+        } else if (to >= this.to) {
+            if (!anchoredRight) {
+                rebuild(from, to, true);
+            } else {
+                for (int i = this.to + 1; i <= to; i++) {
+                    add(i, true);
+                }
+                for (int i = this.from - 1; i >= from; i--) {
+                    add(i, false);
+                }
+                min.removeBefore(from);
+                max.removeBefore(from);
+            }
+        } else if (from <= this.from) {
+            if (anchoredRight) {
+                rebuild(from, to, false);
+            } else {
+                for (int i = this.from - 1; i >= from; i--) {
+                    add(i, false);
+                }
+                min.removeAfter(to);
+                max.removeAfter(to);
+            }
+        } else {
+            // Window is shrunk from both sides, nothing to reuse
+            rebuild(from, to, anchoredRight);
+        }
+
+        this.from = from;
+        this.to = to;
+
+        final double minValue = min.isEmpty() ? Double.NaN : -min.get(anchoredRight);
+        final double maxValue = max.isEmpty() ? Double.NaN : max.get(anchoredRight);
+        setRange(minValue, maxValue, yRange);
+    }
+
+    /**
+     * Forces full recalculation on next call.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    private void rebuild(int from, int to, boolean anchoredRight) {
+        this.anchoredRight = anchoredRight;
+        this.valid = true;
+
+        min.clear();
+        max.clear();
+
+        if (anchoredRight) {
+            for (int i = from; i <= to; i++) {
+                add(i, true);
+            }
+        } else {
+            for (int i = to; i >= from; i--) {
+                add(i, false);
+            }
+        }
+    }
+
+    private void add(int pos, boolean back) {
+        final double minValue = minValue(pos);
+        if (!Double.isNaN(minValue)) {
+            min.add(pos, -minValue, back, anchoredRight); // Min is tracked as max of negatives
+        }
+        final double maxValue = maxValue(pos);
+        if (!Double.isNaN(maxValue)) {
+            max.add(pos, maxValue, back, anchoredRight);
+        }
+    }
+
+    /**
+     * Returns false if values returned for the same points are changed since last
+     * {@link #storeInput()} call.
+     */
+    boolean isInputValid() {
+        return true;
+    }
+
+    /**
+     * Stores current input which is used to compute the deques, see {@link #isInputValid()}.
+     */
+    void storeInput() {}
+
+    /**
+     * Min value for given point, or NaN if there is no value.
+     */
+    abstract double minValue(int pos);
+
+    /**
+     * Max value for given point, or NaN if there is no value.
+     */
+    abstract double maxValue(int pos);
+
+    /**
+     * Stores final Y range given min and max values within window, NaN if there are no values.
+     */
+    abstract void setRange(double minValue, double maxValue, Range yRange);
+
+
+    /**
+     * Monotonic deque of window maximums, values are decreasing towards the anchored window end
+     * which should only grow. Opposite window end can be moved in both directions: new points
+     * which are not greater than current max are not stored since they will leave the window
+     * before current max.
+     */
+    private static class Extremum {
+        private int[] positions = new int[16];
+        private double[] values = new double[16];
+        private int head; // Index of first element
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            head = size = 0;
+        }
+
+        double get(boolean anchoredRight) {
+            return values[index(anchoredRight ? 0 : size - 1)];
+        }
+
+        void add(int pos, double value, boolean back, boolean anchoredRight) {
+            if (back == anchoredRight) {
+                // Adding to the anchored end, removing all values which are not greater
+                if (back) {
+                    while (size > 0 && values[index(size - 1)] <= value) {
+                        size--;
+                    }
+                } else {
+                    while (size > 0 && values[index(0)] <= value) {
+                        head = index(1);
+                        size--;
+                    }
+                }
+            } else {
+                // Adding to the opposite end, only if greater than current max
+                if (size > 0 && values[index(back ? size - 1 : 0)] >= value) {
+                    return;
+                }
+            }
+
+            ensureCapacity();
+
+            if (back) {
+                positions[index(size)] = pos;
+                values[index(size)] = value;
+            } else {
+                head = index(positions.length - 1);
+                positions[head] = pos;
+                values[head] = value;
+            }
+            size++;
+        }
+
+        void removeBefore(int from) {
+            while (size > 0 && positions[head] < from) {
+                head = index(1);
+                size--;
+            }
+        }
+
+        void removeAfter(int to) {
+            while (size > 0 && positions[index(size - 1)] > to) {
+                size--;
+            }
+        }
+
+        private int index(int offset) {
+            final int index = head + offset;
+            return index >= positions.length ? index - positions.length : index;
+        }
+
+        private void ensureCapacity() {
+            if (size < positions.length) {
+                return;
+            }
+            final int[] newPositions = new int[2 * positions.length];
+            final double[] newValues = new double[2 * positions.length];
+            for (int i = 0; i < size; i++) {
+                newPositions[i] = positions[index(i)];
+                newValues[i] = values[index(i)];
+            }
+            positions = newPositions;
+            values = newValues;
+            head = 0;
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+/**
+ * Reusable growable chars buffer, used to format numbers and dates without allocating
+ * intermediate strings. Only ASCII digits are used for numbers.
+ */
+public class TextBuffer {
+
+    private static final long[] POWERS_OF_TEN = new long[] { 1L, 10L, 100L, 1_000L, 10_000L };
+
+    private char[] chars;
+    private int length;
+
+    public TextBuffer() {
+        this(16);
+    }
+
+    public TextBuffer(int capacity) {
+        chars = new char[capacity];
+    }
+
+    public char[] chars() {
+        return chars;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public TextBuffer clear() {
+        length = 0;
+        return this;
+    }
+
+    public TextBuffer set(TextBuffer text) {
+        length = 0;
+        ensureCapacity(text.length);
+        System.arraycopy(text.chars, 0, chars, 0, text.length);
+        length = text.length;
+        return this;
+    }
+
+    public TextBuffer append(char ch) {
+        ensureCapacity(length + 1);
+        chars[length++] = ch;
+        return this;
+    }
+
+    public TextBuffer append(String text) {
+        final int size = text.length();
+        ensureCapacity(length + size);
+        for (int i = 0; i < size; i++) {
+            chars[length++] = text.charAt(i);
+        }
+        return this;
+    }
+
+    public TextBuffer append(long value) {
+        return appendGrouped(value, (char) 0);
+    }
+
+    /**
+     * Appends given number, separating each 3 digits with given separator char,
+     * if separator is 0 then no grouping is done.
+     */
+    public TextBuffer appendGrouped(long value, char separator) {
+        if (value == Long.MIN_VALUE) {
+            return append(String.valueOf(value)); // Cannot be negated, should never happen
+        }
+
+        if (value < 0L) {
+            append('-');
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long rest = value / 10L; rest > 0L; rest /= 10L) {
+            digits++;
+        }
+
+        final boolean group = separator != 0;
+        final int size = group ? digits + (digits - 1) / 3 : digits;
+        ensureCapacity(length + size);
+
+        // Writing digits from the end
+        int pos = length + size - 1;
+        int count = 0;
+        do {
+            if (group && count > 0 && count % 3 == 0) {
+                chars[pos--] = separator;
+            }
+            chars[pos--] = (char) ('0' + (value % 10L));
+            value /= 10L;
+            count++;
+        } while (value > 0L);
+
+        length += size;
+        return this;
+    }
+
+    /**
+     * Appends given value with fixed number of decimals (up to 4), rounding half up.
+     */
+    public TextBuffer appendFixed(float value, int decimals) {
+        final long power = POWERS_OF_TEN[decimals];
+        final boolean negative = value < 0f;
+        final long rounded = (long) Math.floor(Math.abs((double) value) * power + 0.5);
+
+        if (negative && rounded != 0L) {
+            append('-');
+        }
+
+        append(rounded / power);
+
+        if (decimals > 0) {
+            append('.');
+            final long fraction = rounded % power;
+            for (long p = power / 10L; p > 0L; p /= 10L) {
+                append((char) ('0' + (fraction / p) % 10L));
+            }
+        }
+        return this;
+    }
+
+    public boolean contentEquals(TextBuffer text) {
+        if (length != text.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chars[i] != text.chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (chars.length < capacity) {
+            final char[] newChars = new char[Math.max(capacity, 2 * chars.length)];
+            System.arraycopy(chars, 0, newChars, 0, length);
+            chars = newChars;
+        }
+    }
+
+}
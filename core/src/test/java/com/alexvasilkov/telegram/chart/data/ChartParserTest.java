@@ -0,0 +1,48 @@
+package com.alexvasilkov.telegram.chart.data;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+
+import org.json.JSONException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChartParserTest {
+
+    @Test
+    public void hexColors() throws JSONException {
+        assertEquals(0xFF3DC23F, parseColor("#3DC23F"));
+        assertEquals(0x803DC23F, parseColor("#803DC23F"));
+    }
+
+    @Test
+    public void namedColors() throws JSONException {
+        assertEquals(0xFFFF0000, parseColor("red"));
+        assertEquals(0xFF888888, parseColor("Gray"));
+        assertEquals(0xFF008080, parseColor("teal"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownColorName_rejected() throws JSONException {
+        parseColor("orange");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shortHexColor_rejected() throws JSONException {
+        parseColor("#FFF");
+    }
+
+
+    private static int parseColor(String color) throws JSONException {
+        final String json = "{"
+                + "\"columns\":[[\"x\",1,2],[\"y0\",10,20]],"
+                + "\"types\":{\"y0\":\"line\",\"x\":\"x\"},"
+                + "\"names\":{\"y0\":\"Joined\"},"
+                + "\"colors\":{\"y0\":\"" + color + "\"}"
+                + "}";
+        final Chart chart = ChartParser.parse(1, Resolution.DAY, json);
+        return chart.sources[0].color;
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.alexvasilkov.telegram.chart.domain;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Calendar based groups and resolutions arithmetic preceding {@link UtcDates}, used as a reference
+ * in tests. Calendar is in UTC with weeks starting on Monday.
+ */
+class CalendarDates {
+
+    private final Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"), Locale.US);
+
+    CalendarDates() {
+        cal.setFirstDayOfWeek(Calendar.MONDAY);
+    }
+
+    boolean isStart(GroupBy groupBy, long time) {
+        cal.setTimeInMillis(time);
+
+        switch (groupBy) {
+            case HOUR:
+                return cal.get(Calendar.MINUTE) == 0;
+            case DAY:
+                return cal.get(Calendar.HOUR_OF_DAY) == 0 && cal.get(Calendar.MINUTE) == 0;
+            case WEEK:
+                return cal.get(Calendar.DAY_OF_WEEK) == Calendar.MONDAY;
+            case MONTH:
+                return cal.get(Calendar.DAY_OF_MONTH) == 1;
+            case YEAR:
+                return cal.get(Calendar.DAY_OF_YEAR) == 1;
+            default:
+                throw new IllegalArgumentException("Unknown type: " + groupBy);
+        }
+    }
+
+    long getClosestStart(GroupBy groupBy, long time, int direction) {
+        if (isStart(groupBy, time)) {
+            return time;
+        }
+
+        cal.setTimeInMillis(time);
+
+        switch (groupBy) {
+            case HOUR:
+                cal.set(Calendar.MINUTE, 0);
+                break;
+            case DAY:
+                cal.set(Calendar.HOUR_OF_DAY, 0);
+                break;
+            case WEEK:
+                cal.set(Calendar.DAY_OF_WEEK, Calendar.MONDAY);
+                break;
+            case MONTH:
+                cal.set(Calendar.DAY_OF_MONTH, 1);
+                break;
+            case YEAR:
+                cal.set(Calendar.DAY_OF_YEAR, 1);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown type: " + groupBy);
+        }
+
+        return direction > 0 ? add(groupBy, cal.getTimeInMillis(), 1) : cal.getTimeInMillis();
+    }
+
+    long getGroupStart(GroupBy groupBy, long time) {
+        cal.setTimeInMillis(time);
+        cal.set(Calendar.MILLISECOND, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MINUTE, 0);
+
+        if (groupBy != GroupBy.HOUR) {
+            cal.set(Calendar.HOUR_OF_DAY, 0);
+        }
+
+        switch (groupBy) {
+            case WEEK:
+                cal.set(Calendar.DAY_OF_WEEK, Calendar.MONDAY);
+                break;
+            case MONTH:
+                cal.set(Calendar.DAY_OF_MONTH, 1);
+                break;
+            case YEAR:
+                cal.set(Calendar.DAY_OF_YEAR, 1);
+                break;
+            default:
+                break;
+        }
+
+        return cal.getTimeInMillis();
+    }
+
+    long add(GroupBy groupBy, long time, int amount) {
+        cal.setTimeInMillis(time);
+
+        switch (groupBy) {
+            case HOUR:
+                cal.add(Calendar.HOUR_OF_DAY, amount);
+                break;
+            case DAY:
+                cal.add(Calendar.DAY_OF_MONTH, amount);
+                break;
+            case WEEK:
+                cal.add(Calendar.WEEK_OF_YEAR, amount);
+                break;
+            case MONTH:
+                cal.add(Calendar.MONTH, amount);
+                break;
+            case YEAR:
+                cal.add(Calendar.YEAR, amount);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown type: " + groupBy);
+        }
+
+        return cal.getTimeInMillis();
+    }
+
+    long add(Resolution resolution, long time, int amount) {
+        cal.setTimeInMillis(time);
+
+        switch (resolution) {
+            case WEEK:
+                cal.add(Calendar.WEEK_OF_YEAR, amount);
+                break;
+            case DAY:
+                cal.add(Calendar.DAY_OF_MONTH, amount);
+                break;
+            case HOUR:
+                cal.add(Calendar.HOUR_OF_DAY, amount);
+                break;
+            case FIVE_MIN:
+                cal.add(Calendar.MINUTE, 5 * amount);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown type: " + resolution);
+        }
+
+        return cal.getTimeInMillis();
+    }
+
+    int dayOfMonth(long time) {
+        cal.setTimeInMillis(time);
+        return cal.get(Calendar.DAY_OF_MONTH);
+    }
+
+    int dayOfYear(long time) {
+        cal.setTimeInMillis(time);
+        return cal.get(Calendar.DAY_OF_YEAR);
+    }
+
+    int daysSinceMonday(long time) {
+        cal.setTimeInMillis(time);
+        return (cal.get(Calendar.DAY_OF_WEEK) - Calendar.MONDAY + 7) % 7;
+    }
+
+    long timeOfDay(long time) {
+        cal.setTimeInMillis(time);
+        return ((cal.get(Calendar.HOUR_OF_DAY) * 60L + cal.get(Calendar.MINUTE)) * 60L
+                + cal.get(Calendar.SECOND)) * 1000L + cal.get(Calendar.MILLISECOND);
+    }
+
+    /**
+     * Time of the last day of given month, at given time of the day.
+     */
+    long monthEnd(int year, int month, long timeOfDay) {
+        cal.clear();
+        cal.set(year, month, 1);
+        cal.set(Calendar.DAY_OF_MONTH, cal.getActualMaximum(Calendar.DAY_OF_MONTH));
+        return cal.getTimeInMillis() + timeOfDay;
+    }
+
+}
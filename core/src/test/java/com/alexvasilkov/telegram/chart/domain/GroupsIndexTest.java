@@ -0,0 +1,79 @@
+package com.alexvasilkov.telegram.chart.domain;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class GroupsIndexTest {
+
+    // 2019-03-01T00:00:00Z
+    private static final long MIDNIGHT = 1551398400000L;
+
+    @Test
+    public void unalignedStarts_sameAsPointsScan() {
+        final Random random = new Random(42L);
+        final Resolution[] resolutions = Resolution.values();
+
+        for (int i = 0; i < 4000; i++) {
+            final Resolution resolution = resolutions[random.nextInt(resolutions.length)];
+            final GroupBy groupBy = GroupBy.values()[random.nextInt(GroupBy.values().length)];
+            final long start = MIDNIGHT + (long) random.nextInt((int) TimeUnit.DAYS.toMillis(1L));
+            final int size = 1 + random.nextInt(3000);
+
+            assertSameAsPointsScan(chart(resolution, start, size, null), groupBy);
+        }
+    }
+
+    @Test
+    public void chartsWithGaps_sameAsPointsScan() {
+        final Random random = new Random(42L);
+
+        for (int i = 0; i < 1000; i++) {
+            final long start = MIDNIGHT + (long) random.nextInt((int) TimeUnit.DAYS.toMillis(1L));
+            final int size = 1 + random.nextInt(3000);
+            final Chart chart = chart(Resolution.FIVE_MIN, start, size, random);
+
+            assertSameAsPointsScan(chart, GroupBy.HOUR);
+            assertSameAsPointsScan(chart, GroupBy.DAY);
+        }
+    }
+
+
+    private static void assertSameAsPointsScan(Chart chart, GroupBy groupBy) {
+        final long[] x = chart.x;
+        final int[] expected = new int[x.length];
+        int count = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (groupBy.isStart(x[i])) {
+                expected[count++] = i;
+            }
+        }
+
+        final GroupsIndex index = GroupsIndex.build(chart, groupBy);
+        final int[] actual = new int[index.size()];
+        for (int i = 0; i < actual.length; i++) {
+            actual[i] = index.get(i);
+        }
+
+        final String message = chart.resolution + " by " + groupBy
+                + ", from " + x[0] + ", size " + x.length;
+        assertArrayEquals(message, Arrays.copyOf(expected, count), actual);
+    }
+
+    private static Chart chart(Resolution resolution, long start, int size, Random gaps) {
+        final long[] x = new long[size];
+        long time = start;
+        for (int i = 0; i < size; i++) {
+            x[i] = time;
+            // Optionally skipping up to a few hours of points
+            final int steps = gaps != null && gaps.nextInt(100) == 0 ? 1 + gaps.nextInt(50) : 1;
+            time = resolution.add(time, steps);
+        }
+        return new Chart(1, Chart.Type.LINES, resolution, x, new Chart.Source[0]);
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.alexvasilkov.telegram.chart.domain;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class UtcDatesTest {
+
+    // 1900-01-01T00:00:00Z and 2100-01-01T00:00:00Z
+    private static final long FROM = -2208988800000L;
+    private static final long TO = 4102444800000L;
+
+    private static final int MAX_AMOUNT = 50;
+
+    @Test
+    public void fields_sameAsCalendar() {
+        final CalendarDates calendar = new CalendarDates();
+        final Random random = new Random(42L);
+
+        for (int i = 0; i < 100000; i++) {
+            final long time = randomTime(random);
+            final String msg = "Time: " + time;
+
+            assertEquals(msg, calendar.timeOfDay(time), UtcDates.timeOfDay(time));
+            assertEquals(msg, calendar.daysSinceMonday(time), UtcDates.daysSinceMonday(time));
+            assertEquals(msg, calendar.dayOfMonth(time), UtcDates.dayOfMonth(time));
+            assertEquals(msg, calendar.dayOfYear(time), UtcDates.dayOfYear(time));
+        }
+    }
+
+    @Test
+    public void groups_sameAsCalendar() {
+        final CalendarDates calendar = new CalendarDates();
+        final Random random = new Random(42L);
+
+        for (int i = 0; i < 20000; i++) {
+            final long time = randomTime(random);
+            final int amount = random.nextInt(2 * MAX_AMOUNT + 1) - MAX_AMOUNT;
+
+            for (GroupBy groupBy : GroupBy.values()) {
+                assertSameAsCalendar(calendar, groupBy, time, amount);
+            }
+        }
+    }
+
+    @Test
+    public void groupsStarts_sameAsCalendar() {
+        final CalendarDates calendar = new CalendarDates();
+        final Random random = new Random(42L);
+
+        // Random times are rarely starts of groups, checking groups starts explicitly
+        for (int i = 0; i < 20000; i++) {
+            final long time = randomTime(random);
+            final int amount = random.nextInt(2 * MAX_AMOUNT + 1) - MAX_AMOUNT;
+
+            for (GroupBy groupBy : GroupBy.values()) {
+                final long start = calendar.getGroupStart(groupBy, time);
+                assertSameAsCalendar(calendar, groupBy, start, amount);
+            }
+        }
+    }
+
+    @Test
+    public void monthEnds_sameAsCalendar() {
+        final CalendarDates calendar = new CalendarDates();
+        final Random random = new Random(42L);
+
+        for (int year = 1900; year < 2100; year++) {
+            for (int month = 0; month < 12; month++) {
+                final long timeOfDay = random.nextInt((int) UtcDates.DAY);
+                final long time = calendar.monthEnd(year, month, timeOfDay);
+
+                for (int amount = -25; amount <= 25; amount++) {
+                    for (GroupBy groupBy : GroupBy.values()) {
+                        assertSameAsCalendar(calendar, groupBy, time, amount);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void resolutions_sameAsCalendar() {
+        final CalendarDates calendar = new CalendarDates();
+        final Random random = new Random(42L);
+
+        for (int i = 0; i < 100000; i++) {
+            final long time = randomTime(random);
+            final int amount = random.nextInt(2000 * MAX_AMOUNT + 1) - 1000 * MAX_AMOUNT;
+
+            for (Resolution resolution : Resolution.values()) {
+                assertEquals("Time: " + time + ", " + resolution + " + " + amount,
+                        calendar.add(resolution, time, amount), resolution.add(time, amount));
+            }
+        }
+    }
+
+
+    private static void assertSameAsCalendar(
+            CalendarDates calendar, GroupBy groupBy, long time, int amount) {
+        final String msg = "Time: " + time + ", " + groupBy;
+
+        assertEquals(msg, calendar.isStart(groupBy, time), groupBy.isStart(time));
+        assertEquals(msg, calendar.getClosestStart(groupBy, time, 1),
+                groupBy.getClosestStart(time, 1));
+        assertEquals(msg, calendar.getClosestStart(groupBy, time, -1),
+                groupBy.getClosestStart(time, -1));
+        assertEquals(msg, calendar.getGroupStart(groupBy, time), groupBy.getGroupStart(time));
+        assertEquals(msg + " + " + amount, calendar.add(groupBy, time, amount),
+                groupBy.add(time, amount));
+    }
+
+    private static long randomTime(Random random) {
+        return FROM + (long) (random.nextDouble() * (TO - FROM));
+    }
+
+}
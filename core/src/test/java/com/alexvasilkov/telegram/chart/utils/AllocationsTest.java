@@ -0,0 +1,107 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+import com.alexvasilkov.telegram.chart.data.ChartGenerator;
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.GroupBy;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that per-frame code paths do not allocate once they reach steady state, see
+ * {@link AllocationCounter}.
+ */
+public class AllocationsTest {
+
+    private static final int TIMES = 1000;
+
+    private final JvmAllocationCounter counter = new JvmAllocationCounter();
+
+    @Test
+    public void slidingRanges_noAllocations() {
+        final Chart chart = new ChartGenerator().setPoints(2000).setSources(5).generate(1);
+        final boolean[] states = { true, false, true, true, true };
+        final float[] scales = { 1f, 1f, 1f, 1f, 1f };
+        final Range range = new Range();
+
+        for (SlidingRange sliding : new SlidingRange[] {
+                ChartRanges.linesSlidingRange(chart, scales),
+                ChartRanges.stackedSlidingRange(chart)
+        }) {
+            final int[] step = { 0 };
+            assertNoAllocations(() -> {
+                // Panning back and forth, with window size changing
+                final int shift = step[0]++ % 200;
+                sliding.calculate(500 + shift, 900 + shift / 2, states, range);
+            });
+        }
+    }
+
+    @Test
+    public void numberFormats_noAllocations() {
+        final TextBuffer buffer = new TextBuffer();
+        final int[] value = { 0 };
+
+        assertNoAllocations(() -> {
+            value[0] = (value[0] + 7919) % 100_000_000;
+            NumberFormats.grouped(value[0], buffer.clear());
+            NumberFormats.abbreviated(value[0], 10L * value[0], buffer.clear());
+            NumberFormats.abbreviated(value[0], 1_000_000L, buffer.clear());
+            buffer.clear().appendFixed(value[0] / 1000f, 2);
+        });
+    }
+
+    @Test
+    public void labelsIndex_noAllocations() {
+        final long[] x = new long[5000];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = Resolution.DAY.add(0L, i);
+        }
+        final Chart chart = new Chart(1, Chart.Type.LINES, Resolution.DAY, x, new Chart.Source[0]);
+
+        final LabelsHelper helper = new LabelsHelper();
+        helper.init(1080, 120, 40f);
+        helper.setGroupBy(GroupBy.MONTH);
+        final float[] levels = helper.computeLabelsLevels(chart);
+        final LabelsIndex index = new LabelsIndex(levels);
+        final int[] step = { 0 };
+
+        assertNoAllocations(() -> {
+            // Zooming in and out, as done on each frame while updating labels visibility
+            final int size = 10 + step[0]++ % x.length;
+            final float minLevel = 0.5f * helper.computeLevel(size);
+            final int[] positions = index.getPositions(minLevel);
+            for (int p = LabelsIndex.indexOf(positions, size / 2); p < positions.length; p++) {
+                if (positions[p] > size) {
+                    break;
+                }
+            }
+        });
+    }
+
+    @Test
+    public void dates_noAllocations() {
+        final GroupBy[] groups = GroupBy.values(); // Values are copied on each call
+        final long[] time = { 1546300800000L }; // 2019-01-01 00:00 UTC
+        final long[] result = { 0L };
+
+        assertNoAllocations(() -> {
+            time[0] = Resolution.HOUR.add(time[0], 7);
+            for (GroupBy groupBy : groups) {
+                if (groupBy.isStart(time[0])) {
+                    result[0] += groupBy.add(time[0], 1);
+                }
+                result[0] += groupBy.getClosestStart(time[0], 1);
+                result[0] += groupBy.getGroupStart(time[0]);
+            }
+        });
+    }
+
+
+    private void assertNoAllocations(Runnable action) {
+        assertEquals("Allocated bytes", 0L, counter.measure(action, TIMES));
+    }
+
+}
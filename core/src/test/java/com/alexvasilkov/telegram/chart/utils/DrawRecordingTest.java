@@ -0,0 +1,118 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DrawRecordingTest {
+
+    private static final int RED = 0xFFFF0000;
+    private static final int BLUE = 0xFF0000FF;
+
+    @Test
+    public void counts_matchRecordedCommands() {
+        final DrawRecording recording = new DrawRecording();
+        record(recording, new float[] { 0f, 0f, 1f, 1f, 1f, 1f, 2f, 0f, 2f, 0f, 3f, 3f });
+
+        assertEquals(8, recording.size());
+        assertEquals(5, recording.getCalls());
+        assertEquals(4, recording.getLines()); // One line and three lines in a batch
+        assertEquals(7, recording.getPrimitives());
+        assertEquals(1, recording.getCalls(DrawRecording.SAVE));
+        assertEquals(1, recording.getCalls(DrawRecording.LINES));
+        assertEquals(1, recording.getCalls(DrawRecording.PATH));
+
+        recording.reset();
+        assertEquals(0, recording.size());
+        assertEquals(0, recording.getPrimitives());
+    }
+
+    @Test
+    public void replay_returnsCommandsInOrder() {
+        final DrawRecording recording = new DrawRecording();
+        final float[] points = { 0f, 0f, 1f, 1f, 1f, 1f, 2f, 0f };
+        record(recording, points);
+
+        final List<String> played = new ArrayList<>();
+        recording.replay((type, color, args, offset, count) -> played.add(
+                type + ":" + Integer.toHexString(color) + ":"
+                        + Arrays.toString(Arrays.copyOfRange(args, offset, offset + count))));
+
+        assertArrayEquals(new Object[] {
+                "0:0:[]",
+                "2:0:[2.0, 2.0, 5.0, 5.0]",
+                "3:ffff0000:[0.0, 1.0, 2.0, 3.0]",
+                "4:ff0000ff:" + Arrays.toString(points),
+                "5:ff0000ff:[1.0, 2.0, 3.0, 4.0]",
+                "6:ffff0000:[5.0, 5.0, 2.0]",
+                "8:ffff0000:[10.0, 20.0, 5.0]",
+                "1:0:[]"
+        }, played.toArray());
+    }
+
+    @Test
+    public void replay_manyCommands_sameAsRecorded() {
+        final DrawRecording recording = new DrawRecording();
+        final float[] points = new float[4000];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = i;
+        }
+
+        // Storage should grow beyond initial capacity
+        for (int i = 0; i < 1000; i++) {
+            recording.add(DrawRecording.CIRCLE, i).arg(i).arg(-i).arg(1f);
+        }
+        recording.add(DrawRecording.LINES, 0).args(points, 4, points.length - 4);
+
+        final int[] index = { 0 };
+        recording.replay((type, color, args, offset, count) -> {
+            final int i = index[0]++;
+            if (i < 1000) {
+                assertEquals(DrawRecording.CIRCLE, type);
+                assertEquals(i, color);
+                assertEquals(3, count);
+                assertEquals(i, args[offset], 0f);
+                assertEquals(-i, args[offset + 1], 0f);
+            } else {
+                assertEquals(DrawRecording.LINES, type);
+                assertArrayEquals(Arrays.copyOfRange(points, 4, points.length),
+                        Arrays.copyOfRange(args, offset, offset + count), 0f);
+            }
+        });
+        assertEquals(1001, index[0]);
+        assertEquals(999, recording.getLines());
+    }
+
+    @Test
+    public void recordingFrames_noAllocations() {
+        final DrawRecording recording = new DrawRecording();
+        final float[] points = new float[400];
+
+        final long allocated = new JvmAllocationCounter().measure(() -> {
+            recording.reset();
+            for (int i = 0; i < 100; i++) {
+                record(recording, points);
+            }
+        }, 100);
+
+        assertEquals("Allocated bytes", 0L, allocated);
+    }
+
+
+    private static void record(DrawRecording recording, float[] points) {
+        recording.add(DrawRecording.SAVE, 0);
+        recording.add(DrawRecording.SCALE, 0).arg(2f).arg(2f).arg(5f).arg(5f);
+        recording.add(DrawRecording.LINE, RED).arg(0f).arg(1f).arg(2f).arg(3f);
+        recording.add(DrawRecording.LINES, BLUE).args(points, 0, points.length);
+        recording.add(DrawRecording.PATH, BLUE).arg(1f).arg(2f).arg(3f).arg(4f);
+        recording.add(DrawRecording.CIRCLE, RED).arg(5f).arg(5f).arg(2f);
+        recording.add(DrawRecording.TEXT, RED).arg(10f).arg(20f).arg(5f);
+        recording.add(DrawRecording.RESTORE, 0);
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Counts bytes allocated by current thread using HotSpot's thread MX bean, allows running
+ * allocation checks on plain JVM.
+ */
+class JvmAllocationCounter implements AllocationCounter {
+
+    private final com.sun.management.ThreadMXBean bean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    JvmAllocationCounter() {
+        bean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Override
+    public long count() {
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Runs given action to reach steady state and then returns number of bytes allocated by
+     * running it given number of times more.
+     */
+    long measure(Runnable action, int times) {
+        for (int i = 0; i < times; i++) {
+            action.run();
+        }
+
+        // Counter itself may allocate, excluding its overhead
+        final long overhead = -count() + count();
+
+        final long start = count();
+        for (int i = 0; i < times; i++) {
+            action.run();
+        }
+        return count() - start - overhead;
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.GroupBy;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class LabelsHelperTest {
+
+    // 2019-03-01T00:00:00Z
+    private static final long MIDNIGHT = 1551398400000L;
+
+    @Test
+    public void fiveMinutesByDays_sameAsLegacy() {
+        for (int size : new int[] { 576, 864, 1152, 2016 }) {
+            assertSameAsLegacy(chart(Resolution.FIVE_MIN, MIDNIGHT, size), GroupBy.DAY);
+        }
+    }
+
+    @Test
+    public void unalignedStarts_sameAsLegacy() {
+        final Random random = new Random(42L);
+        final Resolution[] resolutions = { Resolution.FIVE_MIN, Resolution.HOUR };
+        final GroupBy[] groups = { GroupBy.HOUR, GroupBy.DAY };
+
+        for (int i = 0; i < 500; i++) {
+            final Resolution resolution = resolutions[random.nextInt(resolutions.length)];
+            final GroupBy groupBy = groups[random.nextInt(groups.length)];
+            final long start = MIDNIGHT + (long) random.nextInt((int) TimeUnit.DAYS.toMillis(1L));
+            final int size = 300 + random.nextInt(2000);
+
+            if (resolution == Resolution.HOUR && groupBy == GroupBy.HOUR) {
+                continue; // Each point is a separate group
+            }
+            assertSameAsLegacy(chart(resolution, start, size), groupBy);
+        }
+    }
+
+    @Test
+    public void daysByMonths_sameAsLegacy() {
+        final Random random = new Random(42L);
+
+        for (int i = 0; i < 100; i++) {
+            final long start = MIDNIGHT + TimeUnit.DAYS.toMillis(random.nextInt(1000));
+            final int size = 60 + random.nextInt(1000);
+            assertSameAsLegacy(chart(Resolution.DAY, start, size), GroupBy.MONTH);
+        }
+    }
+
+
+    private static void assertSameAsLegacy(Chart chart, GroupBy groupBy) {
+        final LabelsHelper helper = new LabelsHelper();
+        helper.init(1080, 120, 40f);
+        helper.setGroupBy(groupBy);
+
+        final LegacyLabelsHelper legacy = new LegacyLabelsHelper();
+        legacy.init(1080, 120, 40f);
+        legacy.setGroupBy(groupBy);
+
+        float[] expected;
+        try {
+            expected = legacy.computeLabelsLevels(chart);
+        } catch (NegativeArraySizeException | ArithmeticException e) {
+            // Legacy implementation failed if less than 2 points are groups starts, evenly
+            // distributed levels are expected in this case, as if there is no grouping
+            final LabelsHelper noGroups = new LabelsHelper();
+            noGroups.init(1080, 120, 40f);
+            expected = noGroups.computeLabelsLevels(chart);
+        }
+
+        final String message = chart.resolution + " by " + groupBy
+                + ", from " + chart.x[0] + ", size " + chart.x.length;
+        assertArrayEquals(message, expected, helper.computeLabelsLevels(chart), 0f);
+    }
+
+    static Chart chart(Resolution resolution, long start, int size) {
+        final long[] x = new long[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = resolution.add(start, i);
+        }
+        return new Chart(1, Chart.Type.LINES, resolution, x, new Chart.Source[0]);
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.GroupBy;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LabelsIndexTest {
+
+    // 2019-03-01T00:00:00Z
+    private static final long MIDNIGHT = 1551398400000L;
+
+    @Test
+    public void positions_includeAllVisibleLabels() {
+        final Random random = new Random(42L);
+
+        for (int i = 0; i < 100; i++) {
+            final int size = 2 + random.nextInt(3000);
+            final LabelsHelper helper = new LabelsHelper();
+            helper.init(1080, 60 + random.nextInt(200), 40f);
+            helper.setGroupBy(random.nextBoolean() ? GroupBy.MONTH : null);
+
+            final float[] levels = helper.computeLabelsLevels(chart(size));
+            final LabelsIndex index = new LabelsIndex(levels);
+
+            for (int j = 0; j < 20; j++) {
+                final float minLevel = 4f * random.nextFloat() * helper.computeLevel(size);
+                final int from = random.nextInt(size);
+                final int to = from + random.nextInt(size - from);
+                assertSameAsScan(levels, index, minLevel, from, to);
+            }
+        }
+    }
+
+    @Test
+    public void positions_includeAllForLowLevels() {
+        final float[] levels = { 0.5f, 1f, 0.25f, 1f, 2f, 1f, 0.5f };
+        final LabelsIndex index = new LabelsIndex(levels);
+        assertEquals(levels.length, index.getPositions(0.25f).length);
+        assertEquals(levels.length, index.getPositions(0f).length);
+        assertEquals(4, index.getPositions(1f).length);
+        assertEquals(1, index.getPositions(2f).length);
+        assertEquals(0, index.getPositions(4f).length);
+    }
+
+    @Test
+    public void indexOf_findsFirstNotLess() {
+        final int[] positions = { 1, 3, 5, 7 };
+        assertEquals(0, LabelsIndex.indexOf(positions, 0));
+        assertEquals(0, LabelsIndex.indexOf(positions, 1));
+        assertEquals(1, LabelsIndex.indexOf(positions, 2));
+        assertEquals(3, LabelsIndex.indexOf(positions, 7));
+        assertEquals(4, LabelsIndex.indexOf(positions, 8));
+        assertEquals(0, LabelsIndex.indexOf(new int[0], 5));
+    }
+
+
+    private static void assertSameAsScan(
+            float[] levels, LabelsIndex index, float minLevel, int from, int to) {
+        int expected = 0;
+        for (int i = from; i <= to; i++) {
+            if (levels[i] >= minLevel) {
+                expected++;
+            }
+        }
+
+        final int[] positions = index.getPositions(minLevel);
+        int actual = 0;
+        int prev = -1;
+        for (int p = LabelsIndex.indexOf(positions, from); p < positions.length; p++) {
+            final int pos = positions[p];
+            assertTrue(pos > prev);
+            prev = pos;
+            if (pos > to) {
+                break;
+            }
+            if (minLevel >= 1f) {
+                assertTrue(levels[pos] >= 0.5f * minLevel);
+            }
+            if (levels[pos] >= minLevel) {
+                actual++;
+            }
+        }
+
+        assertEquals(expected, actual);
+    }
+
+    private static Chart chart(int size) {
+        final long[] x = new long[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = Resolution.DAY.add(MIDNIGHT, i);
+        }
+        return new Chart(1, Chart.Type.LINES, Resolution.DAY, x, new Chart.Source[0]);
+    }
+
+}
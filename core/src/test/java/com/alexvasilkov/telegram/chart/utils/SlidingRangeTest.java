@@ -0,0 +1,101 @@
+package com.alexvasilkov.telegram.chart.utils;
+
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class SlidingRangeTest {
+
+    @Test
+    public void statesAndScalesChangedTogether_rangeUpdated() {
+        final Chart chart = chart(new int[] { 1, 2, 3, 4, 5 }, new int[] { 5, 4, 3, 2, 1 });
+        final float[] scales = { 1f, 1f };
+        final SlidingRange sliding = ChartRanges.linesSlidingRange(chart, scales);
+        final Range range = new Range();
+
+        sliding.calculate(0, 4, new boolean[] { true, true }, range);
+        assertRange(1f, 5f, range);
+
+        // Changing visibility and scales in one step
+        scales[0] = scales[1] = 3f;
+        sliding.calculate(0, 4, new boolean[] { true, false }, range);
+        assertRange(3f, 15f, range);
+
+        // Setting scales back
+        scales[0] = scales[1] = 1f;
+        sliding.calculate(0, 4, new boolean[] { true, false }, range);
+        assertRange(1f, 5f, range);
+    }
+
+    @Test
+    public void randomSteps_sameAsFullRange() {
+        final Random random = new Random(42L);
+        final int size = 500;
+        final int sourcesCount = 3;
+
+        final int[][] values = new int[sourcesCount][size];
+        for (int[] sourceValues : values) {
+            for (int i = 0; i < size; i++) {
+                sourceValues[i] = random.nextInt(1000);
+            }
+        }
+        final Chart chart = chart(values);
+
+        final float[] scales = { 1f, 1f, 1f };
+        final boolean[] states = { true, true, true };
+        final SlidingRange lines = ChartRanges.linesSlidingRange(chart, scales);
+        final SlidingRange stacked = ChartRanges.stackedSlidingRange(chart);
+        final Range actual = new Range();
+        final Range expected = new Range();
+
+        int from = 100;
+        int to = 200;
+
+        for (int step = 0; step < 5000; step++) {
+            final int shift = random.nextInt(11) - 5;
+            from = Math.max(0, Math.min(size - 2, from + shift + random.nextInt(3) - 1));
+            to = Math.max(from + 1, Math.min(size - 1, to + shift + random.nextInt(3) - 1));
+
+            if (random.nextInt(50) == 0) {
+                states[random.nextInt(sourcesCount)] ^= true;
+            }
+            if (random.nextInt(50) == 0) {
+                scales[random.nextInt(sourcesCount)] = 1 + random.nextInt(3);
+            }
+
+            ChartRanges.linesRange(chart, scales, from, to, states, expected);
+            lines.calculate(from, to, states, actual);
+            assertRange(expected.from, expected.to, actual);
+
+            ChartRanges.stackedRange(chart, from, to, states, expected);
+            stacked.calculate(from, to, states, actual);
+            assertRange(expected.from, expected.to, actual);
+        }
+    }
+
+
+    private static void assertRange(float from, float to, Range range) {
+        assertEquals(from, range.from, 0f);
+        assertEquals(to, range.to, 0f);
+    }
+
+    private static Chart chart(int[]... values) {
+        final int size = values[0].length;
+        final long[] x = new long[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = Resolution.DAY.add(0L, i);
+        }
+
+        final Chart.Source[] sources = new Chart.Source[values.length];
+        for (int s = 0; s < values.length; s++) {
+            sources[s] = new Chart.Source("Source " + s, 0, values[s]);
+        }
+        return new Chart(1, Chart.Type.LINES, Resolution.DAY, x, sources);
+    }
+
+}
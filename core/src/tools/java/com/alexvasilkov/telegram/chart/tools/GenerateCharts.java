@@ -0,0 +1,137 @@
+package com.alexvasilkov.telegram.chart.tools;
+
+import com.alexvasilkov.telegram.chart.data.ChartGenerator;
+import com.alexvasilkov.telegram.chart.data.ChartWriter;
+import com.alexvasilkov.telegram.chart.domain.Chart;
+import com.alexvasilkov.telegram.chart.domain.Resolution;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Generates synthetic chart files which can be read by the app, see {@link ChartGenerator}.
+ * <p>
+ * Arguments (all but 'out' and 'id' are optional):
+ * <pre>
+ * --out=DIR                    charts directory, chart is written into DIR/ID
+ * --id=ID                      chart id, app expects ids 1 to 5
+ * --type=LINES                 LINES, LINES_INDEPENDENT, BARS or AREA
+ * --resolution=DAY             overview resolution: DAY, HOUR or FIVE_MIN
+ * --points=365                 overview points count
+ * --sources=2                  sources count
+ * --distribution=RANDOM_WALK   RANDOM_WALK, UNIFORM, NORMAL or SPIKES
+ * --gaps=0                     probability of a gap (zero values) to start at each point
+ * --gap-length=1               max gap length, in points
+ * --seed=0                     random seed
+ * --start=2019-01-01           date of the first point, in UTC
+ * --details-resolution=HOUR    details resolution, no details are written if not set
+ * --details-type=TYPE          details chart type, same as overview by default
+ * --details-days=N             number of last days to write details for, all days by default
+ * </pre>
+ */
+public class GenerateCharts {
+
+    private static final long DAY = 24L * 60L * 60L * 1000L;
+
+    public static void main(String[] args) throws IOException {
+        final Map<String, String> params = parseArgs(args);
+
+        final File out = new File(required(params, "out"));
+        final int id = Integer.parseInt(required(params, "id"));
+        final long seed = Long.parseLong(get(params, "seed", "0"));
+        final float gaps = Float.parseFloat(get(params, "gaps", "0"));
+        final int gapLength = Integer.parseInt(get(params, "gap-length", "1"));
+        final int sources = Integer.parseInt(get(params, "sources", "2"));
+        final Chart.Type type = Chart.Type.valueOf(get(params, "type", "LINES"));
+        final ChartGenerator.Distribution distribution =
+                ChartGenerator.Distribution.valueOf(get(params, "distribution", "RANDOM_WALK"));
+
+        final ChartGenerator overview = new ChartGenerator()
+                .setType(type)
+                .setResolution(Resolution.valueOf(get(params, "resolution", "DAY")))
+                .setStart(parseDate(get(params, "start", "2019-01-01")))
+                .setPoints(Integer.parseInt(get(params, "points", "365")))
+                .setSources(sources)
+                .setDistribution(distribution)
+                .setGaps(gaps, gapLength)
+                .setSeed(seed);
+
+        final File chartDir = new File(out, String.valueOf(id));
+
+        final Chart overviewChart = overview.generate(id);
+        ChartWriter.writeOverview(overviewChart, chartDir);
+        log("Overview: %d points x %d sources", overviewChart.x.length, sources);
+
+        final String detailsResolution = params.get("details-resolution");
+        if (detailsResolution != null) {
+            final Resolution resolution = Resolution.valueOf(detailsResolution);
+            final long overviewFrom = overviewChart.x[0];
+            final long overviewTo = overviewChart.x[overviewChart.x.length - 1];
+
+            final long allDays = (overviewTo - overviewFrom) / DAY + 1;
+            final String daysParam = params.get("details-days");
+            final long days = daysParam == null
+                    ? allDays : Math.min(Long.parseLong(daysParam), allDays);
+
+            final long detailsFrom = overviewFrom + (allDays - days) * DAY;
+            final long points = days * DAY / resolution.duration;
+            if (points > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many details points, use --details-days");
+            }
+
+            final ChartGenerator details = new ChartGenerator()
+                    .setType(Chart.Type.valueOf(get(params, "details-type", type.name())))
+                    .setResolution(resolution)
+                    .setStart(detailsFrom)
+                    .setPoints((int) points)
+                    .setSources(sources)
+                    .setDistribution(distribution)
+                    .setGaps(gaps, gapLength)
+                    .setSeed(seed + 1L);
+
+            final int written = ChartWriter.writeDays(details.generate(id), chartDir);
+            log("Details: %d days of %d", written, days);
+        }
+
+        log("Chart %d is written to %s", id, chartDir.getAbsolutePath());
+    }
+
+
+    private static Map<String, String> parseArgs(String[] args) {
+        final Map<String, String> params = new HashMap<>();
+        for (String arg : args) {
+            final int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq == -1) {
+                throw new IllegalArgumentException("Expected '--key=value' argument: " + arg);
+            }
+            params.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return params;
+    }
+
+    private static String get(Map<String, String> params, String key, String defaultValue) {
+        final String value = params.get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    private static String required(Map<String, String> params, String key) {
+        final String value = params.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required argument: --" + key);
+        }
+        return value;
+    }
+
+    private static long parseDate(String date) {
+        return LocalDate.parse(date).toEpochDay() * DAY;
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.println(String.format(Locale.US, format, args));
+    }
+
+}